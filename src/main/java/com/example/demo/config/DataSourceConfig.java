@@ -1,19 +1,30 @@
 package com.example.demo.config;
 
 import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class DataSourceConfig {
 
+    // 가상 스레드 모드에서는 요청 동시성이 스레드 수로 제한되지 않으므로 커넥션 풀이 실제 DB 동시성 상한이 됨
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    // 풀이 비지 않을 때 커넥션을 기다리는 최대 시간 (가상 스레드가 무한정 쌓이지 않도록)
+    @Value("${spring.datasource.hikari.connection-timeout:30000}")
+    private long connectionTimeout;
+
     @Bean
     public HikariDataSource dataSource(){
         HikariDataSource dataSource = new HikariDataSource();
         dataSource.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/snsdatas");
+        dataSource.setJdbcUrl("jdbc:mysql://localhost:3306/snsdatas?rewriteBatchedStatements=true");
         dataSource.setUsername("root");
         dataSource.setPassword("1234");
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
         return dataSource;
     }
 
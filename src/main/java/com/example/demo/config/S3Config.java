@@ -3,6 +3,7 @@ package com.example.demo.config; // config 폴더에 생성 권장
 import com.amazonaws.auth.AWSCredentials;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.regions.Regions;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
@@ -26,6 +27,10 @@ public class S3Config {
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
 
+    // S3 호환 로컬 저장소(MinIO 등)를 쓸 때 엔드포인트 (비어 있으면 AWS)
+    @Value("${aws.s3.endpoint:}")
+    private String endpoint;
+
     /**
      * AmazonS3Client 객체를 생성하여 Spring Bean으로 등록합니다.
      */
@@ -35,12 +40,19 @@ public class S3Config {
         AWSCredentials credentials = new BasicAWSCredentials(accessKey, secretKey);
 
         // 2. S3 클라이언트 빌더를 사용하여 객체 생성
-        return AmazonS3ClientBuilder.standard()
+        AmazonS3ClientBuilder builder = AmazonS3ClientBuilder.standard()
                 // 자격 증명을 클라이언트에 제공
-                .withCredentials(new AWSStaticCredentialsProvider(credentials))
-                // 리전 설정 (문자열 region을 Regions Enum으로 변환하여 사용)
-                .withRegion(Regions.fromName(region))
-                .build();
+                .withCredentials(new AWSStaticCredentialsProvider(credentials));
+
+        if (endpoint != null && !endpoint.isBlank()) {
+            // S3 호환 저장소: 엔드포인트 지정 + path-style 주소 사용
+            builder.withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(endpoint, region))
+                    .withPathStyleAccessEnabled(true);
+        } else {
+            // 리전 설정 (문자열 region을 Regions Enum으로 변환하여 사용)
+            builder.withRegion(Regions.fromName(region));
+        }
+        return builder.build();
     }
 
     /**
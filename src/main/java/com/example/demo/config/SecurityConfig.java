@@ -1,5 +1,8 @@
 package com.example.demo.config;
 
+import com.example.demo.config.auth.BoundedPasswordEncoder;
+import com.example.demo.config.auth.LoginAttemptThrottle;
+import com.example.demo.config.auth.LoginThrottleFilter;
 import com.example.demo.config.auth.exceptionHandler.CustomAccessDeniedHandler;
 import com.example.demo.config.auth.exceptionHandler.CustomAuthenticationEntryPoint;
 import com.example.demo.config.auth.jwt.JWTAuthorizationFilter;
@@ -10,6 +13,7 @@ import com.example.demo.config.auth.logoutHandler.CustomLogoutHandler;
 import com.example.demo.config.auth.logoutHandler.CustomLogoutSuccessHandler;
 import com.example.demo.config.auth.oauth2.CookieOAuth2AuthorizationRequestRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -46,6 +50,21 @@ public class SecurityConfig  {
     @Autowired
     CookieOAuth2AuthorizationRequestRepository cookieOAuth2AuthorizationRequestRepository;
 
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+
+    // BCrypt 전용 풀 크기 (0 이하이면 CPU 코어 수)
+    @Value("${security.password-encoder.pool-size:0}")
+    private int passwordPoolSize;
+
+    // 풀이 모두 사용 중일 때 대기 가능한 요청 수 (초과 시 즉시 거절)
+    @Value("${security.password-encoder.queue-capacity:64}")
+    private int passwordQueueCapacity;
+
+    // 요청 스레드가 해시 결과를 기다리는 최대 시간
+    @Value("${security.password-encoder.wait-timeout-ms:3000}")
+    private long passwordWaitTimeoutMs;
+
     @Bean
     protected SecurityFilterChain configure(HttpSecurity http) throws Exception {
 
@@ -61,6 +80,8 @@ public class SecurityConfig  {
 
         // 권한 처리
         http.authorizeHttpRequests((auth)->{
+            // 방 실행기 현황은 관리자만 (아래 /api/chat/** 보다 먼저 매칭되어야 함)
+            auth.requestMatchers("/api/chat/executor/stats").hasAnyRole("ADMIN");
             auth.requestMatchers("/api/chat/**").authenticated();
             auth.requestMatchers(
                     "/",
@@ -79,9 +100,13 @@ public class SecurityConfig  {
                     "/*.html",
                     "/swagger-ui/index.html"
             ).permitAll();
+            // 서명 URL (서명/만료 시각으로 자체 검증)
+            auth.requestMatchers("/api/files/signed/**").permitAll();
             auth.requestMatchers("/user").hasAnyRole("USER");
             auth.requestMatchers("/manager").hasAnyRole("MANAGER");
             auth.requestMatchers("/admin").hasAnyRole("ADMIN");
+            auth.requestMatchers("/api/storage/gc/run").hasAnyRole("ADMIN");
+            auth.requestMatchers("/api/security/password-encoder/stats").hasAnyRole("ADMIN");
             auth.requestMatchers("/my-account").permitAll();
             auth.anyRequest().authenticated();
         });
@@ -125,13 +150,31 @@ public class SecurityConfig  {
         // UsernamePasswordAuthenticationFilter 이전에 JWT 필터를 추가하여 토큰 검증을 먼저 수행합니다.
         http.addFilterBefore(jwtAuthorizationFilter, UsernamePasswordAuthenticationFilter.class );
 
+        // 로그인 시도 제한 (BCrypt 검증 전에 IP/계정 단위로 차단)
+        http.addFilterBefore(loginThrottleFilter(), UsernamePasswordAuthenticationFilter.class );
+
         // Etc..
         return http.build();
     }
 
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        // BCrypt 는 요청 스레드가 아닌 크기가 제한된 전용 풀에서 실행
+        int poolSize = passwordPoolSize > 0 ? passwordPoolSize : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, passwordQueueCapacity, passwordWaitTimeoutMs);
+    }
+
+    @Bean
+    public LoginThrottleFilter loginThrottleFilter() {
+        return new LoginThrottleFilter(loginAttemptThrottle);
+    }
+
+    // 로그인 시도 제한 필터는 시큐리티 체인 안에서만 실행 (서블릿 필터로 중복 등록되지 않도록)
+    @Bean
+    public FilterRegistrationBean<LoginThrottleFilter> loginThrottleFilterRegistration(LoginThrottleFilter loginThrottleFilter) {
+        FilterRegistrationBean<LoginThrottleFilter> filterRegistrationBean = new FilterRegistrationBean<>(loginThrottleFilter);
+        filterRegistrationBean.setEnabled(false);
+        return filterRegistrationBean;
     }
 
     @Bean
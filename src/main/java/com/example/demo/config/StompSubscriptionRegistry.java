@@ -0,0 +1,93 @@
+package com.example.demo.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 현재 노드의 채팅방 STOMP 구독 목록
+ * - StompHandler 가 SUBSCRIBE/UNSUBSCRIBE/DISCONNECT 시 갱신합니다.
+ * - 강퇴/방 삭제 시 해당 구독을 브로커에서 즉시 해제하여 이후 메시지를 받지 못하게 합니다.
+ */
+@Component
+@Slf4j
+public class StompSubscriptionRegistry {
+
+    private final MessageChannel brokerChannel;
+
+    // sessionId -> (subscriptionId -> 구독 정보)
+    private final Map<String, Map<String, RoomSubscription>> sessions = new ConcurrentHashMap<>();
+
+    // brokerChannel 은 WebSocketConfig(-> StompHandler -> 이 클래스) 이후에 만들어지므로 지연 주입
+    public StompSubscriptionRegistry(@Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        this.brokerChannel = brokerChannel;
+    }
+
+    public void register(String sessionId, String subscriptionId, String roomId, Long userId) {
+        if (sessionId == null || subscriptionId == null) {
+            return;
+        }
+        sessions.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, new RoomSubscription(roomId, userId));
+    }
+
+    public void unregister(String sessionId, String subscriptionId) {
+        Map<String, RoomSubscription> subscriptions = sessionId == null ? null : sessions.get(sessionId);
+        if (subscriptions != null && subscriptionId != null) {
+            subscriptions.remove(subscriptionId);
+        }
+    }
+
+    public void unregisterSession(String sessionId) {
+        if (sessionId != null) {
+            sessions.remove(sessionId);
+        }
+    }
+
+    // 강퇴된 사용자의 해당 방 구독 해제
+    public void revoke(String roomId, Long userId) {
+        revokeMatching(roomId, userId);
+    }
+
+    // 삭제된 방의 모든 구독 해제
+    public void revokeRoom(String roomId) {
+        revokeMatching(roomId, null);
+    }
+
+    private void revokeMatching(String roomId, Long userId) {
+        sessions.forEach((sessionId, subscriptions) -> subscriptions.entrySet().removeIf(entry -> {
+            RoomSubscription subscription = entry.getValue();
+            boolean matches = subscription.roomId.equals(roomId)
+                    && (userId == null || userId.equals(subscription.userId));
+            if (matches) {
+                unsubscribe(sessionId, entry.getKey());
+                log.info("[STOMP] 구독 해제: roomId={}, userId={}, sessionId={}", roomId, subscription.userId, sessionId);
+            }
+            return matches;
+        }));
+    }
+
+    // 클라이언트가 UNSUBSCRIBE 를 보낸 것처럼 브로커에 전달
+    private void unsubscribe(String sessionId, String subscriptionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setLeaveMutable(true);
+        brokerChannel.send(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    @RequiredArgsConstructor
+    private static class RoomSubscription {
+        private final String roomId;
+        private final Long userId;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.demo.config;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.example.demo.domain.service.S3MultipartUploader;
+import com.example.demo.domain.service.StorageModeManager;
+import com.example.demo.domain.storage.InMemoryStorageBackend;
+import com.example.demo.domain.storage.LocalStorageBackend;
+import com.example.demo.domain.storage.ModeSwitchingStorageBackend;
+import com.example.demo.domain.storage.S3StorageBackend;
+import com.example.demo.domain.storage.StorageBackend;
+import com.example.demo.domain.storage.TieredStorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 파일 저장소(StorageBackend) 구성
+ * - storage.backend=local: 로컬 디스크 (storage.local.root)
+ * - storage.backend=s3: S3 직접
+ * - storage.backend=tiered: S3 + 로컬 디스크 캐시 (storage.cache.*)
+ * - storage.backend=memory: 메모리 저장소 (테스트용)
+ * - storage.mode.toggle-enabled=true (개발용) 이면 StorageModeManager 모드에 따라 로컬/원격을 실행 중 전환합니다.
+ * FileService 등은 @Primary 인 storageBackend 만 주입받아 사용합니다.
+ */
+@Configuration
+@Slf4j
+public class StorageConfig {
+
+    // 로컬 모드 저장 경로 (상대 경로는 실행 디렉터리 기준)
+    @Value("${storage.local.root:data/chat-files}")
+    private String localRoot;
+
+    // 비우면 java.io.tmpdir/chat-storage-cache
+    @Value("${storage.cache.dir:}")
+    private String cacheDir;
+
+    @Value("${storage.cache.max-bytes:1073741824}")
+    private long cacheMaxBytes;
+
+    // 이보다 큰 객체는 캐시하지 않음
+    @Value("${storage.cache.max-object-bytes:33554432}")
+    private long cacheMaxObjectBytes;
+
+    @Value("${storage.cache.eviction-grace-ms:60000}")
+    private long cacheEvictionGraceMs;
+
+    @Bean
+    public LocalStorageBackend localStorageBackend() throws IOException {
+        return new LocalStorageBackend(Paths.get(localRoot));
+    }
+
+    @Bean
+    public S3StorageBackend s3StorageBackend(AmazonS3 amazonS3, String s3BucketName, S3MultipartUploader s3MultipartUploader) {
+        return new S3StorageBackend(amazonS3, s3BucketName, s3MultipartUploader);
+    }
+
+    // 원격 저장소: storage.backend=s3 이면 S3 직접, 그 외(tiered, 개발용 전환 대상)는 디스크 캐시를 앞에 둠
+    @Bean
+    public StorageBackend remoteStorageBackend(StorageModeManager storageModeManager,
+                                               S3StorageBackend s3StorageBackend) throws IOException {
+        if (StorageModeManager.BACKEND_S3.equals(storageModeManager.getBackend())) {
+            return s3StorageBackend;
+        }
+        Path cachePath = (cacheDir == null || cacheDir.isBlank())
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "chat-storage-cache")
+                : Paths.get(cacheDir);
+        log.info("S3 디스크 캐시 사용: dir={}, maxBytes={}", cachePath, cacheMaxBytes);
+        return new TieredStorageBackend(s3StorageBackend, cachePath, cacheMaxBytes, cacheMaxObjectBytes, cacheEvictionGraceMs);
+    }
+
+    @Bean
+    @Primary
+    public StorageBackend storageBackend(StorageModeManager storageModeManager,
+                                         LocalStorageBackend localStorageBackend,
+                                         @Qualifier("remoteStorageBackend") StorageBackend remoteStorageBackend) {
+        String backend = storageModeManager.getBackend();
+        if (StorageModeManager.BACKEND_MEMORY.equals(backend)) {
+            log.warn("STORAGE BACKEND: 메모리 저장소 사용 (재시작 시 파일 유실)");
+            return new InMemoryStorageBackend();
+        }
+        if (storageModeManager.isToggleEnabled()) {
+            log.warn("STORAGE BACKEND: 개발용 모드 전환 사용 (storage.backend={})", backend);
+            return new ModeSwitchingStorageBackend(storageModeManager, localStorageBackend, remoteStorageBackend);
+        }
+        log.info("STORAGE BACKEND: {}", backend);
+        return StorageModeManager.BACKEND_LOCAL.equals(backend) ? localStorageBackend : remoteStorageBackend;
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.demo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 가상 스레드 캐리어 고정(pinning) 감지
+ * - synchronized 블록이나 네이티브 호출 안에서 블로킹되면 가상 스레드가 캐리어(플랫폼) 스레드를 점유한 채 멈춥니다.
+ * - JFR jdk.VirtualThreadPinned 이벤트를 구독하여 임계 시간 이상 고정된 경우 호출 스택과 함께 경고 로그를 남깁니다.
+ * - spring.threads.virtual.enabled=true 일 때만 동작합니다.
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final int LOGGED_FRAMES = 8;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // 이 시간 이상 고정된 경우만 기록
+    @Value("${app.virtual-threads.pinning-threshold-ms:20}")
+    private long thresholdMs;
+
+    private RecordingStream recordingStream;
+
+    @PostConstruct
+    public void start() {
+        if (!virtualThreads) {
+            return;
+        }
+        try {
+            recordingStream = new RecordingStream();
+            recordingStream.enable("jdk.VirtualThreadPinned")
+                    .withThreshold(Duration.ofMillis(thresholdMs))
+                    .withStackTrace();
+            recordingStream.onEvent("jdk.VirtualThreadPinned", this::report);
+            recordingStream.startAsync();
+            log.info("VIRTUAL THREADS: pinning monitor started (threshold={}ms)", thresholdMs);
+        } catch (Exception e) {
+            // JFR 을 사용할 수 없는 런타임이어도 애플리케이션은 계속 동작
+            log.warn("VIRTUAL THREADS: pinning monitor unavailable: {}", e.getMessage());
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        String stack = "";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            stack = frames.stream()
+                    .limit(LOGGED_FRAMES)
+                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+                    .collect(Collectors.joining(" <- "));
+        }
+        log.warn("[PINNED] 가상 스레드가 {}ms 동안 캐리어를 점유: {}", event.getDuration().toMillis(), stack);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.example.demo.config;
 
 import com.example.demo.config.auth.jwt.StompHandler; // Import 추가
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
@@ -16,22 +18,40 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final StompHandler stompHandler; // StompHandler 주입
 
+    // Tomcat 요청 스레드와 같은 스위치로 STOMP 채널도 가상 스레드로 전환
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws-stomp")
                 .setAllowedOriginPatterns("*") // CORS 문제 방지 (필요 시 설정)
                 .withSockJS();
+        // 한 세션의 프레임은 받은 순서대로 처리 (executor 가 여러 스레드여도 SUBSCRIBE 가 SEND 를 앞지르지 않음)
+        registry.setPreserveReceiveOrder(true);
     }
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.enableSimpleBroker("/sub");
         registry.setApplicationDestinationPrefixes("/pub");
+        // 한 세션으로 나가는 메시지는 발행 순서대로 전달 (outbound executor 에서 채팅 메시지가 뒤섞이지 않도록)
+        registry.setPreservePublishOrder(true);
     }
 
     // 인터셉터 등록
     @Override
     public void configureClientInboundChannel(ChannelRegistration registration) {
         registration.interceptors(stompHandler);
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.executor(new VirtualThreadTaskExecutor("stomp-outbound-"));
+        }
     }
 }
\ No newline at end of file
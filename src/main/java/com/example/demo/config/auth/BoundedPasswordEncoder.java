@@ -0,0 +1,135 @@
+package com.example.demo.config.auth;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 전용 스레드 풀에서 해시/검증을 수행하는 PasswordEncoder
+ * - BCrypt 는 의도적으로 느린 CPU 작업이므로, 로그인 폭주 시 요청 스레드 전체가 해시 계산에 묶이지 않도록 풀 크기를 제한합니다.
+ * - 대기 큐가 가득 차면 즉시 거절하고(AuthenticationServiceException), 대기 시간이 wait-timeout 을 넘어도 거절합니다.
+ * - 해시 소요 시간/대기 건수/거절 건수를 getStats() 로 제공합니다.
+ */
+@Slf4j
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long waitTimeoutMs;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int poolSize, int queueCapacity, long waitTimeoutMs) {
+        this.delegate = delegate;
+        this.waitTimeoutMs = waitTimeoutMs;
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "password-hash-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        log.info("PASSWORD ENCODER: bounded pool (size={}, queue={}, waitTimeoutMs={})", poolSize, queueCapacity, waitTimeoutMs);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return submit(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return submit(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    record(System.nanoTime() - start);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("[PASSWORD] 해시 요청 거절: 대기 큐 포화 ({}건)", executor.getQueue().size());
+            throw new AuthenticationServiceException("요청이 많아 잠시 후 다시 시도해주세요.");
+        }
+
+        try {
+            return future.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.incrementAndGet();
+            throw new AuthenticationServiceException("요청이 많아 잠시 후 다시 시도해주세요.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new AuthenticationServiceException("비밀번호 처리 중 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new AuthenticationServiceException("비밀번호 처리 중 오류가 발생했습니다.", e.getCause());
+        }
+    }
+
+    private void record(long nanos) {
+        completed.incrementAndGet();
+        totalNanos.addAndGet(nanos);
+        maxNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    public Stats getStats() {
+        long count = completed.get();
+        return new Stats(
+                executor.getActiveCount(),
+                executor.getQueue().size(),
+                count,
+                rejected.get(),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalNanos.get() / count),
+                TimeUnit.NANOSECONDS.toMicros(maxNanos.get()));
+    }
+
+    // 컨테이너 종료 시 호출 (빈 destroy 메서드 추론)
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Stats {
+        private final int active;
+        private final int queueDepth;
+        private final long completed;
+        private final long rejected;
+        private final long avgHashMicros;
+        private final long maxHashMicros;
+    }
+}
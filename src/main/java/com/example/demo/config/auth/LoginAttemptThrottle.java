@@ -0,0 +1,258 @@
+package com.example.demo.config.auth;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * 로그인/비밀번호 확인 시도 제한
+ * - IP: 클라이언트 IP 별 전체 시도 수 제한 (프록시 뒤에서는 server.forward-headers-strategy=native 로 해석된 IP)
+ * - 계정: 실패한 시도만 센 (IP, 계정) 별 제한. 다른 사람이 틀린 비밀번호를 보내도 다른 IP 의 계정 주인은 막히지 않으며, 성공하면 초기화합니다.
+ * - 계정 백오프: IP 와 무관하게 계정 별 연속 실패를 세어, 허용 횟수를 넘으면 실패할 때마다 대기 시간을 두 배로 늘립니다. (상한 있음)
+ *   여러 IP 로 한 계정을 추측하는 공격을 늦추되, 영구 잠금이 아니라 대기 후 다시 시도할 수 있어 계정 주인이 잠기지 않습니다.
+ * - 비밀번호 확인(비밀번호 변경/회원탈퇴): 로그인한 본인만 시도할 수 있으므로 계정 별 실패만 셉니다.
+ * - 키마다 GCRA(토큰 버킷과 동일한 동작)의 "다음 허용 시각" 하나를 보관하며, 버킷이 다시 가득 찬 키는 주기적으로 제거합니다.
+ *   추적 키가 max-keys 에 닿으면 만료된 키를 먼저 정리하고, 그래도 가득 차 있으면 새 키는 거부합니다. (fail closed)
+ */
+@Component
+@Slf4j
+public class LoginAttemptThrottle {
+
+    private final Bucket ipBuckets;
+    private final Bucket failureBuckets;
+    private final Backoff accountBackoff;
+
+    private ScheduledExecutorService cleaner;
+
+    public LoginAttemptThrottle(
+            @Value("${security.throttle.max-keys:100000}") int maxKeys,
+            @Value("${security.throttle.ip.per-minute:30}") int ipPerMinute,
+            @Value("${security.throttle.ip.burst:30}") int ipBurst,
+            @Value("${security.throttle.account.per-minute:5}") int accountPerMinute,
+            @Value("${security.throttle.account.burst:5}") int accountBurst,
+            @Value("${security.throttle.account-backoff.free-failures:10}") int backoffFreeFailures,
+            @Value("${security.throttle.account-backoff.base-seconds:1}") long backoffBaseSeconds,
+            @Value("${security.throttle.account-backoff.max-seconds:60}") long backoffMaxSeconds) {
+        this.ipBuckets = new Bucket(ipPerMinute, ipBurst, maxKeys);
+        this.failureBuckets = new Bucket(accountPerMinute, accountBurst, maxKeys);
+        this.accountBackoff = new Backoff(backoffFreeFailures, backoffBaseSeconds, backoffMaxSeconds, maxKeys);
+    }
+
+    @PostConstruct
+    public void init() {
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "login-throttle-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(() -> {
+            long now = System.nanoTime();
+            ipBuckets.removeExpired(now);
+            failureBuckets.removeExpired(now);
+            accountBackoff.removeExpired(now);
+        }, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    // IP 별 시도 (모든 로그인 요청에서 소모)
+    public boolean tryAcquireIp(String ip) {
+        return ip == null || ipBuckets.tryAcquire(ip);
+    }
+
+    // (IP, 계정) 로그인 실패 한도 안이고 계정 백오프 대기 중이 아닌지 (소모하지 않음)
+    public boolean isLoginAllowed(String ip, String email) {
+        return email == null
+                || (failureBuckets.hasCapacity(loginKey(ip, email)) && accountBackoff.isAllowed(accountKey(email)));
+    }
+
+    public void recordLoginFailure(String ip, String email) {
+        if (email != null) {
+            failureBuckets.tryAcquire(loginKey(ip, email));
+            accountBackoff.recordFailure(accountKey(email));
+        }
+    }
+
+    public void resetLogin(String ip, String email) {
+        if (email != null) {
+            failureBuckets.reset(loginKey(ip, email));
+            accountBackoff.reset(accountKey(email));
+        }
+    }
+
+    // 로그인한 본인의 비밀번호 확인 실패 한도 안인지 (소모하지 않음)
+    public boolean isConfirmAllowed(String email) {
+        return email == null || failureBuckets.hasCapacity(confirmKey(email));
+    }
+
+    public void recordConfirmFailure(String email) {
+        if (email != null) {
+            failureBuckets.tryAcquire(confirmKey(email));
+        }
+    }
+
+    public void resetConfirm(String email) {
+        if (email != null) {
+            failureBuckets.reset(confirmKey(email));
+        }
+    }
+
+    private static String loginKey(String ip, String email) {
+        return "L|" + ip + "|" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String confirmKey(String email) {
+        return "C|" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String accountKey(String email) {
+        return "A|" + email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // 추적 키 수 상한. 가득 차면 만료된 키를 정리(초당 최대 한 번)하고, 그래도 가득 차 있으면 새 키를 받지 않습니다.
+    private static final class KeyLimit {
+        private final int maxKeys;
+        private final AtomicLong lastPurge = new AtomicLong(System.nanoTime());
+
+        KeyLimit(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        boolean admit(Map<String, ?> map, String key, LongConsumer purge) {
+            if (map.size() < maxKeys || map.containsKey(key)) {
+                return true;
+            }
+            long now = System.nanoTime();
+            long last = lastPurge.get();
+            if (now - last >= TimeUnit.SECONDS.toNanos(1) && lastPurge.compareAndSet(last, now)) {
+                purge.accept(now);
+            }
+            if (map.size() < maxKeys) {
+                return true;
+            }
+            log.warn("[LOGIN-THROTTLE] 추적 키 수 초과 ({}), 새 키는 거부", maxKeys);
+            return false;
+        }
+
+        boolean saturated(Map<String, ?> map) {
+            return map.size() >= maxKeys;
+        }
+    }
+
+    private static class Bucket {
+        // 키 → 다음 허용 시각(TAT, nanoTime 기준)
+        private final Map<String, Long> theoreticalArrival = new ConcurrentHashMap<>();
+        // 토큰 하나가 채워지는 간격
+        private final long intervalNanos;
+        // 버스트 허용 폭
+        private final long toleranceNanos;
+        private final KeyLimit keyLimit;
+
+        Bucket(int perMinute, int burst, int maxKeys) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, perMinute);
+            this.toleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+            this.keyLimit = new KeyLimit(maxKeys);
+        }
+
+        boolean tryAcquire(String key) {
+            if (!keyLimit.admit(theoreticalArrival, key, this::removeExpired)) {
+                return false;
+            }
+            long now = System.nanoTime();
+            boolean[] allowed = new boolean[1];
+            theoreticalArrival.compute(key, (k, tat) -> {
+                // 처음 보거나 오래 비어 있던 키는 현재 시각 기준
+                long base = (tat == null || tat - now < 0) ? now : tat;
+                if (base - now > toleranceNanos) {
+                    return tat;
+                }
+                allowed[0] = true;
+                return base + intervalNanos;
+            });
+            return allowed[0];
+        }
+
+        boolean hasCapacity(String key) {
+            Long tat = theoreticalArrival.get(key);
+            return tat == null || tat - System.nanoTime() <= toleranceNanos;
+        }
+
+        void reset(String key) {
+            theoreticalArrival.remove(key);
+        }
+
+        // 버킷이 다시 가득 찬(TAT 가 지난) 키 제거
+        void removeExpired(long now) {
+            for (String key : theoreticalArrival.keySet()) {
+                theoreticalArrival.computeIfPresent(key, (k, tat) -> tat - now < 0 ? null : tat);
+            }
+        }
+    }
+
+    // 계정 별 연속 실패 백오프: free-failures 를 넘으면 base, 2*base, 4*base ... (max 까지) 동안 로그인 시도를 받지 않습니다.
+    private static class Backoff {
+        private record State(int failures, long blockedUntil, long lastFailure) {
+        }
+
+        private final Map<String, State> states = new ConcurrentHashMap<>();
+        private final int freeFailures;
+        private final long baseNanos;
+        private final long maxNanos;
+        private final KeyLimit keyLimit;
+
+        Backoff(int freeFailures, long baseSeconds, long maxSeconds, int maxKeys) {
+            this.freeFailures = Math.max(0, freeFailures);
+            this.baseNanos = TimeUnit.SECONDS.toNanos(Math.max(1, baseSeconds));
+            this.maxNanos = Math.max(baseNanos, TimeUnit.SECONDS.toNanos(maxSeconds));
+            this.keyLimit = new KeyLimit(maxKeys);
+        }
+
+        boolean isAllowed(String key) {
+            State state = states.get(key);
+            if (state == null) {
+                // 추적할 수 없을 만큼 가득 찬 동안에는 추적되지 않은 계정도 막음 (fail closed)
+                return !keyLimit.saturated(states);
+            }
+            return state.blockedUntil() - System.nanoTime() <= 0;
+        }
+
+        void recordFailure(String key) {
+            if (!keyLimit.admit(states, key, this::removeExpired)) {
+                return;
+            }
+            long now = System.nanoTime();
+            states.compute(key, (k, state) -> {
+                // 최대 대기 시간보다 오래 실패가 없었으면 처음부터 다시 셈
+                int failures = (state == null || now - state.lastFailure() > maxNanos) ? 1 : state.failures() + 1;
+                int over = failures - freeFailures;
+                long delay = over <= 0 ? 0 : Math.min(maxNanos, baseNanos << Math.min(over - 1, 30));
+                return new State(failures, now + delay, now);
+            });
+        }
+
+        void reset(String key) {
+            states.remove(key);
+        }
+
+        // 마지막 실패 후 최대 대기 시간이 지난 키 제거 (다음 실패는 어차피 처음부터 셈)
+        void removeExpired(long now) {
+            for (String key : states.keySet()) {
+                states.computeIfPresent(key, (k, state) -> now - state.lastFailure() > maxNanos ? null : state);
+            }
+        }
+    }
+}
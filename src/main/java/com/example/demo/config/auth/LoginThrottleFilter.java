@@ -0,0 +1,48 @@
+package com.example.demo.config.auth;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 폼 로그인(POST /login) 시도 제한 필터
+ * - BCrypt 검증 전에 IP 별 시도 횟수와 (IP, 계정) 별 실패 횟수를 확인하여, 초과 시 해시 계산 없이 로그인 페이지로 돌려보냅니다.
+ * - 실패/성공 기록은 CustomFailureHandler / CustomSuccessHandler 에서 합니다.
+ * - SecurityConfig 에서 빈으로 만들어 UsernamePasswordAuthenticationFilter 앞에 등록합니다. (서블릿 필터 자동 등록은 끔)
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private final LoginAttemptThrottle loginAttemptThrottle;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !("POST".equals(request.getMethod()) && "/login".equals(request.getRequestURI()));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        // 신뢰하는 프록시 뒤에서는 server.forward-headers-strategy=native 로 X-Forwarded-For 의 클라이언트 IP
+        String ip = request.getRemoteAddr();
+        String email = request.getParameter("email");
+
+        if (!loginAttemptThrottle.tryAcquireIp(ip) || !loginAttemptThrottle.isLoginAllowed(ip, email)) {
+            log.warn("[LOGIN-THROTTLE] 로그인 시도 제한: ip={}, email={}", ip, email);
+            String encodedMessage = URLEncoder.encode("로그인 시도가 너무 많습니다. 잠시 후 다시 시도해주세요.", StandardCharsets.UTF_8);
+            String encodedEmail = URLEncoder.encode(email == null ? "" : email, StandardCharsets.UTF_8);
+            response.sendRedirect("/login?error=" + encodedMessage + "&email=" + encodedEmail);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+}
@@ -1,8 +1,6 @@
 package com.example.demo.config.auth.jwt;
 
 import com.example.demo.config.auth.redis.RedisUtil;
-import com.example.demo.domain.entity.user.User;
-import com.example.demo.domain.repository.UserRepository;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,7 +16,6 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Arrays;
-import java.util.Optional;
 
 @Component
 @Slf4j
@@ -28,10 +25,13 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
     JWTTokenProvider jwtTokenProvider;
 
     @Autowired
-    UserRepository userRepository;
+    RedisUtil redisUtil;
 
     @Autowired
-    RedisUtil redisUtil;
+    TokenBlacklist tokenBlacklist;
+
+    @Autowired
+    TokenReissueCoordinator tokenReissueCoordinator;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -73,19 +73,17 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
         }
 
         if (accessToken != null) {
-            // 블랙리스트 체크
-            if (redisUtil.hasKey(accessToken)) {
+            // 블랙리스트 체크 (로컬 집합에 있을 때만 Redis 조회)
+            if (tokenBlacklist.contains(accessToken)) {
                 log.warn("Blacklisted Token Detected");
                 handleTokenExpiration(response, null);
                 return;
             }
 
             try {
-                // Access Token 유효성 검사
-                if (jwtTokenProvider.validateToken(accessToken)) {
-                    Authentication authentication = jwtTokenProvider.getAuthentication(accessToken);
-                    SecurityContextHolder.getContext().setAuthentication(authentication);
-                }
+                // Access Token 검증 + 인증 객체 생성 (한 번의 파싱, 검증된 토큰은 캐시)
+                Authentication authentication = jwtTokenProvider.authenticate(accessToken);
+                SecurityContextHolder.getContext().setAuthentication(authentication);
             } catch (ExpiredJwtException e) {
                 // -----------------------------------------------------------
                 // 🟢 Access Token 만료 시 재발급 로직
@@ -94,7 +92,10 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
 
                 String expiredEmail = null;
                 try {
-                    expiredEmail = jwtTokenProvider.getExpiredEmail(accessToken);
+                    // 만료 예외에 이미 검증된 클레임이 담겨 있으면 다시 파싱하지 않음
+                    expiredEmail = e.getClaims() != null
+                            ? e.getClaims().getSubject()
+                            : jwtTokenProvider.getExpiredEmail(accessToken);
                 } catch (Exception ex) {
                     log.error("만료된 토큰에서 이메일 추출 실패");
                     SecurityContextHolder.clearContext();
@@ -103,65 +104,39 @@ public class JWTAuthorizationFilter extends OncePerRequestFilter {
                 }
 
                 if (clientRefreshToken != null && expiredEmail != null) {
-                    // Redis 검증
-                    String redisRefreshToken = redisUtil.getStringData("RT:" + expiredEmail);
+                    // 동시에 들어온 재발급 요청은 하나로 합쳐지고, 방금 교체된 RT 는 grace 시간 동안 새 토큰 쌍으로 연결됨
+                    TokenInfo newTokenInfo = tokenReissueCoordinator.reissue(expiredEmail, clientRefreshToken);
 
-                    if (redisRefreshToken != null && clientRefreshToken.equals(redisRefreshToken)) {
+                    if (newTokenInfo != null) {
                         try {
-                            // Refresh Token 유효성 검증
-                            if (jwtTokenProvider.validateToken(clientRefreshToken)) {
-
-                                // DB에서 사용자 정보 조회
-                                Optional<User> userOptional = userRepository.findByEmail(expiredEmail);
-
-                                if (userOptional.isPresent()) {
-                                    User user = userOptional.get();
-                                    String userAuth = user.getRole();
-
-                                    // 토큰 재발급
-                                    TokenInfo newTokenInfo = jwtTokenProvider.reissueTokens(expiredEmail, userAuth);
-
-                                    // Redis 갱신
-                                    redisUtil.setDataExpire(
-                                            "RT:" + expiredEmail,
-                                            newTokenInfo.getRefreshToken(),
-                                            JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME / 1000
-                                    );
-
-                                    // 🟢 [수정됨] 쿠키 갱신 (인자 4개 사용 & AccessToken MaxAge 증가)
-
-                                    // 1. Access Token: HttpOnly=false (JS 허용), MaxAge=RefreshTime (유지)
-                                    response.addCookie(createTokenCookie(
-                                            JWTProperties.ACCESS_TOKEN_COOKIE_NAME,
-                                            newTokenInfo.getAccessToken(),
-                                            JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME / 1000,
-                                            false
-                                    ));
-
-                                    // 2. Refresh Token: HttpOnly=true (JS 차단)
-                                    response.addCookie(createTokenCookie(
-                                            JWTProperties.REFRESH_TOKEN_COOKIE_NAME,
-                                            newTokenInfo.getRefreshToken(),
-                                            JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME / 1000,
-                                            true
-                                    ));
-
-                                    // SecurityContext 인증 정보 갱신
-                                    Authentication newAuthentication = jwtTokenProvider.getAuthentication(newTokenInfo.getAccessToken());
-                                    SecurityContextHolder.getContext().setAuthentication(newAuthentication);
-
-                                    log.info("토큰 재발급 성공: {}", expiredEmail);
-                                } else {
-                                    log.error("사용자 정보를 찾을 수 없음: {}", expiredEmail);
-                                    handleTokenExpiration(response, expiredEmail);
-                                }
-                            }
+                            // 🟢 [수정됨] 쿠키 갱신 (인자 4개 사용 & AccessToken MaxAge 증가)
+
+                            // 1. Access Token: HttpOnly=false (JS 허용), MaxAge=RefreshTime (유지)
+                            response.addCookie(createTokenCookie(
+                                    JWTProperties.ACCESS_TOKEN_COOKIE_NAME,
+                                    newTokenInfo.getAccessToken(),
+                                    JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME / 1000,
+                                    false
+                            ));
+
+                            // 2. Refresh Token: HttpOnly=true (JS 차단)
+                            response.addCookie(createTokenCookie(
+                                    JWTProperties.REFRESH_TOKEN_COOKIE_NAME,
+                                    newTokenInfo.getRefreshToken(),
+                                    JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME / 1000,
+                                    true
+                            ));
+
+                            // SecurityContext 인증 정보 갱신
+                            Authentication newAuthentication = jwtTokenProvider.authenticate(newTokenInfo.getAccessToken());
+                            SecurityContextHolder.getContext().setAuthentication(newAuthentication);
+
+                            log.info("토큰 재발급 성공: {}", expiredEmail);
                         } catch (Exception re) {
-                            log.error("Refresh Token 검증 실패 또는 재발급 오류: {}", re.getMessage());
+                            log.error("재발급 토큰 인증 실패: {}", re.getMessage());
                             handleTokenExpiration(response, expiredEmail);
                         }
                     } else {
-                        log.warn("Redis Refresh Token 불일치");
                         handleTokenExpiration(response, expiredEmail);
                     }
                 } else {
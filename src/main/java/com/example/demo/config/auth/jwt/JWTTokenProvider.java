@@ -7,6 +7,7 @@ import com.example.demo.domain.repository.SignatureRepository;
 import com.example.demo.domain.repository.UserRepository;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -36,12 +37,17 @@ public class JWTTokenProvider {
     private UserRepository userRepository;
     @Autowired
     private SignatureRepository signatureRepository;
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
 
 
 
     //Key
     private Key key ;
 
+    //Parser (키가 고정이므로 한 번만 생성, thread-safe)
+    private JwtParser jwtParser;
+
     public Key getKey(){
         return key;
     }
@@ -61,6 +67,7 @@ public class JWTTokenProvider {
             Signature signature = list.get(0);
             this.key = Keys.hmacShaKeyFor(signature.getKeyBytes());
         }
+        this.jwtParser = Jwts.parser().setSigningKey(key).build();
 
     }
 
@@ -98,9 +105,39 @@ public class JWTTokenProvider {
                 .build();
     }
 
+    /**
+     * Access Token 을 한 번만 파싱/검증하여 인증 객체를 반환합니다.
+     * 검증된 토큰은 만료 시각까지 캐시되어 이후 요청에서는 서명 검증과 DB 조회를 하지 않습니다.
+     * @return 인증 객체, 사용자가 존재하지 않으면 null
+     * @throws ExpiredJwtException 토큰 만료
+     */
+    public Authentication authenticate(String accessToken) throws ExpiredJwtException
+    {
+        Authentication cached = verifiedTokenCache.get(accessToken);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = jwtParser.parseClaimsJws(accessToken).getBody();
+        Authentication authentication = toAuthentication(claims);
+        if (authentication != null) {
+            verifiedTokenCache.put(accessToken, authentication, claims.getExpiration().getTime());
+        }
+        return authentication;
+    }
+
     public Authentication getAuthentication(String accessToken) throws ExpiredJwtException
     {
-        Claims claims = Jwts.parser().setSigningKey(key).build().parseClaimsJws(accessToken).getBody();
+        return authenticate(accessToken);
+    }
+
+    // 회원 탈퇴 등으로 더 이상 유효하지 않은 사용자의 캐시된 인증 제거 (커밋 후, 모든 노드)
+    public void evictAuthentication(String email) {
+        verifiedTokenCache.evictByEmail(email);
+    }
+
+    private Authentication toAuthentication(Claims claims)
+    {
 
         String email = claims.getSubject(); // email
         email = (String)claims.get("email"); //email
@@ -140,7 +177,7 @@ public class JWTTokenProvider {
     {
         boolean isValid = false;
         try {
-            Jwts.parser().setSigningKey(key).build().parseClaimsJws(token);
+            jwtParser.parseClaimsJws(token);
             isValid = true;
         }catch(ExpiredJwtException e) {
             // 토큰 만료시 예외
@@ -160,7 +197,7 @@ public class JWTTokenProvider {
     public String getExpiredEmail(String token) throws ExpiredJwtException {
         try {
             // 일반적인 파싱 시도 (만료되었으면 ExpiredJwtException 발생)
-            Jwts.parser().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            jwtParser.parseClaimsJws(token).getBody();
             return null; // 만료되지 않았으면 null 반환하거나 다른 예외 처리
         } catch (ExpiredJwtException e) {
             // ExpiredJwtException 발생 시, Claims만 추출
@@ -212,7 +249,7 @@ public class JWTTokenProvider {
 
         try{
             //토큰 만료시간포함 추출
-            Claims claims = Jwts.parser().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
             //만료시간 - 현재시간
             Long expirationTime = claims.getExpiration().getTime();
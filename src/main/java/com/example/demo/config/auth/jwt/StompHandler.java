@@ -1,5 +1,9 @@
 package com.example.demo.config.auth.jwt;
 
+import com.example.demo.config.StompSubscriptionRegistry;
+import com.example.demo.domain.service.RoomMembershipIndex;
+import com.example.demo.domain.service.SenderIdentityCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.Message;
@@ -10,12 +14,25 @@ import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
+import java.io.IOException;
+import java.security.Principal;
+import java.util.Map;
+
 @Slf4j
 @RequiredArgsConstructor
 @Component
 public class StompHandler implements ChannelInterceptor {
 
     private final JWTTokenProvider jwtTokenProvider;
+    private final RoomMembershipIndex roomMembershipIndex;
+    private final SenderIdentityCache senderIdentityCache;
+    private final StompSubscriptionRegistry stompSubscriptionRegistry;
+    private final ObjectMapper objectMapper;
+
+    private static final String ROOM_TOPIC_PREFIX = "/sub/chat/room/";
+    private static final String CHAT_SEND_DESTINATION = "/pub/chat/message";
+    // CONNECT 시 한 번 조회한 user id 를 보관하는 세션 속성 키
+    private static final String USER_ID_ATTRIBUTE = "stomp.userId";
 
     // 메시지가 채널로 전송되기 전에 실행됨
     @Override
@@ -39,9 +56,15 @@ public class StompHandler implements ChannelInterceptor {
 
             // 3. 토큰 유효성 검증 및 인증 객체 설정
             try {
-                if (jwtToken != null && jwtTokenProvider.validateToken(jwtToken)) {
-                    Authentication auth = jwtTokenProvider.getAuthentication(jwtToken);
+                Authentication auth = jwtToken != null ? jwtTokenProvider.authenticate(jwtToken) : null;
+                if (auth != null) {
                     accessor.setUser(auth); // 핵심: WebSocket 세션에 인증 정보 주입
+                    // SUBSCRIBE/SEND 마다 조회하지 않도록 user id 는 연결 시 한 번만 조회하여 세션에 보관
+                    Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+                    Long userId = resolveUserId(auth);
+                    if (sessionAttributes != null && userId != null) {
+                        sessionAttributes.put(USER_ID_ATTRIBUTE, userId);
+                    }
                     log.info("[StompHandler] 인증 성공: {}", auth.getName());
                 } else {
                     log.warn("[StompHandler] 유효하지 않은 토큰입니다.");
@@ -51,6 +74,64 @@ public class StompHandler implements ChannelInterceptor {
                 log.error("[StompHandler] 토큰 검증 중 오류: {}", e.getMessage());
             }
         }
+
+        // 채팅방 구독은 방 멤버만 허용 (멤버가 아니면 프레임을 버림)
+        if (StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            String destination = accessor.getDestination();
+            if (destination != null && destination.startsWith(ROOM_TOPIC_PREFIX)) {
+                String roomId = destination.substring(ROOM_TOPIC_PREFIX.length());
+                // 하위 토픽(/sub/chat/room/{roomId}/upload 등)도 같은 방 멤버십으로 검사
+                int slash = roomId.indexOf('/');
+                if (slash >= 0) {
+                    roomId = roomId.substring(0, slash);
+                }
+                Long userId = sessionUserId(accessor);
+                if (!roomMembershipIndex.isMember(roomId, userId)) {
+                    log.warn("[StompHandler] 방 멤버가 아닌 구독 거부: roomId={}, user={}", roomId, accessor.getUser());
+                    return null;
+                }
+                stompSubscriptionRegistry.register(accessor.getSessionId(), accessor.getSubscriptionId(), roomId, userId);
+            }
+        } else if (StompCommand.SEND.equals(accessor.getCommand())
+                && CHAT_SEND_DESTINATION.equals(accessor.getDestination())) {
+            // 채팅 전송은 방 멤버만 허용 (세션의 user id + 멤버십 인덱스, 프레임마다 DB 조회 없음)
+            String roomId = readRoomId(message);
+            if (!roomMembershipIndex.isMember(roomId, sessionUserId(accessor))) {
+                log.warn("[StompHandler] 방 멤버가 아닌 메시지 전송 거부: roomId={}, user={}", roomId, accessor.getUser());
+                return null;
+            }
+        } else if (StompCommand.UNSUBSCRIBE.equals(accessor.getCommand())) {
+            stompSubscriptionRegistry.unregister(accessor.getSessionId(), accessor.getSubscriptionId());
+        } else if (StompCommand.DISCONNECT.equals(accessor.getCommand())) {
+            stompSubscriptionRegistry.unregisterSession(accessor.getSessionId());
+        }
         return message;
     }
+
+    private Long sessionUserId(StompHeaderAccessor accessor) {
+        Map<String, Object> sessionAttributes = accessor.getSessionAttributes();
+        return sessionAttributes == null ? null : (Long) sessionAttributes.get(USER_ID_ATTRIBUTE);
+    }
+
+    // 전송 프레임 본문(ChatMessageDto JSON)의 roomId
+    private String readRoomId(Message<?> message) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(payload).path("roomId").asText(null);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    // CONNECT 시 인증 정보(email)로 user id 조회 (발신자 캐시 사용)
+    private Long resolveUserId(Principal user) {
+        if (user == null) {
+            return null;
+        }
+        return senderIdentityCache.get(user.getName())
+                .map(SenderIdentityCache.SenderIdentity::getUserId)
+                .orElse(null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,184 @@
+package com.example.demo.config.auth.jwt;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.SubscriptionListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access Token 블랙리스트 (로그아웃/비밀번호 변경/회원 탈퇴)
+ * - Redis 키는 토큰 원문 대신 짧은 해시(BL:{SHA-256 앞 16바이트})를 사용합니다.
+ * - 각 노드는 블랙리스트 해시 집합을 메모리에 보관하고, 로컬에 없으면 Redis 를 조회하지 않습니다.
+ *   로컬에 있을 때만 Redis 로 최종 확인합니다. (만료 여부 확인)
+ * - 다른 노드의 등록은 pub/sub(token-blacklist 채널)으로 전달받고, 누락에 대비해 주기적으로 SCAN 으로 다시 동기화합니다.
+ * - 기동 시에는 요청을 받기 전에 동기로 한 번 재동기화하고, 구독이 (재연결 후) 다시 맺어질 때마다 끊긴 동안의 누락을 메우도록 재동기화합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenBlacklist {
+
+    private static final String KEY_PREFIX = "BL:";
+    private static final String CHANNEL = "token-blacklist";
+    // 이전 버전은 토큰 원문(JWT, "eyJ" 로 시작)을 키로 저장했음
+    private static final String LEGACY_KEY_PATTERN = "eyJ*";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    // 전체 재동기화 주기
+    @Value("${jwt.blacklist.resync-minutes:5}")
+    private long resyncMinutes;
+
+    // 토큰 해시 -> 만료 시각(ms)
+    private final Map<String, Long> localHashes = new ConcurrentHashMap<>();
+
+    private final BlacklistListener listener = new BlacklistListener();
+    private ScheduledExecutorService resyncExecutor;
+
+    @PostConstruct
+    public void start() {
+        // 첫 요청 전에 기존 블랙리스트를 반영 (비동기로 하면 기동 직후 폐기된 토큰이 통과할 수 있음)
+        resync();
+        this.resyncExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "token-blacklist-resync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        listenerContainer.addMessageListener(listener, new ChannelTopic(CHANNEL));
+        this.resyncExecutor.execute(this::migrateLegacyKeys);
+        this.resyncExecutor.scheduleWithFixedDelay(this::resync, resyncMinutes, resyncMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        resyncExecutor.shutdownNow();
+        listenerContainer.removeMessageListener(listener);
+    }
+
+    /**
+     * 토큰을 남은 유효시간 동안 블랙리스트에 등록합니다.
+     */
+    public void add(String token, long remainingMillis) {
+        if (token == null || remainingMillis <= 0) {
+            return;
+        }
+        String hash = TokenHash.of(token);
+        long expiresAt = System.currentTimeMillis() + remainingMillis;
+        localHashes.put(hash, expiresAt);
+
+        redisTemplate.opsForValue().set(KEY_PREFIX + hash, "1", remainingMillis, TimeUnit.MILLISECONDS);
+        redisTemplate.convertAndSend(CHANNEL, hash + "|" + expiresAt);
+    }
+
+    /**
+     * 블랙리스트 여부. 로컬 집합에 없으면 Redis 를 조회하지 않습니다.
+     */
+    public boolean contains(String token) {
+        String hash = TokenHash.of(token);
+        Long expiresAt = localHashes.get(hash);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt <= System.currentTimeMillis()) {
+            localHashes.remove(hash, expiresAt);
+            return false;
+        }
+        try {
+            return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + hash));
+        } catch (Exception e) {
+            // Redis 장애 시 로컬 판단을 따름 (차단 쪽으로)
+            log.warn("[BLACKLIST] Redis 조회 실패, 로컬 기록으로 차단합니다: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    // 구독이 맺어질 때(재연결 후 재구독 포함) 끊긴 동안 놓친 등록을 메우도록 재동기화
+    private void requestResync() {
+        try {
+            resyncExecutor.execute(this::resync);
+        } catch (Exception e) {
+            // 종료 중
+            log.debug("[BLACKLIST] 재동기화 예약 실패: {}", e.getMessage());
+        }
+    }
+
+    // Redis 의 BL:* 키로 로컬 집합을 다시 구성 (pub/sub 누락 보정 + 만료 항목 정리)
+    private void resync() {
+        try {
+            long now = System.currentTimeMillis();
+            localHashes.values().removeIf(expiresAt -> expiresAt <= now);
+
+            ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    Long ttl = redisTemplate.getExpire(key, TimeUnit.MILLISECONDS);
+                    if (ttl != null && ttl > 0) {
+                        localHashes.putIfAbsent(key.substring(KEY_PREFIX.length()), now + ttl);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[BLACKLIST] 재동기화 실패: {}", e.getMessage());
+        }
+    }
+
+    // 토큰 원문 키를 해시 키로 이전 (Access Token 수명보다 오래 남길 필요 없음)
+    private void migrateLegacyKeys() {
+        int migrated = 0;
+        try {
+            ScanOptions options = ScanOptions.scanOptions().match(LEGACY_KEY_PATTERN).count(1000).build();
+            try (Cursor<String> cursor = redisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    String token = cursor.next();
+                    Long ttl = redisTemplate.getExpire(token, TimeUnit.MILLISECONDS);
+                    if (ttl != null && ttl > 0) {
+                        add(token, Math.min(ttl, JWTProperties.ACCESS_TOKEN_EXPIRATION_TIME));
+                    }
+                    redisTemplate.delete(token);
+                    migrated++;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[BLACKLIST] 이전 형식 키 이전 실패: {}", e.getMessage());
+        }
+        if (migrated > 0) {
+            log.info("[BLACKLIST] 이전 형식 블랙리스트 키 {}개를 해시 키로 이전", migrated);
+        }
+    }
+
+    private class BlacklistListener implements MessageListener, SubscriptionListener {
+
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            // 메시지 형식: {hash}|{expiresAtMillis}
+            String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length == 2) {
+                localHashes.put(parts[0], Long.parseLong(parts[1]));
+            }
+        }
+
+        @Override
+        public void onChannelSubscribed(byte[] channel, long count) {
+            requestResync();
+        }
+    }
+}
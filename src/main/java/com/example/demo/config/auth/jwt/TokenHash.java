@@ -0,0 +1,26 @@
+package com.example.demo.config.auth.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * 토큰 원문 대신 Redis 키에 쓰는 짧은 해시 (SHA-256 앞 16바이트, URL-safe Base64)
+ * - TokenBlacklist(BL:), TokenReissueCoordinator(RTG:) 가 같은 형식을 사용합니다.
+ */
+final class TokenHash {
+
+    private TokenHash() {
+    }
+
+    static String of(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
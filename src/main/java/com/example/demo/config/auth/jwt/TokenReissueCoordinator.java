@@ -0,0 +1,177 @@
+package com.example.demo.config.auth.jwt;
+
+import com.example.demo.domain.entity.user.User;
+import com.example.demo.domain.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Refresh Token 재발급 단일 실행(single-flight) 조정기
+ * - Access Token 만료 직후 브라우저가 보낸 여러 요청이 동시에 재발급을 시도해도, 같은 (email, Refresh Token) 에 대해서는 한 번만 재발급합니다.
+ *   나머지 요청은 진행 중인 재발급 결과를 함께 받습니다.
+ * - 교체된 이전 Refresh Token 은 grace 시간 동안 새로 발급한 토큰 쌍으로 연결되어,
+ *   늦게 도착한 요청(다른 노드 포함)이 "Refresh Token 불일치"로 로그아웃되지 않습니다.
+ * - 같은 JVM 안의 동시 요청은 single-flight 로 합치고, 노드 간 경합은 Redis 스크립트로 막습니다.
+ *   (저장된 RT 가 요청의 RT 와 같을 때만 새 RT + grace 항목을 원자적으로 저장하고, 아니면 먼저 교체한 노드의 grace 항목을 돌려줌)
+ *   두 노드가 같은 RT 를 각각 교체해 한쪽이 받은 새 RT 가 덮어써지는 일이 없습니다.
+ * - 재발급 1회 = 사용자 DB 조회 1회 + 서명 1회 + Redis 스크립트 1회
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class TokenReissueCoordinator {
+
+    private static final String RT_KEY_PREFIX = "RT:";
+    private static final String GRACE_KEY_PREFIX = "RTG:";
+    // 저장된 RT 가 ARGV[1] 일 때만 새 RT(ARGV[2], PX ARGV[3]) 와 grace 항목(ARGV[4], EX ARGV[5]) 저장 후 'OK',
+    // 아니면 이미 교체한 쪽의 grace 항목(없으면 nil) 반환
+    private static final String SWAPPED = "OK";
+    private static final DefaultRedisScript<String> ROTATE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then " +
+                    "redis.call('set', KEYS[1], ARGV[2], 'PX', ARGV[3]) " +
+                    "redis.call('set', KEYS[2], ARGV[4], 'EX', ARGV[5]) " +
+                    "return '" + SWAPPED + "' " +
+            "end " +
+            "return redis.call('get', KEYS[2])",
+            String.class);
+
+    private final JWTTokenProvider jwtTokenProvider;
+    private final UserRepository userRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 교체된 Refresh Token 을 계속 인정하는 시간
+    @Value("${jwt.refresh.grace-seconds:10}")
+    private long graceSeconds;
+
+    // 진행 중인 재발급 (email|RT 해시 -> 결과)
+    private final Map<String, CompletableFuture<TokenInfo>> inFlight = new ConcurrentHashMap<>();
+
+    // 이 노드에서 발급한 grace 항목 (RT 해시 -> 결과), Redis 조회 없이 응답하기 위함
+    private final Map<String, GraceEntry> localGrace = new ConcurrentHashMap<>();
+
+    /**
+     * Refresh Token 으로 새 토큰 쌍을 발급합니다.
+     * @return 새 토큰 쌍, Refresh Token 이 유효하지 않으면 null
+     */
+    public TokenInfo reissue(String email, String clientRefreshToken) {
+        String rtHash = TokenHash.of(clientRefreshToken);
+
+        // 방금 교체된 Refresh Token 이면 이미 발급한 토큰 쌍을 그대로 반환
+        TokenInfo graced = findGrace(rtHash);
+        if (graced != null) {
+            return graced;
+        }
+
+        String flightKey = email + "|" + rtHash;
+        CompletableFuture<TokenInfo> flight = new CompletableFuture<>();
+        CompletableFuture<TokenInfo> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            return existing.join();
+        }
+
+        try {
+            TokenInfo result = doReissue(email, clientRefreshToken, rtHash);
+            flight.complete(result);
+            return result;
+        } catch (Exception e) {
+            log.error("Refresh Token 검증 실패 또는 재발급 오류: {}", e.getMessage());
+            flight.complete(null);
+            return null;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private TokenInfo doReissue(String email, String clientRefreshToken, String rtHash) throws Exception {
+        String redisRefreshToken = redisTemplate.opsForValue().get(RT_KEY_PREFIX + email);
+        if (redisRefreshToken == null || !clientRefreshToken.equals(redisRefreshToken)) {
+            // 다른 노드가 먼저 교체했을 수 있음
+            TokenInfo graced = findGrace(rtHash);
+            if (graced == null) {
+                log.warn("Redis Refresh Token 불일치: {}", email);
+            }
+            return graced;
+        }
+
+        if (!jwtTokenProvider.validateToken(clientRefreshToken)) {
+            return null;
+        }
+
+        Optional<User> userOptional = userRepository.findByEmail(email);
+        if (userOptional.isEmpty()) {
+            log.error("사용자 정보를 찾을 수 없음: {}", email);
+            return null;
+        }
+
+        TokenInfo newTokenInfo = jwtTokenProvider.reissueTokens(email, userOptional.get().getRole());
+
+        // 이전 RT 비교 + 새 RT 저장 + 이전 RT -> 새 토큰 쌍 grace 항목 저장을 원자적으로 (다른 노드와의 경합 방지)
+        String graceValue = objectMapper.writeValueAsString(Map.of(
+                "accessToken", newTokenInfo.getAccessToken(),
+                "refreshToken", newTokenInfo.getRefreshToken()));
+        String result = redisTemplate.execute(ROTATE_SCRIPT,
+                List.of(RT_KEY_PREFIX + email, GRACE_KEY_PREFIX + rtHash),
+                clientRefreshToken, newTokenInfo.getRefreshToken(),
+                String.valueOf(JWTProperties.REFRESH_TOKEN_EXPIRATION_TIME), graceValue, String.valueOf(graceSeconds));
+        if (!SWAPPED.equals(result)) {
+            // 그 사이 다른 노드가 먼저 교체함: 그쪽이 발급한 토큰 쌍을 반환 (방금 서명한 토큰은 버림)
+            if (result == null) {
+                log.warn("Redis Refresh Token 불일치 (교체 경합, grace 항목 없음): {}", email);
+                return null;
+            }
+            return parseGrace(result);
+        }
+
+        long now = System.currentTimeMillis();
+        localGrace.values().removeIf(entry -> entry.expiresAt <= now);
+        localGrace.put(rtHash, new GraceEntry(newTokenInfo, now + TimeUnit.SECONDS.toMillis(graceSeconds)));
+        return newTokenInfo;
+    }
+
+    private TokenInfo findGrace(String rtHash) {
+        GraceEntry local = localGrace.get(rtHash);
+        if (local != null) {
+            if (local.expiresAt > System.currentTimeMillis()) {
+                return local.tokenInfo;
+            }
+            localGrace.remove(rtHash, local);
+        }
+        try {
+            String value = redisTemplate.opsForValue().get(GRACE_KEY_PREFIX + rtHash);
+            return value == null ? null : parseGrace(value);
+        } catch (Exception e) {
+            log.warn("Refresh Token grace 항목 조회 실패: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private TokenInfo parseGrace(String value) throws Exception {
+        Map<String, String> pair = objectMapper.readValue(value, Map.class);
+        return TokenInfo.builder()
+                .grantType("Bearer")
+                .accessToken(pair.get("accessToken"))
+                .refreshToken(pair.get("refreshToken"))
+                .build();
+    }
+
+    @RequiredArgsConstructor
+    private static class GraceEntry {
+        private final TokenInfo tokenInfo;
+        private final long expiresAt;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.config.auth.jwt;
+
+import com.example.demo.config.auth.PrincipalDetails;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검증이 끝난 Access Token 의 인증 객체 캐시
+ * - 키는 토큰 원문이 아닌 SHA-256 다이제스트이며, 항목은 토큰의 exp 와 max-ttl-seconds 중 이른 시각까지만 유효합니다.
+ * - 최대 개수(LRU)로 제한되고, 회원 탈퇴 시 evictByEmail 로 해당 사용자의 항목을 제거합니다.
+ *   제거는 트랜잭션 커밋 후에 하며(커밋 전 요청이 다시 적재하지 않도록), pub/sub(token-auth-evict 채널)으로 다른 노드에도 전달합니다.
+ *   전달이 누락되더라도 max-ttl-seconds 가 지나면 다시 검증(사용자 존재 확인)합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class VerifiedTokenCache {
+
+    private static final String CHANNEL = "token-auth-evict";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    @Value("${jwt.auth-cache.max-size:10000}")
+    private int maxSize;
+
+    // 토큰 exp 와 관계없이 이 시간이 지나면 다시 검증 (다른 노드의 탈퇴 전달 누락 대비)
+    @Value("${jwt.auth-cache.max-ttl-seconds:300}")
+    private long maxTtlSeconds;
+
+    // 접근 순서 기반 LRU (모든 접근은 synchronized(cache))
+    private final Map<String, CacheEntry> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    // 메시지 형식: {email}
+    private final MessageListener listener = (message, pattern) ->
+            evictLocal(new String(message.getBody(), StandardCharsets.UTF_8));
+
+    @PostConstruct
+    public void start() {
+        listenerContainer.addMessageListener(listener, new ChannelTopic(CHANNEL));
+    }
+
+    @PreDestroy
+    public void stop() {
+        listenerContainer.removeMessageListener(listener);
+    }
+
+    public Authentication get(String token) {
+        String key = digest(token);
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt <= System.currentTimeMillis()) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.authentication;
+        }
+    }
+
+    public void put(String token, Authentication authentication, long expiresAt) {
+        String key = digest(token);
+        long capped = Math.min(expiresAt, System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(maxTtlSeconds));
+        synchronized (cache) {
+            cache.put(key, new CacheEntry(authentication, capped));
+        }
+    }
+
+    /**
+     * 사용자의 캐시된 인증을 모든 노드에서 제거합니다. (트랜잭션 안이면 커밋 후)
+     */
+    public void evictByEmail(String email) {
+        if (email == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictEverywhere(email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evictEverywhere(email);
+            }
+        });
+    }
+
+    private void evictEverywhere(String email) {
+        evictLocal(email);
+        try {
+            redisTemplate.convertAndSend(CHANNEL, email);
+        } catch (Exception e) {
+            log.warn("[AUTH-CACHE] 다른 노드로 제거 전달 실패 (max-ttl 후 재검증): {}", e.getMessage());
+        }
+    }
+
+    private void evictLocal(String email) {
+        synchronized (cache) {
+            cache.values().removeIf(entry -> entry.authentication.getPrincipal() instanceof PrincipalDetails principal
+                    && email.equals(principal.getUsername()));
+        }
+    }
+
+    private String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class CacheEntry {
+        private final Authentication authentication;
+        private final long expiresAt;
+    }
+}
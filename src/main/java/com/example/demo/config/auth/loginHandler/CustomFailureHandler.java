@@ -1,8 +1,10 @@
 package com.example.demo.config.auth.loginHandler;
 
+import com.example.demo.config.auth.LoginAttemptThrottle;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.web.authentication.AuthenticationFailureHandler;
@@ -14,7 +16,11 @@ import java.nio.charset.StandardCharsets;
 
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class CustomFailureHandler implements AuthenticationFailureHandler {
+
+    private final LoginAttemptThrottle loginAttemptThrottle;
+
     @Override
     public void onAuthenticationFailure(HttpServletRequest request, HttpServletResponse response, AuthenticationException exception) throws IOException, ServletException {
         log.error("CustomFailureHandler's onAuthenticationFailure invoke...!");
@@ -26,6 +32,9 @@ public class CustomFailureHandler implements AuthenticationFailureHandler {
         // Spring Security 설정에서 usernameParameter가 "email"로 되어 있으므로 "email"로 가져옵니다.
         String email = request.getParameter("email");
 
+        // (IP, 계정) 별 실패 횟수 기록 (LoginThrottleFilter 가 한도를 넘으면 BCrypt 전에 차단)
+        loginAttemptThrottle.recordLoginFailure(request.getRemoteAddr(), email);
+
         // 3. 메시지와 이메일을 인코딩
         String encodedMessage = URLEncoder.encode(errorMessage, StandardCharsets.UTF_8.toString());
         String encodedEmail = URLEncoder.encode(email, StandardCharsets.UTF_8.toString());
@@ -1,5 +1,6 @@
 package com.example.demo.config.auth.loginHandler;
 
+import com.example.demo.config.auth.LoginAttemptThrottle;
 import com.example.demo.config.auth.jwt.JWTProperties;
 import com.example.demo.config.auth.jwt.JWTTokenProvider;
 import com.example.demo.config.auth.jwt.TokenInfo;
@@ -27,9 +28,15 @@ public class CustomSuccessHandler implements AuthenticationSuccessHandler {
     @Autowired
     RedisUtil redisUtil;
 
+    @Autowired
+    LoginAttemptThrottle loginAttemptThrottle;
+
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication) throws IOException, ServletException {
 
+        // 로그인 성공 시 이 IP 의 실패 횟수 초기화
+        loginAttemptThrottle.resetLogin(request.getRemoteAddr(), request.getParameter("email"));
+
         TokenInfo tokenInfo = jwtTokenProvider.generateToken(authentication);
 
         // ---------------------------------------------------------
@@ -8,8 +8,10 @@ import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.repository.configuration.EnableRedisRepositories;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @RequiredArgsConstructor
 @Configuration
@@ -36,4 +38,21 @@ public class RedisConfig {
         return redisTemplate;
     }
 
+    // pub/sub 구독 공유 컨테이너 (토큰 블랙리스트, 채팅 중계 등이 구독 연결 하나를 함께 사용)
+    // 수신 메시지는 전용 스레드 하나에서 도착 순서대로 처리 (기본 실행기는 메시지마다 새 스레드라 순서가 섞임)
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("redis-listener-");
+        executor.setDaemon(true);
+        executor.initialize();
+
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory());
+        container.setTaskExecutor(executor);
+        return container;
+    }
+
 }
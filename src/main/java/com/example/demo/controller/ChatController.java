@@ -1,34 +1,45 @@
 package com.example.demo.controller;
 
+import com.example.demo.config.auth.PrincipalDetails;
 import com.example.demo.domain.dto.ChatMessageDto;
 import com.example.demo.domain.dto.FileUrlResponse;
-import com.example.demo.domain.entity.user.User;
+import com.example.demo.domain.dto.PresignedUploadResponse;
 import com.example.demo.domain.enums.RoomType;
-import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.domain.service.ChatFanoutRelay;
 import com.example.demo.domain.service.ChatMessageService;
+import com.example.demo.domain.service.ChatMessageWriteBuffer;
 import com.example.demo.domain.service.ChatRoomService;
+import com.example.demo.domain.service.ChatUploadPipeline;
 import com.example.demo.domain.service.FileService;
-import com.example.demo.util.KoreanNameUtil;
+import com.example.demo.domain.service.FileServingService;
+import com.example.demo.domain.service.ImageVariantService;
+import com.example.demo.domain.service.PresignedUrlService;
+import com.example.demo.domain.service.RoomMembershipIndex;
+import com.example.demo.domain.service.RoomOrderedExecutor;
+import com.example.demo.domain.service.SenderIdentityCache;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.util.UriUtils;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.security.Principal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequiredArgsConstructor
@@ -36,11 +47,18 @@ import java.util.Optional;
 @RequestMapping("/api/chat")
 public class ChatController {
 
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatFanoutRelay chatFanoutRelay;
     private final ChatMessageService chatMessageService;
+    private final ChatMessageWriteBuffer chatMessageWriteBuffer;
     private final ChatRoomService chatRoomService;
+    private final ChatUploadPipeline chatUploadPipeline;
     private final FileService fileService;
-    private final UserRepository userRepository;
+    private final FileServingService fileServingService;
+    private final ImageVariantService imageVariantService;
+    private final PresignedUrlService presignedUrlService;
+    private final SenderIdentityCache senderIdentityCache;
+    private final RoomOrderedExecutor roomOrderedExecutor;
+    private final RoomMembershipIndex roomMembershipIndex;
 
     // 채팅방 생성 요청 DTO 정의
     @Data
@@ -68,7 +86,15 @@ public class ChatController {
         }
 
         try {
-            FileUrlResponse response = fileService.uploadFile(file, "chat/" + roomId);
+            FileUrlResponse response;
+            if (chatUploadPipeline.isEnabled()) {
+                // 로컬 스풀에 받고 바로 응답 (원격 저장소 전송/변형본 생성은 백그라운드, 완료 시 /sub/chat/room/{roomId}/upload 알림)
+                response = chatUploadPipeline.accept(file, fileService.newStorageKey("chat/" + roomId, file.getOriginalFilename()), roomId);
+            } else {
+                response = fileService.uploadFile(file, "chat/" + roomId);
+                // 이미지면 썸네일/중간 크기 변형본을 백그라운드에서 생성
+                imageVariantService.scheduleVariants(response.getStorageKey());
+            }
 
             ChatMessageDto fileMessage = ChatMessageDto.builder()
                     .roomId(roomId)
@@ -86,13 +112,67 @@ public class ChatController {
         }
     }
 
+    // 2-0. 비동기 업로드 상태 조회 (GET /api/chat/upload/status?storageKey=...) - STOMP 알림을 놓친 경우용
+    @GetMapping("/upload/status")
+    public ResponseEntity<Map<String, String>> getUploadStatus(@RequestParam("storageKey") String storageKey) {
+        return ResponseEntity.ok(Map.of("storageKey", storageKey, "status", chatUploadPipeline.getStatus(storageKey)));
+    }
+
+    // 2-1. 직접 업로드 URL 발급 (POST /api/chat/upload/presign) - 방 멤버만
+    // 클라이언트는 발급된 URL 로 파일을 직접 PUT 한 뒤 /upload/confirm 을 호출합니다. (chatPage.html uploadFileDirect)
+    @PostMapping("/upload/presign")
+    public ResponseEntity<PresignedUploadResponse> presignUpload(
+            @AuthenticationPrincipal PrincipalDetails principalDetails,
+            @RequestParam("roomId") String roomId,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "contentType", required = false) String contentType,
+            @RequestParam("size") long size) {
+
+        if (!isRoomMember(principalDetails, roomId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(presignedUrlService.issueUpload(
+                principalDetails.getUsername(), "chat/" + roomId, fileName, contentType, size));
+    }
+
+    // 2-2. 직접 업로드 확인 (POST /api/chat/upload/confirm) - /upload 와 같은 응답을 반환, 발급받은 사용자만
+    @PostMapping("/upload/confirm")
+    public ResponseEntity<FileUrlResponse> confirmUpload(
+            @AuthenticationPrincipal PrincipalDetails principalDetails,
+            @RequestParam("roomId") String roomId,
+            @RequestParam("storageKey") String storageKey,
+            @RequestParam("fileName") String fileName) {
+
+        if (!isRoomMember(principalDetails, roomId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        FileUrlResponse response = presignedUrlService.confirmUpload(
+                principalDetails.getUsername(), "chat/" + roomId, storageKey, fileName);
+        imageVariantService.scheduleVariants(response.getStorageKey());
+        return ResponseEntity.ok(response);
+    }
+
+    // 2-3. 다운로드 URL 발급 (GET /api/chat/download-url?storageKey=...&fileName=...)
+    @GetMapping("/download-url")
+    public ResponseEntity<Map<String, String>> getDownloadUrl(
+            @RequestParam("storageKey") String storageKey,
+            @RequestParam(value = "fileName", required = false) String fileName) {
+
+        if (!presignedUrlService.isEnabled()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(Map.of("url", presignedUrlService.issueDownloadUrl(storageKey, fileName, false)));
+    }
+
     // ----------------------------------------------------------------------------------
     // 파일 다운로드 REST API (GET /api/chat/download/{storageKey})
     // ----------------------------------------------------------------------------------
     @GetMapping("/download/**")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             HttpServletRequest request,
-            @RequestParam(value = "fileName", required = false) String originalFileName) {
+            HttpServletResponse response,
+            @RequestParam(value = "fileName", required = false) String originalFileName,
+            @RequestParam(value = "size", required = false) String size) throws IOException {
 
         String requestUri = request.getRequestURI();
         String storageKey = requestUri.substring(requestUri.indexOf("/download/") + 10);
@@ -100,12 +180,13 @@ public class ChatController {
 
         log.info("[API] File Download Request: StorageKey={}", storageKey);
 
-        Resource resource;
-        try {
-            resource = fileService.loadFileAsResource(storageKey);
-        } catch (IOException e) {
-            log.error("[ERROR] File I/O error for key {}: {}", storageKey, e.getMessage());
-            throw new ResponseStatusException(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR, "파일 전송 중 오류가 발생했습니다.", e);
+        // size=thumb|medium 이면 이미지 변형본 (아직 없으면 원본)
+        ImageVariantService.Selection selection = imageVariantService.select(storageKey, size);
+
+        // S3 직접 다운로드: 앱 서버가 바이트를 중계하지 않도록 presigned URL 로 리다이렉트
+        if (presignedUrlService.shouldRedirectDownloads() && !chatUploadPipeline.isPending(storageKey)) {
+            response.sendRedirect(presignedUrlService.issueDownloadUrl(selection.getStorageKey(), originalFileName, false));
+            return;
         }
 
         String displayFileName;
@@ -117,13 +198,9 @@ public class ChatController {
 
         String encodedFileName = UriUtils.encode(displayFileName, StandardCharsets.UTF_8);
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.add(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + encodedFileName + "\"");
-        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
-
-        return ResponseEntity.ok()
-                .headers(headers)
-                .body(resource);
+        // Range / 조건부 GET / zero-copy 전송은 FileServingService 가 처리
+        fileServingService.serve(selection.getStorageKey(), MediaType.APPLICATION_OCTET_STREAM,
+                "attachment; filename=\"" + encodedFileName + "\"", selection.isCacheable(), request, response);
     }
 
     // ----------------------------------------------------------------------------------
@@ -160,8 +237,47 @@ public class ChatController {
 
     // 3. STOMP WebSocket 메시지 처리 (경로: /pub/chat/message)
     @MessageMapping("/chat/message")
-    public void message(ChatMessageDto message) {
+    public void message(ChatMessageDto message, Principal principal) {
+        // StompHandler가 CONNECT 시 주입한 인증 정보가 있으면 클라이언트가 보낸 sender 대신 사용
+        if (principal != null) {
+            message.setSender(principal.getName());
+        }
+
+        // 방 멤버 여부는 StompHandler.preSend 에서 확인됨 (멤버가 아니면 여기까지 오지 않음)
+
+        // 같은 방의 메시지는 한 스트라이프에서 직렬로 저장/브로드캐스트 (방 내 순서 보장)
+        // 스트라이프가 포화되면 RejectedExecutionException -> 아래 핸들러가 보낸 사람에게만 알림
+        roomOrderedExecutor.execute(message.getRoomId(), () -> handleMessage(message));
+    }
+
+    private boolean isRoomMember(PrincipalDetails principalDetails, String roomId) {
+        if (principalDetails == null) {
+            return false;
+        }
+        Long userId = senderIdentityCache.get(principalDetails.getUsername())
+                .map(SenderIdentityCache.SenderIdentity::getUserId)
+                .orElse(null);
+        return roomMembershipIndex.isMember(roomId, userId);
+    }
+
+    // 방 실행기가 메시지를 받지 못한 경우 보낸 세션에만 오류 전달 (/user/sub/errors)
+    @MessageExceptionHandler(RejectedExecutionException.class)
+    @SendToUser(destinations = "/sub/errors", broadcast = false)
+    public Map<String, String> handleRejected(RejectedExecutionException e) {
+        return Map.of("type", "ERROR", "message", "메시지가 많아 전송하지 못했습니다. 잠시 후 다시 보내주세요.");
+    }
+
+    // ----------------------------------------------------------------------------------
+    // 방 실행기 현황 API (GET /api/chat/executor/stats)
+    // ----------------------------------------------------------------------------------
+    @GetMapping("/executor/stats")
+    public ResponseEntity<List<RoomOrderedExecutor.StripeStats>> getExecutorStats() {
+        return ResponseEntity.ok(roomOrderedExecutor.getStats());
+    }
+
+    private void handleMessage(ChatMessageDto message) {
         String roomId = message.getRoomId();
+        // 스트라이프 안에서 시각을 정해야 방 내 createdAt 순서와 전송 순서가 일치함
         message.setCreatedAt(LocalDateTime.now());
         log.info("[CHAT_DEBUG] message: {}", message);
 
@@ -173,27 +289,12 @@ public class ChatController {
                 messageType == ChatMessageDto.MessageType.FILE ||
                 messageType == ChatMessageDto.MessageType.URL_LINK) {
             log.info("[CHAT_DEBUG] MessageType"+messageType);
-            Optional<User> senderUserOpt = userRepository.findByEmail(message.getSender());
-            if (senderUserOpt.isEmpty()) {
-                try {
-                    Long userId = Long.parseLong(message.getSender());
-                    senderUserOpt = userRepository.findById(userId);
-                    if (senderUserOpt.isPresent()) {
-                        log.info("[CHAT_DEBUG] User found successfully by ID: {}", userId);
-                    }
-                } catch (NumberFormatException e) {
-                }
-            }
-            if (senderUserOpt.isPresent()) {
-                User senderUser = senderUserOpt.get();
-                String senderName = senderUser.getUserName();
-                String senderInitial = KoreanNameUtil.extractInitial(senderName);
-
-                log.info("[CHAT_DEBUG] Found user info. Name: {}, Initial: {}", senderName, senderInitial);
-
-                message.setSenderName(senderName);
-                message.setSenderInitial(senderInitial);
-
+            // 발신자 표시 정보는 캐시에서 조회 (미스일 때만 DB 조회)
+            Optional<SenderIdentityCache.SenderIdentity> senderOpt = senderIdentityCache.get(message.getSender());
+            if (senderOpt.isPresent()) {
+                SenderIdentityCache.SenderIdentity sender = senderOpt.get();
+                message.setSenderName(sender.getSenderName());
+                message.setSenderInitial(sender.getSenderInitial());
             } else {
                 log.warn("[CHAT_WARN] User lookup failed for sender (Final Attempt): {}", message.getSender());
                 message.setSenderName("알 수 없음");
@@ -203,18 +304,27 @@ public class ChatController {
 
         if (ChatMessageDto.MessageType.ENTER.equals(messageType)) {
             message.setMessage(message.getSender() + "님이 채팅방에 참여했습니다.");
-            chatMessageService.saveMessage(message);
+            persistAndSend(message);
         } else if (ChatMessageDto.MessageType.QUIT.equals(messageType)) {
             message.setMessage(message.getSender() + "님이 채팅방에서 나갔습니다.");
-            chatMessageService.saveMessage(message);
+            persistAndSend(message);
         } else if (ChatMessageDto.MessageType.TALK.equals(messageType) ||
                 ChatMessageDto.MessageType.IMAGE.equals(messageType) ||
                 ChatMessageDto.MessageType.FILE.equals(messageType) ||
                 ChatMessageDto.MessageType.URL_LINK.equals(messageType)) {
 
-            chatMessageService.saveMessage(message);
+            persistAndSend(message);
+        } else {
+            chatFanoutRelay.sendToRoom(roomId, message);
         }
+    }
 
-        messagingTemplate.convertAndSend("/sub/chat/room/" + roomId, message);
+    // Write-Behind 버퍼에 들어가면 버퍼가 임시 ID 로 바로 브로드캐스트하고 저장 후 확정 (포화 시 스트라이프 안에서 대기하므로 순서 유지)
+    // 비활성화/종료 후에는 동기 저장 후 브로드캐스트
+    private void persistAndSend(ChatMessageDto message) {
+        if (!chatMessageWriteBuffer.enqueue(message)) {
+            chatMessageService.saveMessage(message);
+            chatFanoutRelay.sendToRoom(message.getRoomId(), message);
+        }
     }
 }
\ No newline at end of file
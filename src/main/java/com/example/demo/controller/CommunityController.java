@@ -8,9 +8,15 @@ import com.example.demo.domain.entity.user.User;
 import com.example.demo.domain.entity.user.UserProfile;
 import com.example.demo.domain.repository.UserRepository; // [추가] Repo import
 import com.example.demo.domain.service.CommunityService;
+import com.example.demo.domain.service.FileServingService;
+import com.example.demo.domain.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j; // [추가] 로그용
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal; // [추가]
@@ -18,6 +24,7 @@ import org.springframework.security.core.userdetails.UserDetails; // [추가]
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -31,6 +38,8 @@ import java.util.Optional;
 public class CommunityController {
 
     private final CommunityService communityService;
+    private final FileServingService fileServingService;
+    private final ImageVariantService imageVariantService;
     private final UserRepository userRepository;
 
     private void addProfileToModel(Model model, PrincipalDetails principalDetails) {
@@ -147,18 +156,35 @@ public class CommunityController {
         return ResponseEntity.ok(newLikes);
     }
 
-    // DB 이미지 불러오기
+    // 이미지 불러오기 (저장소로 옮겨진 이미지는 스트리밍, 아직 DB에 있으면 BLOB 응답)
     @GetMapping("/image/view/{id}")
-    public ResponseEntity<byte[]> viewImage(@PathVariable Long id) {
+    public void viewImage(@PathVariable Long id,
+                          @RequestParam(value = "size", required = false) String size,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Optional<String> storageKey = communityService.getImageStorageKey(id);
+        if (storageKey.isPresent()) {
+            // size=thumb|medium 이면 변형본 (아직 없으면 원본)
+            ImageVariantService.Selection selection = imageVariantService.select(storageKey.get(), size);
+            fileServingService.serve(selection.getStorageKey(), null, null, selection.isCacheable(), request, response);
+            return;
+        }
+
         CommunityImageEntity image = communityService.getImage(id);
 
-        if (image == null) {
-            return ResponseEntity.notFound().build();
+        if (image == null || image.getImageData() == null) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
         }
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.IMAGE_JPEG)
-                .body(image.getImageData());
+        // 이미지 행은 수정되지 않으므로 id 기반 ETag 로 재검증 (이전 후에도 같은 URL 이 유지됨)
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "private, no-cache");
+        if (new ServletWebRequest(request, response).checkNotModified("community-image-" + id)) {
+            return;
+        }
+        response.setContentType(MediaType.IMAGE_JPEG_VALUE);
+        response.setContentLength(image.getImageData().length);
+        response.getOutputStream().write(image.getImageData());
     }
 
     // 기타 게시판 매핑
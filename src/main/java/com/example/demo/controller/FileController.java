@@ -1,80 +1,71 @@
 package com.example.demo.controller;
 
-import com.example.demo.domain.service.FileService;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
+import com.example.demo.domain.service.FileServingService;
+import com.example.demo.domain.service.ImageVariantService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.server.ResponseStatusException;
 
 import java.io.IOException;
-import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 public class FileController {
 
-    private final FileService fileService;
+    private final FileServingService fileServingService;
+    private final ImageVariantService imageVariantService;
 
-    public FileController(FileService fileService) {
-        this.fileService = fileService;
+    public FileController(FileServingService fileServingService, ImageVariantService imageVariantService) {
+        this.fileServingService = fileServingService;
+        this.imageVariantService = imageVariantService;
     }
 
     // 1. 파일 다운로드 API
     // 요청: /api/chat/download?storageKey=...&fileName=...
     @GetMapping("/api/chat/download")
-    public ResponseEntity<Resource> downloadFile(
+    public void downloadFile(
             @RequestParam String storageKey,
             @RequestParam(required = false) String fileName,
-            Authentication authentication) {
-
-        Resource resource;
-        try {
-            // S3에서 파일 로드
-            resource = fileService.loadFileAsResource(storageKey);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "파일 전송 중 오류가 발생했습니다.", e);
-        }
+            @RequestParam(required = false) String size,
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
 
         // 다운로드 파일명 설정
         String downloadFileName = (fileName != null && !fileName.isEmpty())
                 ? fileName
-                : resource.getFilename();
+                : storageKey.substring(storageKey.lastIndexOf("/") + 1);
 
-        try {
-            // 한글 파일명 깨짐 방지 인코딩
-            String encodedFileName = URLEncoder.encode(downloadFileName, "UTF-8").replaceAll("\\+", "%20");
-            String contentDisposition = "attachment; filename*=UTF-8''" + encodedFileName;
+        // 한글 파일명 깨짐 방지 인코딩
+        String encodedFileName = URLEncoder.encode(downloadFileName, StandardCharsets.UTF_8).replaceAll("\\+", "%20");
+        String contentDisposition = "attachment; filename*=UTF-8''" + encodedFileName;
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM) // 바이너리 데이터로 처리
-                    .header(HttpHeaders.CONTENT_DISPOSITION, contentDisposition)
-                    .body(resource);
+        // size=thumb|medium 이면 이미지 변형본 (아직 없으면 원본)
+        ImageVariantService.Selection selection = imageVariantService.select(storageKey, size);
 
-        } catch (UnsupportedEncodingException e) {
-            return ResponseEntity.internalServerError().build();
-        }
+        // 바이너리 데이터로 처리 (Range / 조건부 GET 지원)
+        fileServingService.serve(selection.getStorageKey(), MediaType.APPLICATION_OCTET_STREAM, contentDisposition,
+                selection.isCacheable(), request, response);
     }
 
     // 2. 프로필/배너 이미지 조회 API (화면 표시용 - 인라인)
     @GetMapping("/download/{storageKey}")
-    public ResponseEntity<Resource> downloadProfileImage(@PathVariable String storageKey) {
-        Resource resource;
-        try {
-            resource = fileService.loadFileAsResource(storageKey);
-        } catch (IOException e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "이미지 로드 중 오류가 발생했습니다.", e);
-        }
+    public void downloadProfileImage(
+            @PathVariable String storageKey,
+            @RequestParam(required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        ImageVariantService.Selection selection = imageVariantService.select(storageKey, size);
 
         // 이미지 타입에 맞는 Content-Type 설정 (브라우저가 이미지를 바로 보여주도록 함)
-        String contentType = determineContentType(storageKey);
+        String contentType = determineContentType(selection.getStorageKey());
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .body(resource);
+        fileServingService.serve(selection.getStorageKey(), MediaType.parseMediaType(contentType), null,
+                selection.isCacheable(), request, response);
     }
 
     // MIME 타입 결정 헬퍼 메서드
@@ -85,4 +76,4 @@ public class FileController {
         if (lowerKey.endsWith(".gif")) return "image/gif";
         return MediaType.APPLICATION_OCTET_STREAM_VALUE;
     }
-}
\ No newline at end of file
+}
@@ -206,11 +206,13 @@ public class RoomApiController {
     // 9. 채팅 이력 커서 기반 로딩 API
     @GetMapping("/rooms/{roomId}/messages/history")
     @Operation(summary = "채팅 이력 커서 기반 로딩",
-            description = "lastReadTime을 기준으로 안 읽은 메시지와 초기 20개 메시지를 로드하거나, 커서를 기준으로 과거 메시지를 페이지 단위로 로드합니다.")
+            description = "lastReadTime을 기준으로 첫 안 읽은 메시지 주변 윈도우(과거 20개 + 안 읽은 메시지 일부)를 로드하거나, 커서를 기준으로 과거/최신 메시지를 페이지 단위로 로드합니다.")
     public ResponseEntity<ChatHistoryResponse> loadChatHistory(
             @PathVariable String roomId,
-            @Parameter(description = "이전 로드된 가장 오래된 메시지의 생성 시간 (ISO 8601)", example = "2025-11-20T10:00:00")
+            @Parameter(description = "이전 응답의 nextCursor 토큰 (이전 버전의 ISO 8601 시간 문자열도 허용)", example = "MjAyNS0xMS0yMFQxMDowMDowMHwxNTI")
             @RequestParam(required = false) String cursor,
+            @Parameter(description = "이전 응답의 afterCursor 토큰. 지정 시 해당 메시지 이후의 최신 메시지를 오래된 순으로 로드합니다.")
+            @RequestParam(required = false) String after,
             @Parameter(description = "사용자의 마지막 읽은 시간 (ISO 8601). 초기 로딩 시 사용.", example = "2025-11-24T09:37:58")
             @RequestParam(required = false) String lastReadTime,
             @Parameter(description = "로드할 메시지 개수 (상단 스크롤 시 50)", example = "50")
@@ -225,7 +227,7 @@ public class RoomApiController {
         try {
             // Service 호출
             // ChatRoomService에서 cursor가 null일 때 limit을 20으로 내부적으로 조정합니다.
-            ChatHistoryResponse response = chatRoomService.loadChatHistory(roomId, cursor, lastReadTime, limit);
+            ChatHistoryResponse response = chatRoomService.loadChatHistory(roomId, cursor, after, lastReadTime, limit, userEmail);
 
             return ResponseEntity.ok(response);
 
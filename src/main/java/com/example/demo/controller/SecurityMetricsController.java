@@ -0,0 +1,28 @@
+package com.example.demo.controller;
+
+import com.example.demo.config.auth.BoundedPasswordEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/security")
+public class SecurityMetricsController {
+
+    private final PasswordEncoder passwordEncoder;
+
+    /**
+     * 비밀번호 해시 풀 현황 (처리 중/대기 건수, 처리/거절 건수, 평균/최대 해시 시간)
+     */
+    @GetMapping("/password-encoder/stats")
+    public ResponseEntity<BoundedPasswordEncoder.Stats> getPasswordEncoderStats() {
+        if (passwordEncoder instanceof BoundedPasswordEncoder boundedPasswordEncoder) {
+            return ResponseEntity.ok(boundedPasswordEncoder.getStats());
+        }
+        return ResponseEntity.notFound().build();
+    }
+}
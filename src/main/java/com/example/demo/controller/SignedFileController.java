@@ -0,0 +1,106 @@
+package com.example.demo.controller;
+
+import com.example.demo.domain.service.FileServingService;
+import com.example.demo.domain.service.PresignedUrlService;
+import com.example.demo.domain.service.StorageModeManager;
+import com.example.demo.domain.storage.StorageBackend;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 로컬 모드용 서명 URL 엔드포인트 (S3 presigned URL 과 같은 역할)
+ * - 인증 헤더 없이 서명(sig)과 만료 시각(exp)만으로 접근을 허용하므로 SecurityConfig 에서 permitAll 입니다.
+ * - S3 모드에서는 URL 이 S3 로 직접 발급되므로 이 엔드포인트는 404 를 반환합니다.
+ */
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class SignedFileController {
+
+    private final PresignedUrlService presignedUrlService;
+    private final FileServingService fileServingService;
+    private final StorageModeManager storageModeManager;
+    private final StorageBackend storageBackend;
+
+    @PutMapping(PresignedUrlService.SIGNED_PATH + "**")
+    public ResponseEntity<Void> upload(
+            HttpServletRequest request,
+            @RequestParam("exp") long expiresAt,
+            @RequestParam("len") long size,
+            @RequestParam("sig") String signature) throws IOException {
+
+        String storageKey = storageKeyOf(request);
+        if (!storageModeManager.isLocalMode()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        if (!presignedUrlService.verifyLocalUpload(storageKey, expiresAt, size, signature)) {
+            log.warn("[SIGNED] 업로드 서명 검증 실패 또는 만료: key={}", storageKey);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "유효하지 않거나 만료된 URL 입니다.");
+        }
+
+        // 서명된 크기와 같은 Content-Length 만 허용 (S3 presigned PUT 과 동일, chunked 전송 불가)
+        if (request.getContentLengthLong() != size) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "서명된 파일 크기와 다릅니다.");
+        }
+        try (InputStream inputStream = request.getInputStream()) {
+            storageBackend.put(storageKey, inputStream, size, request.getContentType());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 파일 경로 요청입니다.");
+        }
+        log.info("[SIGNED] 로컬 직접 업로드: key={}, size={}", storageKey, size);
+        return ResponseEntity.ok().build();
+    }
+
+    @GetMapping(PresignedUrlService.SIGNED_PATH + "**")
+    public void download(
+            HttpServletRequest request,
+            HttpServletResponse response,
+            @RequestParam("exp") long expiresAt,
+            @RequestParam("sig") String signature,
+            @RequestParam(value = "fileName", required = false) String fileName) throws IOException {
+
+        String storageKey = verify(request, "GET", expiresAt, fileName, signature);
+
+        if (fileName != null && !fileName.isEmpty()) {
+            fileServingService.serve(storageKey, MediaType.APPLICATION_OCTET_STREAM,
+                    "attachment; filename*=UTF-8''" + UriUtils.encode(fileName, StandardCharsets.UTF_8), request, response);
+        } else {
+            fileServingService.serve(storageKey, null, null, request, response);
+        }
+    }
+
+    // fileName 은 Content-Disposition 으로 내려가므로 서명에 포함된 값만 허용
+    private String verify(HttpServletRequest request, String method, long expiresAt, String fileName, String signature) {
+        if (!storageModeManager.isLocalMode()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
+        String storageKey = storageKeyOf(request);
+        if (!presignedUrlService.verifyLocalToken(method, storageKey, expiresAt, fileName, signature)) {
+            log.warn("[SIGNED] 서명 검증 실패 또는 만료: method={}, key={}", method, storageKey);
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "유효하지 않거나 만료된 URL 입니다.");
+        }
+        return storageKey;
+    }
+
+    private String storageKeyOf(HttpServletRequest request) {
+        String requestUri = request.getRequestURI();
+        return UriUtils.decode(
+                requestUri.substring(requestUri.indexOf(PresignedUrlService.SIGNED_PATH) + PresignedUrlService.SIGNED_PATH.length()),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.controller;
+
+import com.example.demo.domain.service.StorageGarbageCollector;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/storage/gc")
+public class StorageGcController {
+
+    private final StorageGarbageCollector storageGarbageCollector;
+
+    /**
+     * 저장소 GC 현황 (진행 단계, 스캔/삭제 건수와 크기, 해제한 매핑 수)
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StorageGarbageCollector.GcStats> getStats() {
+        return ResponseEntity.ok(storageGarbageCollector.getStats());
+    }
+
+    /**
+     * 저장소 GC 즉시 실행 (ADMIN, dryRun 생략 시 설정값)
+     */
+    @PostMapping("/run")
+    public ResponseEntity<StorageGarbageCollector.GcStats> run(@RequestParam(value = "dryRun", required = false) Boolean dryRun) {
+        if (!storageGarbageCollector.trigger(dryRun)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(storageGarbageCollector.getStats());
+        }
+        return ResponseEntity.accepted().body(storageGarbageCollector.getStats());
+    }
+}
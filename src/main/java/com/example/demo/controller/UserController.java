@@ -2,6 +2,7 @@ package com.example.demo.controller;
 
 import com.example.demo.config.auth.PrincipalDetails;
 import com.example.demo.config.auth.jwt.JWTTokenProvider;
+import com.example.demo.config.auth.jwt.TokenBlacklist;
 import com.example.demo.config.auth.redis.RedisUtil;
 import com.example.demo.domain.dto.*;
 import com.example.demo.domain.entity.user.User;
@@ -52,6 +53,9 @@ public class UserController {
     @Autowired
     RedisUtil redisUtil;
 
+    @Autowired
+    TokenBlacklist tokenBlacklist;
+
     @GetMapping("/login")
     public String login(@AuthenticationPrincipal PrincipalDetails principalDetails, HttpServletResponse response) throws IOException {
         log.info("GET /login..." + principalDetails);
@@ -338,7 +342,7 @@ public class UserController {
                 Long remainingExpirationMillis = jwtTokenProvider.getRemainingExpiration(accessToken);
                 //accessToken을 블랙리스트로 Redis에 등록
                 if (remainingExpirationMillis > 0) {
-                    redisUtil.setDataExpire(accessToken, "quit", remainingExpirationMillis);
+                    tokenBlacklist.add(accessToken, remainingExpirationMillis);
                 }
             }
             redisUtil.delete("RT : " + email);
@@ -1,16 +1,18 @@
 package com.example.demo.controller;
 
 import com.example.demo.config.auth.PrincipalDetails;
+import com.example.demo.domain.dto.PresignedUploadResponse;
 import com.example.demo.domain.dto.ProfileResponseDto;
 import com.example.demo.domain.dto.ProfileUpdateDto;
-import com.example.demo.domain.service.FileService;
+import com.example.demo.domain.service.FileServingService;
+import com.example.demo.domain.service.ImageVariantService;
+import com.example.demo.domain.service.PresignedUrlService;
 import com.example.demo.domain.service.UserService;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
@@ -24,7 +26,9 @@ import java.io.IOException;
 public class UserRestController {
 
     private final UserService userService;
-    private final FileService fileService;
+    private final FileServingService fileServingService;
+    private final ImageVariantService imageVariantService;
+    private final PresignedUrlService presignedUrlService;
 
     // 1. 내 프로필 정보 조회
     @GetMapping("/profile/me")
@@ -65,6 +69,48 @@ public class UserRestController {
         }
     }
 
+    // 2-1. 프로필/배너 이미지 직접 업로드 URL 발급 (kind: profile | banner)
+    @PostMapping("/profile/image/presign")
+    public ResponseEntity<PresignedUploadResponse> presignProfileImage(
+            @AuthenticationPrincipal PrincipalDetails principalDetails,
+            @RequestParam("kind") String kind,
+            @RequestParam("fileName") String fileName,
+            @RequestParam(value = "contentType", required = false) String contentType,
+            @RequestParam("size") long size) {
+
+        if (principalDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (!"profile".equals(kind) && !"banner".equals(kind)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(presignedUrlService.issueUpload(principalDetails.getUsername(), kind, fileName, contentType, size));
+    }
+
+    // 2-2. 직접 업로드한 프로필/배너 이미지 반영
+    @PostMapping("/profile/image/confirm")
+    public ResponseEntity<String> confirmProfileImage(
+            @AuthenticationPrincipal PrincipalDetails principalDetails,
+            @RequestParam("kind") String kind,
+            @RequestParam("storageKey") String storageKey) {
+
+        if (principalDetails == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
+        }
+        if (!"profile".equals(kind) && !"banner".equals(kind)) {
+            return ResponseEntity.badRequest().body("지원하지 않는 이미지 종류입니다: " + kind);
+        }
+        try {
+            // 이 사용자가 발급받은 키만 확인됨 (다른 사용자의 profile/ 키로는 반영 불가)
+            presignedUrlService.confirmUpload(principalDetails.getUsername(), kind, storageKey, null);
+            userService.applyUploadedImage(principalDetails.getUsername(), kind, storageKey);
+            imageVariantService.scheduleVariants(storageKey);
+            return ResponseEntity.ok("프로필이 성공적으로 업데이트되었습니다.");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // 3. 프로필 배경 사진(Banner) 삭제
     @DeleteMapping("/profile/banner")
     public ResponseEntity<String> deleteBanner(
@@ -86,21 +132,30 @@ public class UserRestController {
     // 4. 프로필 이미지 다운로드 (화면 표시용)
     // (FileController와 경로가 다르므로 유지합니다: /api/profile/download/**)
     @GetMapping("/profile/download/**")
-    public ResponseEntity<Resource> downloadProfileImage(HttpServletRequest request){
+    public void downloadProfileImage(HttpServletRequest request, HttpServletResponse response,
+                                     @RequestParam(value = "size", required = false) String size){
         try {
             String requestURI = request.getRequestURI();
             String prefix = "/api/profile/download/";
             String storageKey = requestURI.substring(prefix.length());
             log.info("Extracted Storage Key : {}", storageKey);
 
-            // FileService를 통해 S3 등에서 파일 로드
-            Resource resource = fileService.loadFileAsResource(storageKey);
+            // size=thumb|medium 이면 변형본 (아직 없으면 원본)
+            ImageVariantService.Selection selection = imageVariantService.select(storageKey, size);
+
+            // S3 직접 다운로드: presigned URL 로 리다이렉트 (이미지 표시용이므로 inline)
+            if (presignedUrlService.shouldRedirectDownloads()) {
+                response.sendRedirect(presignedUrlService.issueDownloadUrl(selection.getStorageKey(), null, true));
+                return;
+            }
 
-            return ResponseEntity.ok()
-                    .contentType(MediaType.IMAGE_PNG) // 필요 시 동적 타입 적용 가능
-                    .body(resource);
+            // 확장자/저장소 메타데이터로 이미지 타입 결정, 변경 없는 아바타는 304 로 응답
+            fileServingService.serve(selection.getStorageKey(), null, null, selection.isCacheable(), request, response);
         } catch (Exception e) {
-            return ResponseEntity.noContent().build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.NO_CONTENT.value());
+            }
         }
     }
 }
\ No newline at end of file
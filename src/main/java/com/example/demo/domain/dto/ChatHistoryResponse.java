@@ -16,9 +16,21 @@ public class ChatHistoryResponse {
     // 로드된 메시지 리스트
     private List<ChatMessageDto> messages;
 
-    // 새로 로드된 메시지 중 가장 오래된 메시지의 createdAt (다음 커서로 사용)
+    // 새로 로드된 메시지 중 가장 오래된 메시지의 (createdAt, messageId) 커서 토큰 (다음 요청의 cursor로 사용)
     private String nextCursor;
 
     // 더 과거의 메시지가 남아 있는지 여부 (상단에 생략 영역을 표시할지 결정)
     private boolean hasMore;
+
+    // 로드된 메시지 중 가장 최신 메시지의 커서 토큰 (다음 요청의 after로 사용, 아래 방향 로딩)
+    private String afterCursor;
+
+    // 더 최신 메시지가 남아 있는지 여부 (안 읽은 메시지가 윈도우보다 많을 때 true)
+    private boolean hasMoreAfter;
+
+    // 초기 로딩 시 전체 안 읽은 메시지 수 (윈도우에 포함되지 않은 것까지 포함)
+    private long unreadCount;
+
+    // 초기 로딩 시 첫 번째 안 읽은 메시지 ID (클라이언트가 해당 위치로 스크롤)
+    private Long firstUnreadMessageId;
 }
\ No newline at end of file
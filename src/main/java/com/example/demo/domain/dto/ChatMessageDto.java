@@ -12,7 +12,7 @@ import java.time.LocalDateTime;
 @Getter
 @Setter
 @Schema(description = "채팅 메시지")
-@Builder
+@Builder(toBuilder = true)
 public class ChatMessageDto {
 
     public enum ChatType {
@@ -40,6 +40,13 @@ public class ChatMessageDto {
     @Schema(description = "메시지 고유 ID (수정/삭제 식별용)", example = "152")
     private Long messageId;
 
+    @Schema(description = "방 내 메시지 순번 (방마다 1부터 증가)", example = "42")
+    private Long seq;
+
+    // Write-Behind 저장 시 messageId/seq 대신 먼저 브로드캐스트되는 임시 ID (저장 후 /sub/chat/room/{roomId}/saved 로 확정)
+    @Schema(description = "저장 전 임시 ID (저장 후 messageId/seq 로 확정)", example = "5f0c3c1e-8a4b-4a8e-9d0e-2f6b1c7d9a10")
+    private String tempId;
+
     @Schema(description = "메시지 타입", example = "TALK", required = true)
     private MessageType type;
 
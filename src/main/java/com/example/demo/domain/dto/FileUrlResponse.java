@@ -13,4 +13,5 @@ public class FileUrlResponse {
     private String originalFileName; // 클라이언트가 업로드한 원래 이름
     private String storageKey;       // S3에 저장된 고유 경로 (다운로드 API의 매개변수)
     private String fileUrl;          // 브라우저에서 직접 접근 가능한 URL (선택적)
+    private String status;           // 비동기 업로드 상태 (PENDING/STORED/FAILED, 동기 업로드는 null)
 }
\ No newline at end of file
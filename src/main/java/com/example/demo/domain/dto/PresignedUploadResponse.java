@@ -0,0 +1,20 @@
+package com.example.demo.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadResponse {
+    private String storageKey;           // 업로드 완료 후 confirm 요청에 그대로 보낼 키
+    private String uploadUrl;            // 파일 바이트를 직접 PUT 할 URL (S3 presigned 또는 앱 서명 URL)
+    private String method;               // 항상 PUT
+    private Map<String, String> headers; // 업로드 요청에 반드시 포함해야 하는 헤더 (Content-Type 등)
+    private long expiresAt;              // URL 만료 시각 (epoch millis)
+}
@@ -12,7 +12,10 @@ import java.time.LocalDateTime;
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "message")
+@Table(name = "message", indexes = {
+        @Index(name = "idx_message_room_seq", columnList = "roomId, seq"),
+        @Index(name = "idx_message_room_created", columnList = "roomId, createdAt, messageId")
+})
 public class ChatMessageEntity {
 
     @Id
@@ -50,6 +53,10 @@ public class ChatMessageEntity {
     @Column(nullable = false)
     private LocalDateTime createdAt; // creatAt Datetime now()
 
+    // 방 내 메시지 순번 (저장 시 ChatRoomEntity.lastSeq 에서 할당, 기존 메시지는 null)
+    @Column(nullable = true)
+    private Long seq;
+
     @Builder
     public ChatMessageEntity(
             String roomId,
@@ -60,7 +67,8 @@ public class ChatMessageEntity {
             ChatMessageDto.MessageType type,
             LocalDateTime createdAt,
             String fileUrl,
-            String metadata)
+            String metadata,
+            Long seq)
     {
         this.roomId = roomId;
         this.sender = sender;
@@ -71,6 +79,7 @@ public class ChatMessageEntity {
         this.createdAt =  createdAt;
         this.fileUrl = fileUrl;
         this.metadata = metadata;
+        this.seq = seq;
     }
 
     // 메시지 내용 수정을 위한 메서드
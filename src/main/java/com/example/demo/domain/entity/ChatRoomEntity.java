@@ -7,13 +7,18 @@ import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
-@Table(name = "room")
+// roomId 유니크 인덱스: 메시지 저장/인원수 갱신의 "WHERE roomId = ?" 벌크 UPDATE 가 해당 방 행만 잠그도록
+// (인덱스가 없으면 전체 스캔으로 모든 방 행이 잠겨 모든 방의 저장이 직렬화됨, 기존 DB 는 db/room_room_id_unique.sql 참고)
+@Table(name = "room", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_room_room_id", columnNames = "roomId")
+})
 public class ChatRoomEntity {
 
     @Id
@@ -34,6 +39,27 @@ public class ChatRoomEntity {
     @Column(nullable = false)
     private RoomType type;
 
+    // 마지막으로 할당된 메시지 순번 (메시지 저장 시 증가)
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long lastSeq = 0L;
+
+    // 삭제된 메시지 중 가장 큰 순번 (이 순번까지 읽은 멤버만 순번 차이가 정확한 안 읽은 수)
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long lastDeletedSeq = 0L;
+
+    // ---- 방 목록용 요약 정보 (메시지 저장/멤버 변경 시 벌크 UPDATE로 갱신) ----
+    // 마지막 메시지 미리보기
+    @Column(nullable = true)
+    private String lastMessage;
+
+    // 마지막 메시지 시간
+    @Column(nullable = true)
+    private LocalDateTime lastMessageAt;
+
+    // 참여 인원수 (null 이면 아직 백필되지 않은 기존 방)
+    @Column(nullable = true)
+    private Integer memberCount;
+
     // RoomMemberEntity와 1:N 관계 설정
     @OneToMany(mappedBy = "room", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<RoomMemberEntity> roomMembers = new ArrayList<>();
@@ -51,10 +77,11 @@ public class ChatRoomEntity {
 
     // Builder에 type 필드 추가
     @Builder
-    public ChatRoomEntity(String roomId, String roomName, String roomOwner, RoomType type) {
+    public ChatRoomEntity(String roomId, String roomName, String roomOwner, RoomType type, Integer memberCount) {
         this.roomId = roomId;
         this.roomName = roomName;
         this.roomOwner = roomOwner;
         this.type = type;
+        this.memberCount = memberCount != null ? memberCount : 0;
     }
 }
\ No newline at end of file
@@ -29,7 +29,10 @@ public class CommunityEntity {
     private String menuId;
     private String category;
 
+    // 조회수/추천수는 CommunityCounterRepository 증분 UPDATE 로만 변경 (게시글 수정 시 덮어쓰지 않도록)
+    @Column(updatable = false)
     private int views;
+    @Column(updatable = false)
     private int likes;
 
     // 3. 파일 경로 저장용 필드 (여러 개일 경우 콤마로 구분하여 저장 예정)
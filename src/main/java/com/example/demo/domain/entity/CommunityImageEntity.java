@@ -17,13 +17,18 @@ public class CommunityImageEntity {
 
     private String originalFileName;
 
+    // 이전 방식: 이미지 바이트를 DB에 직접 저장 (이전 작업 후 null)
     @Lob // 대용량 데이터 저장 (BLOB)
     @Column(columnDefinition = "LONGBLOB")
     private byte[] imageData;
 
+    // 현재 방식: FileService 저장소(S3/로컬)의 저장 키
+    private String storageKey;
+
     @Builder
-    public CommunityImageEntity(String originalFileName, byte[] imageData) {
+    public CommunityImageEntity(String originalFileName, byte[] imageData, String storageKey) {
         this.originalFileName = originalFileName;
         this.imageData = imageData;
+        this.storageKey = storageKey;
     }
-}
\ No newline at end of file
+}
@@ -34,11 +34,16 @@ public class RoomMemberEntity {
     // 새로운 멤버가 추가될 때 joinedAt과 동일하게 현재 시각으로 초기화합니다.
     private LocalDateTime lastReadTime = LocalDateTime.now();
 
+    // 마지막으로 읽은 메시지 순번 (안 읽은 수 = room.lastSeq - lastReadSeq)
+    // 기존 멤버는 null 이며, 다음 읽음 처리 때 채워집니다.
+    private Long lastReadSeq;
+
     @Builder
     public RoomMemberEntity(ChatRoomEntity room, User user) {
         this.room = room;
         this.user = user;
         this.joinedAt = LocalDateTime.now();
         this.lastReadTime = LocalDateTime.now();
+        this.lastReadSeq = room != null ? room.getLastSeq() : 0L;
     }
 }
\ No newline at end of file
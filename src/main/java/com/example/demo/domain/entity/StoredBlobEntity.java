@@ -0,0 +1,40 @@
+package com.example.demo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 내용 주소 저장소의 실제 파일 (SHA-256 digest 당 1개)
+ * - 행은 실제 파일이 저장소에 쓰인 뒤에만 생성됩니다. (행이 있으면 파일도 있음)
+ * - refCount 는 이 blob 을 가리키는 stored_file 수이며, 0 이 되어도 행/파일은 남겨 두고 releasedAt 을 기록합니다.
+ *   (같은 내용이 다시 올라오면 재사용, 정리는 별도 GC 에서)
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "stored_blob")
+public class StoredBlobEntity {
+
+    // SHA-256 (hex 소문자)
+    @Id
+    @Column(length = 64)
+    private String digest;
+
+    @Column(nullable = false)
+    private long size;
+
+    private String contentType;
+
+    @Column(nullable = false)
+    private long refCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // refCount 가 0 이 된 시각 (다시 참조되면 null)
+    private LocalDateTime releasedAt;
+}
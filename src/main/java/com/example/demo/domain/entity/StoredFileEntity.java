@@ -0,0 +1,38 @@
+package com.example.demo.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 논리 저장 키(storageKey) → blob digest 매핑
+ * - 클라이언트/메시지/프로필이 쓰는 storageKey(chat/{roomId}/{uuid}.ext 등)는 그대로 유지되고,
+ *   실제 바이트는 stored_blob 의 digest 위치에서 읽습니다.
+ * - 매핑이 없는 키는 중복 제거 이전에 저장된 파일이며, 키 자체가 실제 위치입니다.
+ */
+@Entity
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Table(name = "stored_file")
+public class StoredFileEntity {
+
+    @Id
+    private String storageKey;
+
+    @Column(nullable = false, length = 64)
+    private String digest;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Builder
+    public StoredFileEntity(String storageKey, String digest) {
+        this.storageKey = storageKey;
+        this.digest = digest;
+        this.createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.dto.ChatMessageDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * message 테이블에 대한 JDBC 배치 INSERT 전용 저장소
+ * - JPA IDENTITY 전략은 배치 INSERT가 불가능하므로 JdbcTemplate으로 직접 처리합니다.
+ * - JDBC URL의 rewriteBatchedStatements=true 옵션으로 MySQL 드라이버가 multi-row INSERT로 재작성합니다.
+ * - 생성된 messageId 는 각 DTO 에 채워 넣습니다. (저장 후 브로드캐스트되는 메시지에 ID 포함)
+ */
+@Repository
+@RequiredArgsConstructor
+public class ChatMessageBatchRepository {
+
+    // 컬럼명은 ChatMessageEntity 필드명과 동일 (JpaConfig에서 별도 네이밍 전략을 사용하지 않음)
+    private static final String INSERT_SQL =
+            "INSERT INTO message (roomId, sender, senderName, senderInitial, message, type, fileUrl, metadata, createdAt, seq) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 메시지 목록을 한 번의 배치로 저장하고, 생성된 messageId 를 각 DTO 에 설정
+     */
+    public void insertAll(List<ChatMessageDto> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ChatMessageDto dto = messages.get(i);
+                        LocalDateTime createdAt = dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now();
+                        ps.setString(1, dto.getRoomId());
+                        ps.setString(2, dto.getSender());
+                        ps.setString(3, dto.getSenderName());
+                        ps.setString(4, dto.getSenderInitial());
+                        ps.setString(5, dto.getMessage());
+                        ps.setString(6, dto.getType().name());
+                        ps.setString(7, dto.getFileUrl());
+                        ps.setString(8, dto.getMetadata());
+                        ps.setTimestamp(9, Timestamp.valueOf(createdAt));
+                        ps.setObject(10, dto.getSeq(), Types.BIGINT);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return messages.size();
+                    }
+                },
+                keyHolder);
+
+        // 생성 키는 INSERT 순서대로 반환됨
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < messages.size() && i < keys.size(); i++) {
+            Object key = keys.get(i).values().stream().findFirst().orElse(null);
+            if (key instanceof Number number) {
+                messages.get(i).setMessageId(number.longValue());
+            }
+        }
+    }
+}
@@ -6,6 +6,8 @@ import com.example.demo.domain.entity.ChatMessageEntity;
 import org.springframework.data.domain.Page; // ⭐ 추가
 import org.springframework.data.domain.Pageable; // ⭐ 추가
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -40,6 +42,41 @@ public interface ChatMessageRepository extends JpaRepository<ChatMessageEntity,
 
     long countByRoomIdAndCreatedAtGreaterThanEqual(String roomId, LocalDateTime time);
 
+    // -----------------------------------------------------------------
+    // 키셋 페이지네이션 ((roomId, createdAt, messageId) 인덱스 범위 스캔, COUNT 쿼리 없음)
+    // -----------------------------------------------------------------
+    /**
+     * 4. 커서 이전 메시지 조회: (createdAt, messageId) 가 커서보다 작은 메시지를 최신 순으로 조회
+     * List 반환이므로 Pageable 은 LIMIT 으로만 사용됩니다. (호출 측에서 limit + 1 로 다음 페이지 존재 여부 판단)
+     */
+    @Query("SELECT m FROM ChatMessageEntity m WHERE m.roomId = :roomId " +
+            "AND (m.createdAt < :createdAt OR (m.createdAt = :createdAt AND m.messageId < :messageId)) " +
+            "ORDER BY m.createdAt DESC, m.messageId DESC")
+    List<ChatMessageEntity> findPageBefore(@Param("roomId") String roomId,
+                                           @Param("createdAt") LocalDateTime createdAt,
+                                           @Param("messageId") Long messageId,
+                                           Pageable pageable);
+
+    /**
+     * 5. 커서 이후 메시지 조회: (createdAt, messageId) 가 커서보다 큰 메시지를 오래된 순으로 조회 (안 읽은 메시지 윈도우 / 아래 방향 로딩)
+     */
+    @Query("SELECT m FROM ChatMessageEntity m WHERE m.roomId = :roomId " +
+            "AND (m.createdAt > :createdAt OR (m.createdAt = :createdAt AND m.messageId > :messageId)) " +
+            "ORDER BY m.createdAt ASC, m.messageId ASC")
+    List<ChatMessageEntity> findPageAfter(@Param("roomId") String roomId,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("messageId") Long messageId,
+                                          Pageable pageable);
+
     // RoomId로 찾고, CreatedAt을 내림차순(Desc)으로 정렬하여, 맨 위(Top)의 1개만 Optional로 반환합니다.
     Optional<ChatMessageEntity> findTopByRoomIdOrderByCreatedAtDesc(String roomId);
-}
\ No newline at end of file
+
+    // 방의 최신 메시지 (같은 시각이면 ID 가 큰 쪽, 방 목록 요약 갱신용)
+    Optional<ChatMessageEntity> findFirstByRoomIdOrderByCreatedAtDescMessageIdDesc(String roomId);
+
+    // 저장소 GC 참조 스캔: [messageId, fileUrl, message, metadata] (저장 키는 '/' 를 포함하므로 그 외 메시지는 제외)
+    @Query("SELECT m.messageId, m.fileUrl, m.message, m.metadata FROM ChatMessageEntity m " +
+            "WHERE m.messageId > :afterId AND (m.fileUrl IS NOT NULL OR m.message LIKE '%/%' OR m.metadata LIKE '%/%') " +
+            "ORDER BY m.messageId")
+    List<Object[]> findStorageReferencesAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
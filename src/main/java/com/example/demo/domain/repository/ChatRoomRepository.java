@@ -4,9 +4,11 @@ import com.example.demo.domain.entity.ChatRoomEntity;
 import com.example.demo.domain.entity.user.User;
 import io.lettuce.core.dynamic.annotation.Param;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -19,4 +21,31 @@ public interface ChatRoomRepository extends JpaRepository<ChatRoomEntity, Long>
             "WHERE r.type = 'PERSONAL' " +
             "AND rm1.user = :userA AND rm2.user = :userB")
     Optional<ChatRoomEntity> findPersonalRoomByMembers(@Param("userA") User userA, @Param("userB") User userB);
+
+    // 메시지 순번 할당 + 마지막 메시지 요약 갱신: 방 행을 잠그고 count 만큼 증가 (트랜잭션 커밋까지 같은 방의 저장이 직렬화됨)
+    @Modifying
+    @Query("UPDATE ChatRoomEntity r SET r.lastSeq = r.lastSeq + :count, " +
+            "r.lastMessage = :lastMessage, r.lastMessageAt = :lastMessageAt WHERE r.roomId = :roomId")
+    int appendMessages(@Param("roomId") String roomId, @Param("count") long count,
+                       @Param("lastMessage") String lastMessage, @Param("lastMessageAt") LocalDateTime lastMessageAt);
+
+    // 참여 인원수 증감 (엔티티 dirty checking 시 lastSeq 가 덮어써지지 않도록 벌크 UPDATE 사용)
+    @Modifying
+    @Query("UPDATE ChatRoomEntity r SET r.memberCount = COALESCE(r.memberCount, 0) + :delta WHERE r.roomId = :roomId")
+    int adjustMemberCount(@Param("roomId") String roomId, @Param("delta") int delta);
+
+    // 삭제/수정된 메시지가 최신일 때 마지막 메시지 요약 교체 (그 사이 더 새 메시지가 저장됐으면 덮어쓰지 않음)
+    @Modifying
+    @Query("UPDATE ChatRoomEntity r SET r.lastMessage = :lastMessage, r.lastMessageAt = :lastMessageAt " +
+            "WHERE r.roomId = :roomId AND (r.lastMessageAt IS NULL OR r.lastMessageAt <= :affectedAt)")
+    int replaceLastMessage(@Param("roomId") String roomId, @Param("lastMessage") String lastMessage,
+                           @Param("lastMessageAt") LocalDateTime lastMessageAt, @Param("affectedAt") LocalDateTime affectedAt);
+
+    // 메시지 삭제 시 삭제된 순번 기록 (안 읽은 수를 순번 차이로 셀 수 있는지 판단)
+    @Modifying
+    @Query("UPDATE ChatRoomEntity r SET r.lastDeletedSeq = :seq WHERE r.roomId = :roomId AND r.lastDeletedSeq < :seq")
+    int markMessageDeleted(@Param("roomId") String roomId, @Param("seq") long seq);
+
+    @Query("SELECT r.lastSeq FROM ChatRoomEntity r WHERE r.roomId = :roomId")
+    Optional<Long> findLastSeqByRoomId(@Param("roomId") String roomId);
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.example.demo.domain.repository;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Community 조회수/추천수 증분을 JDBC 배치 UPDATE 로 반영하는 저장소
+ * - 엔티티를 읽지 않고 "views = views + ?" 로 더하므로 동시에 여러 노드가 반영해도 값이 유실되지 않습니다.
+ * - 추천수는 0 아래로 내려가지 않습니다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CommunityCounterRepository {
+
+    private static final String UPDATE_SQL =
+            "UPDATE Community SET views = views + ?, likes = GREATEST(likes + ?, 0) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * 게시글별 증분을 한 트랜잭션에서 배치로 반영 (일부만 반영된 채 실패하지 않도록)
+     * 노드 간 교착을 피하도록 호출 측에서 id 순으로 정렬해 전달합니다.
+     */
+    @Transactional
+    public void addAll(List<Delta> deltas, int batchSize) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, deltas, batchSize, (ps, delta) -> {
+            ps.setLong(1, delta.getViews());
+            ps.setLong(2, delta.getLikes());
+            ps.setLong(3, delta.getId());
+        });
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Delta {
+        private final Long id;
+        private final long views;
+        private final long likes;
+    }
+}
@@ -1,7 +1,34 @@
 package com.example.demo.domain.repository;
 
 import com.example.demo.domain.entity.CommunityImageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
 
 public interface CommunityImageRepository extends JpaRepository<CommunityImageEntity, Long> {
-}
\ No newline at end of file
+
+    // 조회 시 LONGBLOB 을 읽지 않도록 저장 키만 조회
+    @Query("SELECT i.storageKey FROM CommunityImageEntity i WHERE i.id = :id")
+    Optional<String> findStorageKeyById(@Param("id") Long id);
+
+    // 아직 저장소로 옮기지 않은 이미지 id
+    @Query("SELECT i.id FROM CommunityImageEntity i WHERE i.storageKey IS NULL AND i.imageData IS NOT NULL ORDER BY i.id")
+    List<Long> findLegacyIds(Pageable pageable);
+
+    // 저장소 GC 참조 스캔: [id, storageKey] (id 커서 페이지)
+    @Query("SELECT i.id, i.storageKey FROM CommunityImageEntity i WHERE i.id > :afterId AND i.storageKey IS NOT NULL ORDER BY i.id")
+    List<Object[]> findStorageKeysAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // 저장소 이전 완료: 저장 키 기록 + BLOB 비우기 (다른 노드가 먼저 옮겼으면 0)
+    @Modifying
+    @Transactional
+    @Query("UPDATE CommunityImageEntity i SET i.storageKey = :storageKey, i.imageData = NULL " +
+            "WHERE i.id = :id AND i.storageKey IS NULL")
+    int markMigrated(@Param("id") Long id, @Param("storageKey") String storageKey);
+}
@@ -4,6 +4,10 @@ import com.example.demo.domain.entity.CommunityEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
 
 public interface CommunityRepository extends JpaRepository<CommunityEntity, Long> {
     // menuId(게시판 종류)로 조회
@@ -14,4 +18,8 @@ public interface CommunityRepository extends JpaRepository<CommunityEntity, Long
 
     // menuId 안에서 특정 카테고리(말머리) 필터링
     Page<CommunityEntity> findByMenuIdAndCategory(String menuId, String category, Pageable pageable);
-}
\ No newline at end of file
+
+    // 추천 수만 조회 (게시글이 없으면 empty)
+    @Query("SELECT c.likes FROM CommunityEntity c WHERE c.id = :id")
+    Optional<Integer> findLikesById(@Param("id") Long id);
+}
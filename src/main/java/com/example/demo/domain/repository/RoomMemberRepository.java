@@ -5,6 +5,8 @@ import com.example.demo.domain.entity.ChatRoomEntity;
 import com.example.demo.domain.entity.RoomMemberEntity;
 import com.example.demo.domain.entity.user.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,4 +22,19 @@ public interface RoomMemberRepository extends JpaRepository<RoomMemberEntity, Ro
     List<RoomMemberEntity> findByRoom(ChatRoomEntity room);
 
     List<RoomMemberEntity> findByUser(User user);
+
+    // 방 목록 조회용: 멤버 + 방(요약 컬럼 포함)을 한 번의 조인으로 조회
+    @Query("SELECT rm FROM RoomMemberEntity rm JOIN FETCH rm.room WHERE rm.user.id = :userId")
+    List<RoomMemberEntity> findWithRoomByUserId(@Param("userId") Long userId);
+
+    // 멤버십 인덱스 적재용: 방의 멤버 user id 목록만 조회
+    @Query("SELECT rm.user.id FROM RoomMemberEntity rm WHERE rm.room.roomId = :roomId")
+    List<Long> findUserIdsByRoomId(@Param("roomId") String roomId);
+
+    // 정확한 안 읽은 메시지 수 (순번 차이)
+    // lastReadSeq 가 없는 기존 멤버이거나, 읽은 이후 구간에서 삭제된 메시지가 있으면(차이가 삭제분까지 셈) 빈 값
+    @Query("SELECT rm.room.lastSeq - rm.lastReadSeq FROM RoomMemberEntity rm " +
+            "WHERE rm.room.roomId = :roomId AND rm.user.email = :email AND rm.lastReadSeq IS NOT NULL " +
+            "AND rm.room.lastDeletedSeq <= rm.lastReadSeq")
+    Optional<Long> findUnreadSeqGap(@Param("roomId") String roomId, @Param("email") String email);
 }
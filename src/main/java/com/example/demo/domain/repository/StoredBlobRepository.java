@@ -0,0 +1,45 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.entity.StoredBlobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+// 컬럼명은 StoredBlobEntity 필드명과 동일 (별도 네이밍 전략 없음)
+public interface StoredBlobRepository extends JpaRepository<StoredBlobEntity, String> {
+
+    // 새 blob 등록 또는 참조 수 증가 (동시에 같은 내용이 올라와도 행은 하나)
+    // 반환값: 새 행이면 1, 기존 행 증가면 2 (MySQL ON DUPLICATE KEY UPDATE 영향 행 수)
+    @Modifying
+    @Query(value = "INSERT INTO stored_blob (digest, size, contentType, refCount, createdAt) " +
+            "VALUES (:digest, :size, :contentType, 1, :now) " +
+            "ON DUPLICATE KEY UPDATE refCount = refCount + 1, releasedAt = NULL", nativeQuery = true)
+    int retain(@Param("digest") String digest, @Param("size") long size,
+               @Param("contentType") String contentType, @Param("now") LocalDateTime now);
+
+    // 참조 수 감소 (0 이 되는 시점을 releasedAt 에 기록, MySQL 은 SET 을 왼쪽부터 평가)
+    @Modifying
+    @Query(value = "UPDATE stored_blob SET releasedAt = CASE WHEN refCount = 1 THEN :now ELSE releasedAt END, " +
+            "refCount = refCount - 1 WHERE digest = :digest AND refCount > 0", nativeQuery = true)
+    int release(@Param("digest") String digest, @Param("now") LocalDateTime now);
+
+    // 저장소 GC: 목록 중 행이 있는 digest
+    @Query("SELECT b.digest FROM StoredBlobEntity b WHERE b.digest IN :digests")
+    List<String> findExistingDigests(@Param("digests") Collection<String> digests);
+
+    // 저장소 GC: blob 파일 삭제 직전 digest 잠금 (행이 없으면 갭 잠금으로 같은 digest 의 retain INSERT 를 커밋까지 대기시킴)
+    @Query(value = "SELECT digest FROM stored_blob WHERE digest = :digest FOR UPDATE", nativeQuery = true)
+    List<String> lockDigest(@Param("digest") String digest);
+
+    // 저장소 GC: 참조가 없어진 지 오래된 행 삭제 (파일은 다음 GC 에서 "행 없는 blob" 으로 삭제)
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM stored_blob WHERE refCount = 0 AND releasedAt < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteReleasedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
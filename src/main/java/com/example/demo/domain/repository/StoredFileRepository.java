@@ -0,0 +1,25 @@
+package com.example.demo.domain.repository;
+
+import com.example.demo.domain.entity.StoredFileEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface StoredFileRepository extends JpaRepository<StoredFileEntity, String> {
+
+    @Query("SELECT f.digest FROM StoredFileEntity f WHERE f.storageKey = :storageKey")
+    Optional<String> findDigestByStorageKey(@Param("storageKey") String storageKey);
+
+    // 매핑 삭제 (이미 다른 스레드/노드가 지웠으면 0 - 참조 수는 지운 쪽만 줄임)
+    @Modifying
+    @Query("DELETE FROM StoredFileEntity f WHERE f.storageKey = :storageKey")
+    int deleteByStorageKey(@Param("storageKey") String storageKey);
+
+    // 저장소 GC: storageKey 커서 페이지
+    List<StoredFileEntity> findByStorageKeyGreaterThanOrderByStorageKeyAsc(String afterKey, Pageable pageable);
+}
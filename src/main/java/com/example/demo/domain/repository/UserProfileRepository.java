@@ -2,9 +2,13 @@ package com.example.demo.domain.repository;
 
 import com.example.demo.domain.entity.user.User;
 import com.example.demo.domain.entity.user.UserProfile;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -12,4 +16,9 @@ public interface UserProfileRepository extends JpaRepository<UserProfile, Long>
 
     Optional<User> findByUserEmail(String email);
 
+    // 저장소 GC 참조 스캔: [id, profileImageUrl, bannerImageUrl] (id 커서 페이지)
+    @Query("SELECT p.id, p.profileImageUrl, p.bannerImageUrl FROM UserProfile p " +
+            "WHERE p.id > :afterId AND (p.profileImageUrl IS NOT NULL OR p.bannerImageUrl IS NOT NULL) ORDER BY p.id")
+    List<Object[]> findImageUrlsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
 }
\ No newline at end of file
@@ -0,0 +1,179 @@
+package com.example.demo.domain.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 채팅방 브로드캐스트(/sub/chat/room/{roomId}) 다중 노드 중계
+ * - local 모드(기본): SimpleBroker 로 현재 JVM 의 구독자에게만 전달합니다.
+ * - redis 모드: 현재 노드의 구독자에게 바로 전달한 뒤, 방 ID 해시로 정한 샤드 채널(chat:fanout:{n})에 발행합니다.
+ *   모든 노드는 샤드 채널을 구독하고, 받은 메시지를 자기 노드의 구독자에게 다시 전달합니다.
+ * - 자기 노드가 발행한 메시지(origin)는 이미 직접 전달했으므로 무시합니다.
+ *   메시지는 방의 샤드 채널 하나에만 한 번 발행되고 Redis pub/sub 은 구독 연결마다 한 번만 전달하므로 별도 중복 제거는 하지 않습니다.
+ * - 방 멤버십 변경(멤버 추가/강퇴/방 삭제)도 chat:membership 채널로 다른 노드에 전달하여 각 노드의 RoomMembershipIndex 에 반영합니다.
+ * - chat.fanout.mode=redis 로 활성화합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChatFanoutRelay {
+
+    private static final String CHANNEL_PREFIX = "chat:fanout:";
+    private static final String MEMBERSHIP_CHANNEL = "chat:membership";
+
+    private final SimpMessageSendingOperations messagingTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ObjectMapper objectMapper;
+    private final RoomMembershipIndex roomMembershipIndex;
+
+    @Value("${chat.fanout.mode:local}")
+    private String mode;
+
+    // 샤드 채널 수 (방마다 채널을 만들지 않고 해시로 분산)
+    @Value("${chat.fanout.shards:16}")
+    private int shards;
+
+    // 노드 식별자 (자기 발행 메시지 무시용)
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private boolean redisMode;
+    private final RelayListener relayListener = new RelayListener();
+    private final MembershipListener membershipListener = new MembershipListener();
+
+    @PostConstruct
+    public void start() {
+        this.redisMode = "redis".equalsIgnoreCase(mode);
+        if (!redisMode) {
+            log.info("CHAT FANOUT: local mode. Broadcasts reach this node's subscribers only.");
+            return;
+        }
+        List<Topic> topics = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            topics.add(new ChannelTopic(CHANNEL_PREFIX + i));
+        }
+        listenerContainer.addMessageListener(relayListener, topics);
+        listenerContainer.addMessageListener(membershipListener, new ChannelTopic(MEMBERSHIP_CHANNEL));
+        log.info("CHAT FANOUT: redis mode (nodeId={}, shards={})", nodeId, shards);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (redisMode) {
+            listenerContainer.removeMessageListener(relayListener);
+            listenerContainer.removeMessageListener(membershipListener);
+        }
+    }
+
+    /**
+     * 채팅방 구독자 전체에게 메시지를 전달합니다.
+     */
+    public void sendToRoom(String roomId, Object payload) {
+        send(roomId, "/sub/chat/room/" + roomId, payload);
+    }
+
+    /**
+     * 채팅방 하위 토픽(/sub/chat/room/{roomId}/{topic}) 구독자에게 전달합니다. (업로드 완료 알림 등 대화 외 이벤트)
+     */
+    public void sendToRoomTopic(String roomId, String topic, Object payload) {
+        send(roomId, "/sub/chat/room/" + roomId + "/" + topic, payload);
+    }
+
+    private void send(String roomId, String destination, Object payload) {
+        // 현재 노드 구독자에게는 Redis 왕복 없이 바로 전달
+        messagingTemplate.convertAndSend(destination, payload);
+
+        if (!redisMode) {
+            return;
+        }
+        try {
+            ObjectNode envelope = objectMapper.createObjectNode();
+            envelope.put("origin", nodeId);
+            envelope.put("destination", destination);
+            envelope.set("payload", objectMapper.valueToTree(payload));
+            redisTemplate.convertAndSend(channelOf(roomId), objectMapper.writeValueAsString(envelope));
+        } catch (Exception e) {
+            // 발행 실패 시 다른 노드의 구독자는 메시지를 받지 못함 (현재 노드는 이미 전달됨)
+            log.error("[FANOUT] Redis 발행 실패: roomId={}, error={}", roomId, e.getMessage());
+        }
+    }
+
+    /**
+     * 현재 노드에서 커밋된 방 멤버십 변경을 다른 노드에 알립니다. (local 모드에서는 아무것도 하지 않음)
+     */
+    public void publishMembershipChange(RoomMembershipIndex.Change change, String roomId, Long userId) {
+        if (!redisMode) {
+            return;
+        }
+        try {
+            ObjectNode event = objectMapper.createObjectNode();
+            event.put("origin", nodeId);
+            event.put("change", change.name());
+            event.put("roomId", roomId);
+            if (userId != null) {
+                event.put("userId", userId);
+            }
+            redisTemplate.convertAndSend(MEMBERSHIP_CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (Exception e) {
+            // 발행 실패 시 다른 노드는 chat.membership.ttl-seconds 이내 재적재로 반영
+            log.error("[FANOUT] 멤버십 변경 발행 실패: roomId={}, change={}, error={}", roomId, change, e.getMessage());
+        }
+    }
+
+    private String channelOf(String roomId) {
+        return CHANNEL_PREFIX + Math.floorMod(roomId.hashCode(), shards);
+    }
+
+    private class RelayListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            try {
+                JsonNode envelope = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                if (nodeId.equals(envelope.path("origin").asText())) {
+                    return;
+                }
+                messagingTemplate.convertAndSend(envelope.path("destination").asText(), envelope.get("payload"));
+            } catch (Exception e) {
+                log.error("[FANOUT] 중계 메시지 처리 실패: {}", e.getMessage());
+            }
+        }
+    }
+
+    private class MembershipListener implements MessageListener {
+        @Override
+        public void onMessage(Message message, byte[] pattern) {
+            try {
+                JsonNode event = objectMapper.readTree(new String(message.getBody(), StandardCharsets.UTF_8));
+                if (nodeId.equals(event.path("origin").asText())) {
+                    return;
+                }
+                JsonNode userId = event.get("userId");
+                roomMembershipIndex.applyRemoteChange(
+                        RoomMembershipIndex.Change.valueOf(event.path("change").asText()),
+                        event.path("roomId").asText(),
+                        userId == null ? null : userId.asLong());
+            } catch (Exception e) {
+                log.error("[FANOUT] 멤버십 변경 처리 실패: {}", e.getMessage());
+            }
+        }
+    }
+}
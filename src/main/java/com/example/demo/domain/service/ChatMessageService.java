@@ -3,22 +3,29 @@ package com.example.demo.domain.service;
 import com.example.demo.domain.dto.ChatHistoryResponse;
 import com.example.demo.domain.dto.ChatMessageDto;
 import com.example.demo.domain.entity.ChatMessageEntity;
+import com.example.demo.domain.repository.ChatMessageBatchRepository;
 import com.example.demo.domain.repository.ChatMessageRepository;
+import com.example.demo.domain.repository.ChatRoomRepository;
+import com.example.demo.util.ChatCursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -29,10 +36,22 @@ import java.util.stream.Stream;
 public class ChatMessageService {
 
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageBatchRepository chatMessageBatchRepository;
+    private final ChatRoomRepository chatRoomRepository;
+    private final RecentMessageCache recentMessageCache;
 
     private static final DateTimeFormatter ISO_FORMATTER =
             DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSSSSS");
 
+    private static final int PREVIEW_MAX_LENGTH = 100;
+
+    // 초기 로딩 시 lastReadTime 이전의 과거 메시지 개수
+    private static final int INITIAL_PAST_LIMIT = 20;
+
+    // 초기 로딩 시 한 번에 반환하는 안 읽은 메시지 최대 개수 (나머지는 afterCursor 로 이어서 로딩)
+    @Value("${chat.history.unread-window:50}")
+    private int unreadWindow;
+
     private static final DateTimeFormatter TIME_FORMATTER =
             DateTimeFormatter.ofPattern("a h:mm", Locale.KOREA);
 
@@ -49,6 +68,7 @@ public class ChatMessageService {
                 .fileUrl(dto.getFileUrl())
                 .metadata(dto.getMetadata())
                 .createdAt(dto.getCreatedAt() != null ? dto.getCreatedAt() : LocalDateTime.now())
+                .seq(dto.getSeq())
                 .build();
     }
 
@@ -65,6 +85,7 @@ public class ChatMessageService {
 
         return ChatMessageDto.builder()
                 .messageId(entity.getMessageId()) // 🔑 [중요] 삭제/수정을 위한 ID 매핑
+                .seq(entity.getSeq())
                 .roomId(entity.getRoomId())
                 .sender(entity.getSender())
                 .senderName(entity.getSenderName())
@@ -88,8 +109,67 @@ public class ChatMessageService {
         if (messageDto.getCreatedAt() == null) {
             messageDto.setCreatedAt(LocalDateTime.now());
         }
+        messageDto.setSeq(allocateSeq(messageDto.getRoomId(), messageDto, 1));
         ChatMessageEntity entity = toEntity(messageDto);
         chatMessageRepository.save(entity);
+        // 브로드캐스트되는 메시지에도 ID를 담아 클라이언트가 바로 수정/삭제할 수 있도록 함
+        messageDto.setMessageId(entity.getMessageId());
+
+        afterCommit(() -> recentMessageCache.append(toDto(entity)));
+    }
+
+    /**
+     * 여러 메시지를 JDBC 배치 INSERT로 한 번에 저장 (Write-Behind 버퍼 전용)
+     */
+    @Transactional
+    public void saveMessages(List<ChatMessageDto> messageDtos) {
+        // 방별로 묶어 한 번에 순번 구간을 할당 (큐에 들어온 순서 유지)
+        Map<String, List<ChatMessageDto>> byRoom = messageDtos.stream()
+                .collect(Collectors.groupingBy(ChatMessageDto::getRoomId, LinkedHashMap::new, Collectors.toList()));
+
+        byRoom.forEach((roomId, roomMessages) -> {
+            Long lastSeq = allocateSeq(roomId, roomMessages.get(roomMessages.size() - 1), roomMessages.size());
+            if (lastSeq == null) {
+                return;
+            }
+            long seq = lastSeq - roomMessages.size() + 1;
+            for (ChatMessageDto dto : roomMessages) {
+                dto.setSeq(seq++);
+            }
+        });
+        // 생성된 messageId 가 각 DTO 에 채워짐
+        chatMessageBatchRepository.insertAll(messageDtos);
+
+        // ID 를 모두 받은 방은 최근 메시지 버퍼에 추가하고, 아니면 버퍼를 버림 (다음 조회 시 DB에서 재적재)
+        afterCommit(() -> byRoom.forEach((roomId, roomMessages) -> {
+            if (roomMessages.stream().allMatch(dto -> dto.getMessageId() != null)) {
+                roomMessages.forEach(dto -> {
+                    ChatMessageDto cached = toDto(toEntity(dto));
+                    cached.setMessageId(dto.getMessageId());
+                    recentMessageCache.append(cached);
+                });
+            } else {
+                recentMessageCache.invalidate(roomId);
+            }
+        }));
+    }
+
+    /**
+     * 방의 lastSeq 를 count 만큼 증가시키고 증가 후 값을 반환합니다.
+     * 같은 UPDATE 로 방 목록용 마지막 메시지 요약(lastMessage, lastMessageAt)도 갱신합니다.
+     * 방이 존재하지 않으면 null (순번 없이 저장)
+     */
+    private Long allocateSeq(String roomId, ChatMessageDto lastMessage, int count) {
+        if (roomId == null) {
+            return null;
+        }
+        int updated = chatRoomRepository.appendMessages(
+                roomId, count, toPreview(lastMessage.getMessage()),
+                lastMessage.getCreatedAt() != null ? lastMessage.getCreatedAt() : LocalDateTime.now());
+        if (updated == 0) {
+            return null;
+        }
+        return chatRoomRepository.findLastSeqByRoomId(roomId).orElse(null);
     }
 
     // ==========================================================
@@ -101,12 +181,26 @@ public class ChatMessageService {
      */
     @Transactional
     public void deleteMessage(Long messageId) {
-        if (chatMessageRepository.existsById(messageId)) {
-            chatMessageRepository.deleteById(messageId);
-            log.info("메시지 삭제 완료: ID={}", messageId);
-        } else {
-            throw new IllegalArgumentException("해당 메시지가 존재하지 않습니다. ID=" + messageId);
+        ChatMessageEntity messageEntity = chatMessageRepository.findById(messageId)
+                .orElseThrow(() -> new IllegalArgumentException("해당 메시지가 존재하지 않습니다. ID=" + messageId));
+
+        chatMessageRepository.delete(messageEntity);
+        if (messageEntity.getSeq() != null) {
+            // 이 순번 이전까지만 읽은 멤버의 안 읽은 수는 순번 차이 대신 COUNT 로 셈
+            chatRoomRepository.markMessageDeleted(messageEntity.getRoomId(), messageEntity.getSeq());
+        }
+        // 최신 메시지를 지웠으면 방 목록 요약을 남은 최신 메시지로 교체 (조회 전 자동 flush 로 삭제가 반영됨)
+        Optional<ChatMessageEntity> latest = chatMessageRepository.findFirstByRoomIdOrderByCreatedAtDescMessageIdDesc(messageEntity.getRoomId());
+        if (latest.isEmpty() || isNewer(messageEntity, latest.get())) {
+            chatRoomRepository.replaceLastMessage(messageEntity.getRoomId(),
+                    latest.map(message -> toPreview(message.getMessage())).orElse(null),
+                    latest.map(ChatMessageEntity::getCreatedAt).orElse(null),
+                    messageEntity.getCreatedAt());
         }
+        log.info("메시지 삭제 완료: ID={}", messageId);
+
+        String roomId = messageEntity.getRoomId();
+        afterCommit(() -> recentMessageCache.remove(roomId, messageId));
     }
 
     /**
@@ -119,7 +213,38 @@ public class ChatMessageService {
 
         // Dirty Checking으로 자동 업데이트
         messageEntity.setMessage(newMessage);
+        // 최신 메시지를 고쳤으면 방 목록 미리보기도 갱신
+        boolean latest = chatMessageRepository.findFirstByRoomIdOrderByCreatedAtDescMessageIdDesc(messageEntity.getRoomId())
+                .map(message -> message.getMessageId().equals(messageId))
+                .orElse(false);
+        if (latest) {
+            chatRoomRepository.replaceLastMessage(messageEntity.getRoomId(), toPreview(newMessage),
+                    messageEntity.getCreatedAt(), messageEntity.getCreatedAt());
+        }
         log.info("메시지 수정 완료: ID={}", messageId);
+
+        String roomId = messageEntity.getRoomId();
+        afterCommit(() -> recentMessageCache.update(roomId, messageId, newMessage));
+    }
+
+    // (createdAt, messageId) 순서로 a 가 b 보다 나중인지
+    private boolean isNewer(ChatMessageEntity a, ChatMessageEntity b) {
+        int byTime = a.getCreatedAt().compareTo(b.getCreatedAt());
+        return byTime != 0 ? byTime > 0 : a.getMessageId() > b.getMessageId();
+    }
+
+    // 트랜잭션 커밋 후 실행 (롤백 시 캐시가 DB와 어긋나지 않도록)
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
     // ==========================================================
@@ -134,55 +259,87 @@ public class ChatMessageService {
     }
 
     /**
-     * 커서 기반 메시지 조회 로직 (페이지네이션)
+     * 커서 기반 메시지 조회 로직 (키셋 페이지네이션)
+     * - (createdAt, messageId) 복합 키로 범위 조회하며, limit + 1 건을 읽어 hasMore 를 판단합니다. (COUNT 쿼리 없음)
+     * - 초기 로딩은 첫 안 읽은 메시지를 기준으로 과거 20건 + 안 읽은 메시지 최대 unreadWindow 건만 반환합니다.
+     * - nextCursor(과거 방향), afterCursor(최신 방향)는 (createdAt, messageId) 를 담은 불투명 토큰입니다.
+     * - unreadTotal 은 순번 차이(room.lastSeq - lastReadSeq)로 구한 정확한 안 읽은 메시지 수이며,
+     *   정확하지 않을 수 있으면(기존 멤버, 읽은 이후 삭제된 메시지 있음) null 로 받아 시간 기준 COUNT 로 대신합니다.
      */
     @Transactional(readOnly = true)
-    public ChatHistoryResponse loadChatHistory(String roomId, String cursor, String lastReadTimeStr, int limit) {
+    public ChatHistoryResponse loadChatHistory(String roomId, String cursor, String after, String lastReadTimeStr, int limit, Long unreadTotal) {
 
         LocalDateTime lastReadTime = toLocalDateTime(lastReadTimeStr);
-        LocalDateTime cursorTime = toLocalDateTime(cursor);
+        ChatCursorUtil.Cursor pageCursor = ChatCursorUtil.decode(cursor);
+        ChatCursorUtil.Cursor afterCursor = ChatCursorUtil.decode(after);
+
+        // 3. 하단 방향 추가 로딩 (after 커서 이후의 최신 메시지)
+        if (afterCursor != null) {
+            List<ChatMessageEntity> newerMessages = findPageAfter(roomId, afterCursor.getCreatedAt(), afterCursor.getMessageId(), limit);
+            boolean hasMoreAfter = newerMessages.size() > limit;
+            if (hasMoreAfter) {
+                newerMessages = newerMessages.subList(0, limit);
+            }
+            return ChatHistoryResponse.builder()
+                    .messages(newerMessages.stream().map(this::toDto).collect(Collectors.toList()))
+                    .afterCursor(newerMessages.isEmpty() ? after : toCursor(newerMessages.get(newerMessages.size() - 1)))
+                    .hasMoreAfter(hasMoreAfter)
+                    .build();
+        }
 
         List<ChatMessageEntity> resultEntities;
         boolean hasMore;
+        boolean hasMoreAfter = false;
+        long unreadCount = 0;
+        Long firstUnreadMessageId = null;
 
         // 1. 초기 로딩 (cursor가 null)
-        if (cursorTime == null) {
+        if (pageCursor == null) {
             if (lastReadTime == null) {
                 lastReadTime = LocalDateTime.now();
             }
 
-            // 안 읽은 메시지 (오름차순)
-            List<ChatMessageEntity> unreadMessages = chatMessageRepository.findByRoomIdAndCreatedAtAfterOrderByCreatedAtAsc(roomId, lastReadTime);
+            // 최근 메시지 버퍼가 요청 범위를 모두 담고 있으면 DB 조회 없이 응답
+            ChatHistoryResponse cached = loadInitialFromCache(roomId, lastReadTime);
+            if (cached != null) {
+                return cached;
+            }
+
+            // 안 읽은 메시지 윈도우 (오름차순, 최대 unreadWindow 건)
+            List<ChatMessageEntity> unreadMessages = findPageAfter(roomId, lastReadTime, Long.MAX_VALUE, unreadWindow);
+            hasMoreAfter = unreadMessages.size() > unreadWindow;
+            if (hasMoreAfter) {
+                unreadMessages = unreadMessages.subList(0, unreadWindow);
+                // 윈도우를 넘는 경우 정확한 순번 차이가 있으면 사용하고, 없을 때만 COUNT (인덱스 범위 스캔)
+                unreadCount = unreadTotal != null
+                        ? unreadTotal
+                        : chatMessageRepository.countByRoomIdAndCreatedAtAfter(roomId, lastReadTime);
+            } else {
+                unreadCount = unreadMessages.size();
+            }
+            if (!unreadMessages.isEmpty()) {
+                firstUnreadMessageId = unreadMessages.get(0).getMessageId();
+            }
 
             // 과거 메시지 (내림차순 조회 후 뒤집기)
-            int pastLimit = 20;
-            Pageable pastPageable = PageRequest.of(0, pastLimit);
-            List<ChatMessageEntity> pastMessagesDesc = new ArrayList<>(
-                    chatMessageRepository.findByRoomIdAndCreatedAtBeforeOrderByCreatedAtDesc(roomId, lastReadTime, pastPageable).getContent()
-            );
+            int pastLimit = INITIAL_PAST_LIMIT;
+            List<ChatMessageEntity> pastMessagesDesc = findPageBefore(roomId, lastReadTime, Long.MAX_VALUE, pastLimit);
+            hasMore = pastMessagesDesc.size() > pastLimit;
+            if (hasMore) {
+                pastMessagesDesc = pastMessagesDesc.subList(0, pastLimit);
+            }
             Collections.reverse(pastMessagesDesc);
 
             resultEntities = Stream.concat(pastMessagesDesc.stream(), unreadMessages.stream())
                     .collect(Collectors.toList());
 
-            if (pastMessagesDesc.isEmpty()) {
-                hasMore = false;
-            } else {
-                LocalDateTime oldestTime = pastMessagesDesc.get(0).getCreatedAt();
-                if (oldestTime == null) {
-                    hasMore = false;
-                } else {
-                    hasMore = chatMessageRepository.existsByRoomIdAndCreatedAtBefore(roomId, oldestTime);
-                }
-            }
-
         } else {
             // 2. 상단 스크롤 추가 로딩
-            Pageable pastPageable = PageRequest.of(0, limit);
-            Page<ChatMessageEntity> pastPage = chatMessageRepository.findByRoomIdAndCreatedAtBeforeOrderByCreatedAtDesc(roomId, cursorTime, pastPageable);
-
-            List<ChatMessageEntity> pastMessagesDesc = new ArrayList<>(pastPage.getContent());
-            hasMore = pastPage.hasContent() && pastPage.getTotalElements() > limit;
+            List<ChatMessageEntity> pastMessagesDesc = findPageBefore(roomId, pageCursor.getCreatedAt(), pageCursor.getMessageId(), limit);
+            hasMore = pastMessagesDesc.size() > limit;
+            if (hasMore) {
+                pastMessagesDesc = pastMessagesDesc.subList(0, limit);
+            }
             Collections.reverse(pastMessagesDesc);
 
             resultEntities = pastMessagesDesc;
@@ -192,15 +349,99 @@ public class ChatMessageService {
                 .map(this::toDto)
                 .collect(Collectors.toList());
 
-        String nextCursor = messagesDto.isEmpty() ? null : messagesDto.get(0).getIsoTime();
+        String nextCursor = resultEntities.isEmpty() ? null : toCursor(resultEntities.get(0));
+        String newestCursor = resultEntities.isEmpty() ? null : toCursor(resultEntities.get(resultEntities.size() - 1));
+
+        // 초기 로딩 결과가 방의 최신 메시지까지 이어진다면 버퍼를 채워 다음 입장부터 메모리에서 응답
+        if (pageCursor == null && !hasMoreAfter) {
+            recentMessageCache.seed(roomId, messagesDto, !hasMore);
+        }
 
         return ChatHistoryResponse.builder()
                 .messages(messagesDto)
                 .nextCursor(nextCursor)
                 .hasMore(hasMore)
+                .afterCursor(newestCursor)
+                .hasMoreAfter(hasMoreAfter)
+                .unreadCount(unreadCount)
+                .firstUnreadMessageId(firstUnreadMessageId)
                 .build();
     }
 
+    /**
+     * 최근 메시지 버퍼로 초기 로딩 응답을 구성합니다. 버퍼가 요청 범위를 모두 담지 못하면 null
+     * - 안 읽은 메시지가 unreadWindow 를 넘으면 정확한 개수를 알 수 없으므로 DB로 넘김
+     * - 과거 메시지가 INITIAL_PAST_LIMIT 를 넘게 있거나, 버퍼가 방 전체 이력(complete)이어야 hasMore 를 확정할 수 있음
+     */
+    private ChatHistoryResponse loadInitialFromCache(String roomId, LocalDateTime lastReadTime) {
+        RecentMessageCache.Snapshot snapshot = recentMessageCache.snapshot(roomId);
+        if (snapshot == null) {
+            return null;
+        }
+
+        List<ChatMessageDto> past = new ArrayList<>();
+        List<ChatMessageDto> unread = new ArrayList<>();
+        for (ChatMessageDto message : snapshot.getMessages()) {
+            // DB 조회와 동일하게 lastReadTime 과 같은 시각은 읽은 메시지로 취급
+            if (message.getCreatedAt().isAfter(lastReadTime)) {
+                unread.add(message);
+            } else {
+                past.add(message);
+            }
+        }
+        if (unread.size() > unreadWindow) {
+            return null;
+        }
+
+        boolean hasMore;
+        if (past.size() > INITIAL_PAST_LIMIT) {
+            hasMore = true;
+            past = past.subList(past.size() - INITIAL_PAST_LIMIT, past.size());
+        } else if (snapshot.isComplete()) {
+            hasMore = false;
+        } else {
+            return null;
+        }
+
+        List<ChatMessageDto> messages = new ArrayList<>(past);
+        messages.addAll(unread);
+
+        ChatMessageDto oldest = messages.isEmpty() ? null : messages.get(0);
+        ChatMessageDto newest = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+
+        return ChatHistoryResponse.builder()
+                .messages(messages)
+                .nextCursor(oldest == null ? null : ChatCursorUtil.encode(oldest.getCreatedAt(), oldest.getMessageId()))
+                .hasMore(hasMore)
+                .afterCursor(newest == null ? null : ChatCursorUtil.encode(newest.getCreatedAt(), newest.getMessageId()))
+                .hasMoreAfter(false)
+                .unreadCount(unread.size())
+                .firstUnreadMessageId(unread.isEmpty() ? null : unread.get(0).getMessageId())
+                .build();
+    }
+
+    private String toCursor(ChatMessageEntity entity) {
+        return ChatCursorUtil.encode(entity.getCreatedAt(), entity.getMessageId());
+    }
+
+    // (createdAt, messageId) 이후 메시지를 limit + 1 건까지 오래된 순으로 조회 (수정 가능한 리스트 반환)
+    private List<ChatMessageEntity> findPageAfter(String roomId, LocalDateTime createdAt, long messageId, int limit) {
+        return new ArrayList<>(chatMessageRepository.findPageAfter(roomId, createdAt, messageId, PageRequest.of(0, limit + 1)));
+    }
+
+    // (createdAt, messageId) 이전 메시지를 limit + 1 건까지 최신 순으로 조회 (수정 가능한 리스트 반환)
+    private List<ChatMessageEntity> findPageBefore(String roomId, LocalDateTime createdAt, long messageId, int limit) {
+        return new ArrayList<>(chatMessageRepository.findPageBefore(roomId, createdAt, messageId, PageRequest.of(0, limit + 1)));
+    }
+
+    // 방 목록 미리보기용으로 메시지를 자름 (VARCHAR(255) 컬럼)
+    private String toPreview(String message) {
+        if (message == null || message.length() <= PREVIEW_MAX_LENGTH) {
+            return message;
+        }
+        return message.substring(0, PREVIEW_MAX_LENGTH);
+    }
+
     private LocalDateTime toLocalDateTime(String isoString) {
         if (isoString == null || isoString.isEmpty()) {
             return null;
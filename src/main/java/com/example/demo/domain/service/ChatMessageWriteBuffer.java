@@ -0,0 +1,247 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.dto.ChatMessageDto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅 메시지 Write-Behind 버퍼
+ * - 방 실행기 스트라이프에서 큐에 넣고 임시 ID(tempId)를 붙여 바로 브로드캐스트하며, 별도 드레이너 스레드가 배치 INSERT로 저장합니다.
+ * - messageId/seq 는 DB 에서 정해지므로(seq 는 방 행 UPDATE 로 노드 간 할당) 저장 후 방별로 모아
+ *   /sub/chat/room/{roomId}/saved 로 tempId -> messageId/seq 확정 목록을 보냅니다. 저장에 끝내 실패한 메시지는 failed 로 알립니다.
+ * - 큐가 가득 차면 자리가 날 때까지 스트라이프 안에서 대기합니다. (동기 저장으로 큐에 있는 같은 방 메시지를 앞지르지 않도록)
+ *   그동안 같은 방의 다음 메시지는 스트라이프 큐에 쌓이고, 스트라이프까지 가득 차면 RoomOrderedExecutor 가 보낸 사람에게 거부를 알립니다.
+ * - 종료 시(@PreDestroy) 드레이너를 멈추고 큐에 남은 메시지를 모두 저장합니다. 그 이후에 들어온 메시지는 호출자가 동기 저장합니다.
+ * - chat.write-behind.enabled=true 로 활성화합니다. (기본값: 동기 저장)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChatMessageWriteBuffer {
+
+    private final ChatMessageService chatMessageService;
+    private final ChatFanoutRelay chatFanoutRelay;
+
+    // 저장 확정 알림 토픽 (/sub/chat/room/{roomId}/saved)
+    private static final String SAVED_TOPIC = "saved";
+
+    @Value("${chat.write-behind.enabled:false}")
+    private boolean enabled;
+
+    // 큐 최대 크기 (메모리 상한)
+    @Value("${chat.write-behind.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // 한 번에 INSERT할 최대 메시지 수
+    @Value("${chat.write-behind.flush-size:200}")
+    private int flushSize;
+
+    // 배치를 모으는 최대 대기 시간
+    @Value("${chat.write-behind.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    // 큐가 가득 찼을 때 자리를 기다리며 종료 여부를 다시 확인하는 간격
+    @Value("${chat.write-behind.offer-timeout-ms:100}")
+    private long offerTimeoutMs;
+
+    private BlockingQueue<ChatMessageDto> queue;
+    private Thread drainer;
+    private volatile boolean running;
+    // stop() 이 남은 메시지를 비우기 시작한 뒤 true (이후 큐에 들어간 메시지는 저장되지 않으므로 호출자가 동기 저장)
+    private volatile boolean stopped;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("CHAT WRITE-BEHIND: disabled. Messages are saved synchronously.");
+            return;
+        }
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.running = true;
+        this.drainer = new Thread(this::drainLoop, "chat-write-behind");
+        this.drainer.start();
+        log.info("CHAT WRITE-BEHIND: enabled (capacity={}, flushSize={}, flushIntervalMs={})",
+                queueCapacity, flushSize, flushIntervalMs);
+    }
+
+    /**
+     * 메시지를 저장 큐에 넣고 임시 ID 로 바로 브로드캐스트합니다. (방 실행기 스트라이프에서 호출)
+     * - 큐가 가득 차면 자리가 날 때까지 대기합니다.
+     * @return 버퍼가 맡았으면 true, 비활성화/종료 후면 false (호출자가 동기 저장 후 브로드캐스트해야 함)
+     */
+    public boolean enqueue(ChatMessageDto message) {
+        if (!enabled || stopped) {
+            return false;
+        }
+        message.setTempId(UUID.randomUUID().toString());
+        // 드레이너가 채우는 messageId/seq 와 섞이지 않도록 큐에 넣기 전 상태를 전송
+        ChatMessageDto snapshot = message.toBuilder().build();
+        try {
+            boolean warned = false;
+            while (!queue.offer(message, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                if (stopped) {
+                    message.setTempId(null);
+                    return false;
+                }
+                if (!warned) {
+                    log.warn("[WRITE-BEHIND] 큐 포화 ({}건). 자리가 날 때까지 대기합니다. roomId={}", queue.size(), message.getRoomId());
+                    warned = true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            message.setTempId(null);
+            return false;
+        }
+        // 종료 중 남은 메시지를 비운 뒤에 들어갔으면 되돌려 호출자가 저장 (이미 비워졌다면 저장된 것)
+        if (stopped && queue.remove(message)) {
+            message.setTempId(null);
+            return false;
+        }
+        broadcast(snapshot);
+        return true;
+    }
+
+    // 현재 저장 대기 중인 메시지 수
+    public int getPendingCount() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void drainLoop() {
+        List<ChatMessageDto> batch = new ArrayList<>(flushSize);
+        long flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        try {
+            while (running) {
+                ChatMessageDto first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // flushSize에 도달하거나 flushInterval이 지날 때까지 모음
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    ChatMessageDto next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // 중단 시점에 모으던 배치도 버리지 않음
+            flush(batch);
+        }
+    }
+
+    private void flush(List<ChatMessageDto> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            chatMessageService.saveMessages(batch);
+            // 커밋되어 messageId/seq 가 정해진 뒤 방별로 확정 목록 전송
+            publishSaved(batch);
+        } catch (Exception e) {
+            // 배치 실패 시 건별 저장으로 문제 메시지만 격리
+            log.error("[WRITE-BEHIND] 배치 저장 실패 ({}건). 건별 저장을 시도합니다: {}", batch.size(), e.getMessage());
+            for (ChatMessageDto message : batch) {
+                try {
+                    // 롤백된 배치에서 채워진 값은 버리고 다시 할당
+                    message.setMessageId(null);
+                    message.setSeq(null);
+                    chatMessageService.saveMessage(message);
+                } catch (Exception ex) {
+                    log.error("[WRITE-BEHIND] 메시지 저장 최종 실패: roomId={}, sender={}", message.getRoomId(), message.getSender(), ex);
+                }
+            }
+            // messageId 가 없는 메시지는 failed 로 전송되어 클라이언트가 표시를 거둠
+            publishSaved(batch);
+        } finally {
+            batch.clear();
+        }
+    }
+
+    private void broadcast(ChatMessageDto message) {
+        try {
+            chatFanoutRelay.sendToRoom(message.getRoomId(), message);
+        } catch (Exception e) {
+            log.warn("[WRITE-BEHIND] 브로드캐스트 실패: roomId={}, tempId={}: {}", message.getRoomId(), message.getTempId(), e.getMessage());
+        }
+    }
+
+    // 방별로 tempId -> messageId/seq 확정 목록 전송 (큐에 들어온 순서 유지)
+    private void publishSaved(List<ChatMessageDto> batch) {
+        Map<String, List<SavedMessage>> byRoom = new LinkedHashMap<>();
+        for (ChatMessageDto message : batch) {
+            byRoom.computeIfAbsent(message.getRoomId(), id -> new ArrayList<>())
+                    .add(new SavedMessage(message.getTempId(), message.getMessageId(), message.getSeq(), message.getMessageId() == null));
+        }
+        byRoom.forEach((roomId, saved) -> {
+            try {
+                chatFanoutRelay.sendToRoomTopic(roomId, SAVED_TOPIC, saved);
+            } catch (Exception e) {
+                log.warn("[WRITE-BEHIND] 저장 확정 알림 실패: roomId={}: {}", roomId, e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * 저장 확정 알림 항목 (failed 이면 저장되지 않은 메시지)
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class SavedMessage {
+        private final String tempId;
+        private final Long messageId;
+        private final Long seq;
+        private final boolean failed;
+    }
+
+    /**
+     * 종료 시 드레이너를 멈추고 남은 메시지를 모두 저장합니다.
+     */
+    @PreDestroy
+    public void stop() {
+        if (!enabled || !running) {
+            return;
+        }
+        // 인터럽트 대신 플래그로 종료 (JDBC 처리 중 인터럽트되면 커넥션 획득이 실패할 수 있음)
+        // 드레이너의 poll은 flushInterval 단위로 깨어나므로 곧 종료됨
+        running = false;
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        stopped = true;
+        List<ChatMessageDto> remaining = new ArrayList<>(flushSize);
+        while (queue.drainTo(remaining, flushSize) > 0) {
+            flush(remaining);
+        }
+        log.info("CHAT WRITE-BEHIND: drained and stopped.");
+    }
+}
@@ -1,7 +1,6 @@
 package com.example.demo.domain.service;
 
 import com.example.demo.domain.dto.*;
-import com.example.demo.domain.entity.ChatMessageEntity;
 import com.example.demo.domain.entity.ChatRoomEntity;
 import com.example.demo.domain.entity.RoomMemberEntity;
 import com.example.demo.domain.entity.user.User;
@@ -13,7 +12,6 @@ import com.example.demo.domain.repository.UserRepository;
 import com.example.demo.util.KoreanNameUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 // 🔑 추가: 권한 관련 예외 처리를 위한 import
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -36,41 +34,41 @@ public class ChatRoomService {
     private final ChatMessageService chatMessageService;
     private final UserRepository userRepository;
     private final RoomMemberRepository roomMemberRepository;
-    private final SimpMessageSendingOperations messagingTemplate;
+    private final ChatFanoutRelay chatFanoutRelay;
     private final ChatMessageRepository chatMessageRepository;
+    private final RecentMessageCache recentMessageCache;
+    private final RoomMembershipIndex roomMembershipIndex;
+
+    // 참여 인원수: 요약 컬럼(memberCount) 우선, 백필 전의 기존 방만 컬렉션 로딩
+    private int memberCountOf(ChatRoomEntity entity) {
+        return entity.getMemberCount() != null ? entity.getMemberCount() : entity.getUserCount();
+    }
 
     // ChatRoomEntity -> ChatRoomDto DTO 변환 메서드 (기본 정보)
     private ChatRoomDto toDto(ChatRoomEntity entity) {
-        // [원래 코드 유지] entity.getUserCount()가 0일 경우 0으로 처리
-        Integer userCount = entity.getUserCount() != 0 ? entity.getUserCount() : 0;
         return ChatRoomDto.builder()
                 .roomId(entity.getRoomId())
                 .roomName(entity.getRoomName())
                 .type(entity.getType().name())
-                .memberCount(userCount)
+                .memberCount(memberCountOf(entity))
                 .build();
     }
 
     // 유저가 방을 목격한 마지막시간 포함한 Dto (안 읽은 카운트 및 메시지 정보 포함)
+    // 마지막 메시지/인원수는 방 요약 컬럼에서 읽으므로 추가 쿼리가 없습니다.
     private ChatRoomDto toDtoWithUnreadCount(RoomMemberEntity roomMember, long unreadCount) {
         ChatRoomEntity entity = roomMember.getRoom();
-        // [원래 코드 유지] entity.getUserCount()가 0일 경우 0으로 처리
-        Integer userCount = entity.getUserCount() != 0 ? entity.getUserCount() : 0;
-
-        // 1. 마지막 메시지 조회 (최적화 쿼리 사용)
-        Optional<ChatMessageEntity> lastMessageOpt = chatMessageRepository
-                .findTopByRoomIdOrderByCreatedAtDesc(entity.getRoomId());
 
-        String lastMessage = lastMessageOpt.map(ChatMessageEntity::getMessage).orElse("새로운 채팅방입니다.");
+        String lastMessage = entity.getLastMessageAt() != null ? entity.getLastMessage() : "새로운 채팅방입니다.";
 
-        // RoomMemberEntity(roomMember)에서 joinedAt을 가져옵니다.
-        LocalDateTime lastMessageTime = lastMessageOpt.map(ChatMessageEntity::getCreatedAt).orElse(roomMember.getJoinedAt());
+        // 메시지가 없으면 RoomMemberEntity(roomMember)의 joinedAt을 사용합니다.
+        LocalDateTime lastMessageTime = entity.getLastMessageAt() != null ? entity.getLastMessageAt() : roomMember.getJoinedAt();
 
         return ChatRoomDto.builder()
                 .roomId(entity.getRoomId())
                 .roomName(entity.getRoomName())
                 .type(entity.getType().name())
-                .memberCount(userCount)
+                .memberCount(memberCountOf(entity))
                 .unreadCount(unreadCount)
                 .lastMessage(lastMessage)
                 .lastMessageTime(lastMessageTime)
@@ -120,22 +118,27 @@ public class ChatRoomService {
         Set<String> uniqueMemberEmails = new HashSet<>(requestedMemberIds);
         uniqueMemberEmails.add(roomOwnerId);
 
-        // 3. ChatRoomEntity 생성 및 DB 저장
+        // 3. 추가할 멤버 조회 (방 요약의 memberCount 초기값으로 사용)
+        // Set을 List로 변환하여 Repository에 전달 (findByEmailIn이 List를 요구할 경우 대비)
+        List<String> memberEmailList = new ArrayList<>(uniqueMemberEmails);
+
+        List<User> usersToAdd = userRepository.findByEmailIn(memberEmailList);
+
+        // 4. ChatRoomEntity 생성 및 DB 저장
         String uuid = UUID.randomUUID().toString();
         ChatRoomEntity entity = ChatRoomEntity.builder()
                 .roomId(uuid)
                 .roomName(name) // 보강된 name 사용
                 .roomOwner(roomOwnerId) // Owner ID (Email) 저장: 생성자가 누구인지 기록
                 .type(type)
+                .memberCount(usersToAdd.size())
                 .build();
 
         ChatRoomEntity savedEntity = chatRoomRepository.save(entity);
+        recentMessageCache.markEmpty(uuid); // 새 방: 메시지가 없는 완전한 버퍼로 시작
+        roomMembershipIndex.initRoom(uuid, usersToAdd.stream().map(User::getId).collect(Collectors.toList()));
 
-        // 4. RoomMemberEntity 생성 및 저장
-        // Set을 List로 변환하여 Repository에 전달 (findByEmailIn이 List를 요구할 경우 대비)
-        List<String> memberEmailList = new ArrayList<>(uniqueMemberEmails);
-
-        List<User> usersToAdd = userRepository.findByEmailIn(memberEmailList);
+        // 5. RoomMemberEntity 생성 및 저장
 
         // User 조회가 실패했는지 확인 (RoomMember 누락 방지)
         if (usersToAdd.isEmpty()) {
@@ -154,7 +157,7 @@ public class ChatRoomService {
         log.info("Saving {} RoomMember entities for room {}.", roomMembers.size(), uuid);
         roomMemberRepository.saveAll(roomMembers);
 
-        // 5. DTO로 변환하여 반환
+        // 6. DTO로 변환하여 반환
         return toDto(savedEntity);
     }
 
@@ -194,8 +197,10 @@ public class ChatRoomService {
             return;
         }
 
-        // 3. DB 저장 및 엔티티 업데이트
+        // 3. DB 저장 및 방 요약(memberCount) 갱신
         roomMemberRepository.saveAll(newRoomMembers);
+        chatRoomRepository.adjustMemberCount(roomUuid, newRoomMembers.size());
+        roomMembershipIndex.addMembers(roomUuid, newRoomMembers.stream().map(m -> m.getUser().getId()).collect(Collectors.toList()));
 
         // 4. 시스템 메시지 생성 및 전송 (WebSocket)
         String inviterName = inviter.getUserName();
@@ -222,8 +227,8 @@ public class ChatRoomService {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        // WebSocket으로 브로드캐스팅: /sub/chat/room/{roomId}
-        messagingTemplate.convertAndSend("/sub/chat/room/" + roomUuid, systemMessage);
+        // WebSocket으로 브로드캐스팅: /sub/chat/room/{roomId} (redis 모드면 다른 노드에도 중계)
+        chatFanoutRelay.sendToRoom(roomUuid, systemMessage);
 
         log.info("[ChatRoomService] 채팅방 {}에 {}명의 멤버 추가 완료. 시스템 메시지 전송됨.", roomUuid, newRoomMembers.size());
     }
@@ -263,9 +268,12 @@ public class ChatRoomService {
                 .roomName(roomName)
                 .roomOwner(myEmail) // 생성자는 요청자
                 .type(RoomType.PERSONAL)
+                .memberCount(2)
                 .build();
 
         ChatRoomEntity savedEntity = chatRoomRepository.save(entity);
+        recentMessageCache.markEmpty(uuid);
+        roomMembershipIndex.initRoom(uuid, List.of(userA.getId(), userB.getId()));
 
         // 4-2. RoomMemberEntity 생성 및 저장
         List<User> initialMembers = List.of(userA, userB);
@@ -379,6 +387,8 @@ public class ChatRoomService {
 
         room.addRoomMember(newMember); // ChatRoomEntity의 addRoomMember가 RoomMember 목록과 UserCount를 적절히 갱신하는지 확인 필요
         roomMemberRepository.save(newMember);
+        chatRoomRepository.adjustMemberCount(roomId, 1);
+        roomMembershipIndex.addMembers(roomId, List.of(userToAdd.getId()));
 
         // [원래 코드 유지] entity.getUserCount()가 0일 경우 1로 처리
         return userToAdd.getEmail() + "님이 채팅방에 추가되었습니다. (현재 인원: " + (room.getUserCount() != 0 ? room.getUserCount() : 1) + ")";
@@ -400,6 +410,8 @@ public class ChatRoomService {
 
         // 3. ChatRoomEntity 삭제
         chatRoomRepository.delete(room);
+        recentMessageCache.invalidate(roomUuid);
+        roomMembershipIndex.removeRoom(roomUuid);
     }
 
     @Transactional(readOnly = true)
@@ -417,15 +429,8 @@ public class ChatRoomService {
             return List.of();
         }
 
-        User user = userRepository.findById(userId).orElse(null);
-
-        if (user == null) {
-            log.warn("[WARN] User not found for Long ID: {}", userId);
-            return List.of();
-        }
-
-        //  1차 체크: RoomMember 엔티티 조회
-        List<RoomMemberEntity> memberEntries = roomMemberRepository.findByUser(user);
+        //  1차 체크: RoomMember + 방 요약 정보를 한 번의 조인으로 조회 (존재하지 않는 유저면 빈 목록)
+        List<RoomMemberEntity> memberEntries = roomMemberRepository.findWithRoomByUserId(userId);
         log.info("[DEBUG] Found {} RoomMember entries for user {}", memberEntries.size(), userId);
 
         if (memberEntries.isEmpty()) {
@@ -442,15 +447,21 @@ public class ChatRoomService {
                         lastReadTime = memberEntry.getJoinedAt();
                     }
 
-                    // 2. 안 읽은 메시지 개수 조회 (DB 쿼리)
-                    String roomId = memberEntry.getRoom().getRoomId();
-
-                    // 버그 수정 적용: countByRoomIdAndCreatedAtGreaterThanEqual 사용
-                    long unreadCount = chatMessageRepository
-                            .countByRoomIdAndCreatedAtGreaterThanEqual(
-                                    roomId,
-                                    lastReadTime
-                            );
+                    // 2. 안 읽은 메시지 개수 계산
+                    long unreadCount;
+                    if (memberEntry.getLastReadSeq() != null
+                            && memberEntry.getRoom().getLastDeletedSeq() <= memberEntry.getLastReadSeq()) {
+                        // 순번 차이로 계산 (스캔 없음, 읽은 이후 삭제된 메시지가 없을 때만 정확)
+                        unreadCount = Math.max(0L, memberEntry.getRoom().getLastSeq() - memberEntry.getLastReadSeq());
+                    } else {
+                        // lastReadSeq 가 없는 기존 멤버 또는 읽은 이후 삭제된 메시지가 있음: 시간 기준 COUNT 쿼리
+                        String roomId = memberEntry.getRoom().getRoomId();
+                        unreadCount = chatMessageRepository
+                                .countByRoomIdAndCreatedAtGreaterThanEqual(
+                                        roomId,
+                                        lastReadTime
+                                );
+                    }
 
                     // 3. DTO로 변환
                     return toDtoWithUnreadCount(memberEntry, unreadCount);
@@ -475,8 +486,9 @@ public class ChatRoomService {
                 .findByRoomAndUser(room, user)
                 .orElseThrow(() -> new IllegalArgumentException("채팅방 멤버 정보를 찾을 수 없습니다. (Room: " + roomId + ", User: " + userEmail + ")"));
 
-        // 4. LastReadTime 갱신
+        // 4. LastReadTime / LastReadSeq 갱신
         roomMember.setLastReadTime(LocalDateTime.now());
+        roomMember.setLastReadSeq(room.getLastSeq());
         // 🔑 [복구] 명시적 저장 호출 (더 안전하게)
         roomMemberRepository.save(roomMember);
     }
@@ -566,15 +578,22 @@ public class ChatRoomService {
                 .orElseThrow(() -> new IllegalArgumentException("해당 멤버가 방에 존재하지 않습니다."));
 
         roomMemberRepository.delete(member);
+        chatRoomRepository.adjustMemberCount(roomId, -1);
+        roomMembershipIndex.removeMember(roomId, targetUser.getId()); // 커밋 후 인덱스 갱신 + 구독 즉시 해제
         log.info("[Kick Member] 방장 {}가 채팅방 {}에서 멤버 {}를 강퇴했습니다.", kickerEmail, roomId, targetUser.getEmail());
     }
 
     /**
      * 이 로직은 ChatMessageService로 위임됩니다.
+     * - 초기 로딩이면 안 읽은 메시지 수를 순번 차이(room.lastSeq - lastReadSeq)로 함께 넘깁니다. (정확할 때만, 아니면 null)
      */
     @Transactional(readOnly = true)
-    public ChatHistoryResponse loadChatHistory(String roomId, String cursor, String lastReadTimeStr, int limit) {
-        return chatMessageService.loadChatHistory(roomId, cursor, lastReadTimeStr, limit);
+    public ChatHistoryResponse loadChatHistory(String roomId, String cursor, String after, String lastReadTimeStr, int limit, String userEmail) {
+        Long unreadTotal = null;
+        if (cursor == null && after == null) {
+            unreadTotal = roomMemberRepository.findUnreadSeqGap(roomId, userEmail).orElse(null);
+        }
+        return chatMessageService.loadChatHistory(roomId, cursor, after, lastReadTimeStr, limit, unreadTotal);
     }
 
 }
\ No newline at end of file
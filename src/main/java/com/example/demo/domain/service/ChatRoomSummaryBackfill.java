@@ -0,0 +1,74 @@
+package com.example.demo.domain.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 방 요약 컬럼(memberCount, lastMessage, lastMessageAt) 백필
+ * - 요약 컬럼 추가 이전에 생성된 방은 값이 비어 있으므로, 애플리케이션 기동 후 채웁니다.
+ * - 대상 방 id 를 잠금 없이 먼저 고른 뒤 PK 단위로 갱신하므로, 실행 중에도 다른 방의 메시지 저장을 막지 않습니다.
+ * - 메시지가 없는 방은 lastMessageAt 이 계속 null 이므로 대상에서 제외합니다. (한 번 채운 방은 다시 대상이 되지 않아 재기동 시 사실상 작업 없음)
+ * - 이후에는 ChatMessageService / ChatRoomService 가 증분 갱신합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ChatRoomSummaryBackfill {
+
+    private static final String FIND_MEMBER_COUNT_TARGETS_SQL =
+            "SELECT r.id FROM room r WHERE r.memberCount IS NULL";
+
+    private static final String BACKFILL_MEMBER_COUNT_SQL =
+            "UPDATE room r SET r.memberCount = " +
+            "(SELECT COUNT(*) FROM room_member rm WHERE rm.room_id = r.id) " +
+            "WHERE r.id = ? AND r.memberCount IS NULL";
+
+    private static final String FIND_LAST_MESSAGE_TARGETS_SQL =
+            "SELECT r.id FROM room r WHERE r.lastMessageAt IS NULL " +
+            "AND EXISTS (SELECT 1 FROM message m WHERE m.roomId = r.roomId)";
+
+    private static final String BACKFILL_LAST_MESSAGE_SQL =
+            "UPDATE room r JOIN message m ON m.messageId = " +
+            "(SELECT MAX(m2.messageId) FROM message m2 WHERE m2.roomId = r.roomId) " +
+            "SET r.lastMessage = LEFT(m.message, 100), r.lastMessageAt = m.createdAt " +
+            "WHERE r.id = ? AND r.lastMessageAt IS NULL";
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            int memberRows = backfillByIds(FIND_MEMBER_COUNT_TARGETS_SQL, BACKFILL_MEMBER_COUNT_SQL);
+            int messageRows = backfillByIds(FIND_LAST_MESSAGE_TARGETS_SQL, BACKFILL_LAST_MESSAGE_SQL);
+            if (memberRows > 0 || messageRows > 0) {
+                log.info("ROOM SUMMARY BACKFILL: memberCount={} rooms, lastMessage={} rooms", memberRows, messageRows);
+            }
+        } catch (Exception e) {
+            // 백필 실패 시에도 서비스는 동작 (memberCount null 이면 컬렉션 크기로 대체)
+            log.error("ROOM SUMMARY BACKFILL 실패: {}", e.getMessage());
+        }
+    }
+
+    private int backfillByIds(String findSql, String updateSql) {
+        List<Long> ids = jdbcTemplate.queryForList(findSql, Long.class);
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + BATCH_SIZE, ids.size()));
+            int[][] counts = jdbcTemplate.batchUpdate(updateSql, batch, batch.size(), (ps, id) -> ps.setLong(1, id));
+            for (int[] chunk : counts) {
+                for (int count : chunk) {
+                    updated += Math.max(count, 0);
+                }
+            }
+        }
+        return updated;
+    }
+}
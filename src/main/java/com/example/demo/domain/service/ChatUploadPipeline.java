@@ -0,0 +1,430 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.dto.FileUrlResponse;
+import com.example.demo.domain.storage.LocalStorageBackend;
+import com.example.demo.domain.storage.StorageBackend;
+import com.example.demo.domain.storage.StoredObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * 채팅 첨부파일 비동기 업로드 (로컬 스풀 → 원격 저장소)
+ * - 업로드를 로컬 스풀 디스크에 받으면서 SHA-256/MD5 를 계산하고, 저장 키와 PENDING 상태를 바로 응답합니다.
+ * - 전송 전용 풀(workers, queue-capacity)이 원격 저장소로 옮기고, 크기/체크섬을 확인합니다.
+ *   큐가 가득 차면 요청/스케줄러 스레드에서 전송하지 않고 PENDING 으로 스풀에 남겨 두었다가 rejected-retry-seconds 마다 다시 예약합니다.
+ * - 실패하면 지수 백오프로 max-retries 까지 재시도하고, 그래도 실패하면 FAILED 로 두고 failed-retry-minutes 마다 다시 시도합니다.
+ * - 완료/실패는 /sub/chat/room/{roomId}/upload 로 알립니다.
+ * - 원격 저장이 확인되기 전까지 다운로드는 스풀 파일로 응답합니다. (스풀은 노드 로컬이므로 다른 노드에서는 완료 후 조회 가능)
+ * - 재시작 시 스풀에 남은 파일은 다시 전송합니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ChatUploadPipeline {
+
+    public static final String STATUS_PENDING = "PENDING";
+    public static final String STATUS_STORED = "STORED";
+    public static final String STATUS_FAILED = "FAILED";
+
+    private static final String UPLOAD_TOPIC = "upload";
+
+    private final StorageBackend storageBackend;
+    private final ContentAddressedStore contentAddressedStore;
+    private final ImageVariantService imageVariantService;
+    private final ChatFanoutRelay chatFanoutRelay;
+
+    // false 면 기존처럼 요청 스레드에서 원격 저장소까지 업로드
+    @Value("${chat.upload.async.enabled:true}")
+    private boolean enabled;
+
+    // 비우면 java.io.tmpdir/chat-upload-pending
+    @Value("${chat.upload.async.spool-dir:}")
+    private String spoolDir;
+
+    @Value("${chat.upload.async.workers:4}")
+    private int workers;
+
+    @Value("${chat.upload.async.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${chat.upload.async.max-retries:5}")
+    private int maxRetries;
+
+    // 첫 재시도 대기 (이후 2배씩 증가)
+    @Value("${chat.upload.async.retry-backoff-ms:1000}")
+    private long retryBackoffMs;
+
+    // FAILED 업로드를 다시 시도하는 주기
+    @Value("${chat.upload.async.failed-retry-minutes:10}")
+    private long failedRetryMinutes;
+
+    // 큐가 가득 차 예약하지 못한 업로드를 다시 예약하는 주기
+    @Value("${chat.upload.async.rejected-retry-seconds:5}")
+    private long rejectedRetrySeconds;
+
+    // 전송 완료 후 스풀 파일을 지우기 전 대기 (진행 중인 다운로드 보호)
+    @Value("${chat.upload.async.spool-retention-ms:60000}")
+    private long spoolRetentionMs;
+
+    private LocalStorageBackend spool;
+    private ThreadPoolExecutor transferExecutor;
+    private ScheduledExecutorService scheduler;
+
+    // 저장 키 → 원격 저장 전 업로드
+    private final Map<String, PendingUpload> pending = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path spoolPath = (spoolDir == null || spoolDir.isBlank())
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "chat-upload-pending")
+                : Paths.get(spoolDir);
+        this.spool = new LocalStorageBackend(spoolPath);
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.transferExecutor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "chat-upload-transfer-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // 큐가 가득 차면 거부 → submit 에서 스풀에 남겨 두고 나중에 다시 예약
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "chat-upload-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.execute(this::recoverSpool);
+        scheduler.scheduleWithFixedDelay(this::retryFailed, failedRetryMinutes, failedRetryMinutes, TimeUnit.MINUTES);
+        scheduler.scheduleWithFixedDelay(this::retryRejected, rejectedRetrySeconds, rejectedRetrySeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        if (transferExecutor != null) {
+            // 남은 전송은 다음 기동 시 스풀에서 다시 시도
+            transferExecutor.shutdownNow();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 업로드를 스풀에 저장하고 원격 전송을 예약합니다.
+     * @return status=PENDING 응답
+     */
+    public FileUrlResponse accept(MultipartFile file, String storageKey, String roomId) throws IOException {
+        MessageDigest sha256 = newDigest("SHA-256");
+        MessageDigest md5 = newDigest("MD5");
+        try (InputStream inputStream = new DigestInputStream(new DigestInputStream(file.getInputStream(), sha256), md5)) {
+            spool.put(storageKey, inputStream, file.getSize(), file.getContentType());
+        }
+        StoredObject spooled = spool.stat(storageKey);
+        if (spooled == null) {
+            throw new IOException("스풀 저장 실패: " + storageKey);
+        }
+
+        PendingUpload upload = new PendingUpload(storageKey, roomId, file.getOriginalFilename(), file.getContentType(),
+                spooled.getSize(), HexFormat.of().formatHex(sha256.digest()), HexFormat.of().formatHex(md5.digest()));
+        pending.put(storageKey, upload);
+        log.info("[UPLOAD] 스풀 저장 완료, 전송 예약: key={}, size={}", storageKey, upload.size);
+        submit(upload);
+
+        return toResponse(upload);
+    }
+
+    /**
+     * 원격 저장 전(스풀에서 응답해야 하는) 키인지 확인합니다.
+     */
+    public boolean isPending(String storageKey) {
+        return enabled && pending.containsKey(storageKey);
+    }
+
+    /**
+     * 업로드 상태를 반환합니다. (이 노드에서 진행 중이 아니면 STORED 로 간주)
+     */
+    public String getStatus(String storageKey) {
+        PendingUpload upload = pending.get(storageKey);
+        return upload == null ? STATUS_STORED : upload.status;
+    }
+
+    // 원격 저장 전 파일을 읽을 스풀 저장소
+    public StorageBackend getSpool() {
+        return spool;
+    }
+
+    // -------------------------------------------------------------------------
+    // 전송
+    // -------------------------------------------------------------------------
+
+    // 예약했으면 true. 큐가 가득 차 거부되면 PENDING 으로 스풀에 남겨 두고 retryRejected 가 다시 예약
+    private boolean submit(PendingUpload upload) {
+        try {
+            transferExecutor.execute(() -> transfer(upload));
+            return true;
+        } catch (RejectedExecutionException e) {
+            if (transferExecutor.isShutdown()) {
+                log.warn("[UPLOAD] 종료 중 전송 예약 실패 (스풀 유지): key={}", upload.storageKey);
+                return false;
+            }
+            upload.rejected.set(true);
+            log.warn("[UPLOAD] 전송 큐 가득 참, {}초 후 다시 예약 (스풀 유지): key={}", rejectedRetrySeconds, upload.storageKey);
+            return false;
+        } catch (Exception e) {
+            // 종료 중: 스풀에 남겨 두고 다음 기동 시 재전송
+            log.warn("[UPLOAD] 전송 예약 실패 (스풀 유지): key={} ({})", upload.storageKey, e.getMessage());
+            return false;
+        }
+    }
+
+    private void transfer(PendingUpload upload) {
+        if (!pending.containsKey(upload.storageKey)) {
+            return;
+        }
+        try {
+            Path spooled = spool.localPath(upload.storageKey);
+            if (spooled == null) {
+                throw new IOException("스풀 파일이 없습니다: " + upload.storageKey);
+            }
+            if (contentAddressedStore.isEnabled()) {
+                transferDeduplicated(upload, spooled);
+            } else {
+                storageBackend.put(upload.storageKey, spooled, upload.contentType);
+                verify(storageBackend.stat(upload.storageKey), upload);
+            }
+        } catch (Exception e) {
+            onTransferFailure(upload, e);
+            return;
+        }
+
+        upload.status = STATUS_STORED;
+        pending.remove(upload.storageKey);
+        scheduler.schedule(() -> deleteSpool(upload.storageKey), spoolRetentionMs, TimeUnit.MILLISECONDS);
+        log.info("[UPLOAD] 원격 저장 완료: key={}, attempts={}", upload.storageKey, upload.attempts.get() + 1);
+
+        imageVariantService.scheduleVariants(upload.storageKey);
+        announce(upload);
+    }
+
+    private void transferDeduplicated(PendingUpload upload, Path spooled) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(spooled)) {
+            contentAddressedStore.store(inputStream, upload.contentType, upload.storageKey);
+        }
+        // 저장소가 계산한 digest(blob 위치)와 스풀 시 계산한 값이 같아야 함
+        String blobKey = ContentAddressedStore.blobKey(upload.sha256);
+        try {
+            if (!blobKey.equals(contentAddressedStore.resolve(upload.storageKey))) {
+                throw new IOException("체크섬 불일치 (스풀 파일 변경): " + upload.storageKey);
+            }
+            verify(storageBackend.stat(blobKey), upload);
+        } catch (IOException e) {
+            // 재시도 시 참조 수가 두 번 올라가지 않도록 매핑 해제
+            contentAddressedStore.release(upload.storageKey);
+            throw e;
+        }
+    }
+
+    private void verify(StoredObject stored, PendingUpload upload) throws IOException {
+        if (stored == null) {
+            throw new IOException("원격 저장소에서 파일을 찾을 수 없습니다: " + upload.storageKey);
+        }
+        if (stored.getSize() != upload.size) {
+            throw new IOException("크기 불일치: expected=" + upload.size + ", actual=" + stored.getSize());
+        }
+        // 단일 PUT 으로 올라간 S3 객체는 ETag 가 MD5 (멀티파트는 "-파트수" 가 붙으므로 크기만 확인)
+        String etag = stored.getEtag();
+        if (etag != null && etag.length() == 32 && etag.indexOf('-') < 0 && !etag.equalsIgnoreCase(upload.md5)) {
+            throw new IOException("체크섬 불일치: expected=" + upload.md5 + ", actual=" + etag);
+        }
+    }
+
+    private void onTransferFailure(PendingUpload upload, Exception e) {
+        int attempt = upload.attempts.incrementAndGet();
+        if (attempt <= maxRetries) {
+            long delayMs = retryBackoffMs * (1L << Math.min(attempt - 1, 10));
+            log.warn("[UPLOAD] 원격 전송 실패, {}ms 후 재시도 ({}/{}): key={} ({})",
+                    delayMs, attempt, maxRetries, upload.storageKey, e.getMessage());
+            scheduler.schedule(() -> submit(upload), delayMs, TimeUnit.MILLISECONDS);
+            return;
+        }
+        log.error("[UPLOAD] 원격 전송 최종 실패 (스풀 유지, {}분 후 재시도): key={}",
+                failedRetryMinutes, upload.storageKey, e);
+        if (!STATUS_FAILED.equals(upload.status)) {
+            upload.status = STATUS_FAILED;
+            announce(upload);
+        }
+    }
+
+    private void retryFailed() {
+        for (PendingUpload upload : pending.values()) {
+            if (STATUS_FAILED.equals(upload.status)) {
+                upload.attempts.set(0);
+                submit(upload);
+            }
+        }
+    }
+
+    // 큐가 가득 차 거부됐던 업로드 재예약 (다시 거부되면 남은 건 다음 주기로)
+    private void retryRejected() {
+        for (PendingUpload upload : pending.values()) {
+            if (upload.rejected.compareAndSet(true, false) && !submit(upload)) {
+                return;
+            }
+        }
+    }
+
+    // 재시작 전 전송하지 못한 스풀 파일을 다시 예약
+    private void recoverSpool() {
+        Path root = spool.getRoot();
+        List<Path> files;
+        try (Stream<Path> walk = Files.walk(root)) {
+            files = walk.filter(Files::isRegularFile)
+                    .filter(path -> !path.getFileName().toString().startsWith("."))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("[UPLOAD] 스풀 복구 실패: {}", e.getMessage());
+            return;
+        }
+
+        int recovered = 0;
+        for (Path file : files) {
+            String storageKey = root.relativize(file).toString().replace('\\', '/');
+            if (pending.containsKey(storageKey)) {
+                continue;
+            }
+            try {
+                PendingUpload upload = rebuild(storageKey, file);
+                if (isAlreadyStored(upload)) {
+                    deleteSpool(storageKey);
+                    continue;
+                }
+                pending.put(storageKey, upload);
+                submit(upload);
+                recovered++;
+            } catch (Exception e) {
+                log.warn("[UPLOAD] 스풀 파일 복구 실패: key={} ({})", storageKey, e.getMessage());
+            }
+        }
+        if (recovered > 0) {
+            log.info("[UPLOAD] 스풀에 남은 업로드 {}건 재전송 예약", recovered);
+        }
+    }
+
+    private PendingUpload rebuild(String storageKey, Path file) throws IOException {
+        MessageDigest sha256 = newDigest("SHA-256");
+        MessageDigest md5 = newDigest("MD5");
+        try (InputStream inputStream = new DigestInputStream(new DigestInputStream(Files.newInputStream(file), sha256), md5)) {
+            inputStream.transferTo(OutputStream.nullOutputStream());
+        }
+        // chat/{roomId}/{uuid}.ext
+        String[] parts = storageKey.split("/");
+        String roomId = parts.length >= 3 ? parts[1] : null;
+        String contentType = MediaTypeFactory.getMediaType(storageKey).orElse(MediaType.APPLICATION_OCTET_STREAM).toString();
+        return new PendingUpload(storageKey, roomId, null, contentType, Files.size(file),
+                HexFormat.of().formatHex(sha256.digest()), HexFormat.of().formatHex(md5.digest()));
+    }
+
+    // 전송 후 스풀 삭제 전에 중단된 경우
+    private boolean isAlreadyStored(PendingUpload upload) throws IOException {
+        if (contentAddressedStore.isEnabled()) {
+            return !upload.storageKey.equals(contentAddressedStore.resolve(upload.storageKey));
+        }
+        StoredObject stored = storageBackend.stat(upload.storageKey);
+        return stored != null && stored.getSize() == upload.size;
+    }
+
+    private void deleteSpool(String storageKey) {
+        // 그사이 같은 키로 다시 대기 중이면 유지
+        if (pending.containsKey(storageKey)) {
+            return;
+        }
+        try {
+            spool.delete(storageKey);
+        } catch (IOException e) {
+            log.warn("[UPLOAD] 스풀 파일 삭제 실패: key={} ({})", storageKey, e.getMessage());
+        }
+    }
+
+    private void announce(PendingUpload upload) {
+        if (upload.roomId == null) {
+            return;
+        }
+        try {
+            chatFanoutRelay.sendToRoomTopic(upload.roomId, UPLOAD_TOPIC, toResponse(upload));
+        } catch (Exception e) {
+            log.warn("[UPLOAD] 상태 알림 실패: key={} ({})", upload.storageKey, e.getMessage());
+        }
+    }
+
+    private FileUrlResponse toResponse(PendingUpload upload) {
+        return FileUrlResponse.builder()
+                .originalFileName(upload.originalFileName)
+                .storageKey(upload.storageKey)
+                .fileUrl("/api/chat/download/" + upload.storageKey)
+                .status(upload.status)
+                .build();
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " 을 사용할 수 없습니다.", e);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class PendingUpload {
+        private final String storageKey;
+        private final String roomId;
+        private final String originalFileName;
+        private final String contentType;
+        private final long size;
+        private final String sha256;
+        private final String md5;
+        private final AtomicInteger attempts = new AtomicInteger();
+        // 큐가 가득 차 예약되지 못함 (retryRejected 대상)
+        private final AtomicBoolean rejected = new AtomicBoolean();
+        private volatile String status = STATUS_PENDING;
+    }
+}
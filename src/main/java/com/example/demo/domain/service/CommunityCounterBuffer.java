@@ -0,0 +1,194 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.entity.CommunityEntity;
+import com.example.demo.domain.repository.CommunityCounterRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 커뮤니티 게시글 조회수/추천수 증분 버퍼
+ * - 상세 조회/추천마다 행을 잠그고 갱신하는 대신 게시글별 LongAdder 에 더해 두고,
+ *   flush-interval-ms 마다 CommunityCounterRepository 로 한 번에 "views = views + ?" 반영합니다.
+ * - 아직 반영되지 않은 증분(전송 중 포함)은 applyPending 으로 조회 응답에 더해 보여 줍니다.
+ * - 반영에 실패하면 증분을 버퍼로 되돌려 다음 주기에 재시도하고, 종료 시 남은 증분을 한 번 더 반영합니다.
+ * - 한동안 증분이 없던 게시글은 버퍼에서 빼되, 그 직전에 더해진 값을 놓치지 않도록 한 주기 더 보관했다가 비웁니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CommunityCounterBuffer {
+
+    // 이 주기 수만큼 증분이 없으면 버퍼에서 제거
+    private static final int IDLE_CYCLES = 30;
+
+    private final CommunityCounterRepository communityCounterRepository;
+
+    @Value("${community.counter.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    @Value("${community.counter.batch-size:500}")
+    private int batchSize;
+
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+    // 직전 주기에 제거한 카운터 (남은 증분을 한 번 더 반영)
+    private List<Counter> retired = new ArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "community-counter-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+        // 종료 전에 남은 증분 반영
+        flushSafely();
+    }
+
+    public void incrementViews(Long id) {
+        counter(id).views.increment();
+    }
+
+    public void addLikes(Long id, int delta) {
+        counter(id).likes.add(delta);
+    }
+
+    public long getPendingViews(Long id) {
+        Counter counter = counters.get(id);
+        return counter == null ? 0 : counter.views.sum() + counter.flushingViews.get();
+    }
+
+    public long getPendingLikes(Long id) {
+        Counter counter = counters.get(id);
+        return counter == null ? 0 : counter.likes.sum() + counter.flushingLikes.get();
+    }
+
+    /**
+     * 아직 DB 에 반영되지 않은 증분을 엔티티 값에 더함 (읽기 전용 트랜잭션에서 읽은 엔티티에만 사용)
+     */
+    public void applyPending(CommunityEntity board) {
+        Counter counter = counters.get(board.getId());
+        if (counter == null) {
+            return;
+        }
+        long views = board.getViews() + counter.views.sum() + counter.flushingViews.get();
+        long likes = board.getLikes() + counter.likes.sum() + counter.flushingLikes.get();
+        board.setViews((int) views);
+        board.setLikes((int) Math.max(likes, 0));
+    }
+
+    private Counter counter(Long id) {
+        return counters.computeIfAbsent(id, key -> new Counter(key));
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("커뮤니티 카운터 반영 실패 (다음 주기에 재시도): {}", e.getMessage());
+        }
+    }
+
+    synchronized void flush() {
+        List<Drained> drained = new ArrayList<>();
+
+        for (Counter counter : retired) {
+            drain(counter, drained);
+        }
+        retired = new ArrayList<>();
+
+        Iterator<Counter> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            Counter counter = iterator.next();
+            if (drain(counter, drained)) {
+                counter.idleCycles = 0;
+            } else if (++counter.idleCycles >= IDLE_CYCLES) {
+                iterator.remove();
+                retired.add(counter);
+            }
+        }
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        drained.sort(Comparator.comparing((Drained d) -> d.counter.id));
+        List<CommunityCounterRepository.Delta> deltas = new ArrayList<>(drained.size());
+        for (Drained d : drained) {
+            deltas.add(new CommunityCounterRepository.Delta(d.counter.id, d.views, d.likes));
+        }
+        try {
+            communityCounterRepository.addAll(deltas, batchSize);
+        } catch (RuntimeException e) {
+            // 반영되지 않은 증분은 버퍼로 되돌림 (제거된 카운터였으면 새 카운터로)
+            for (Drained d : drained) {
+                Counter counter = counter(d.counter.id);
+                counter.views.add(d.views);
+                counter.likes.add(d.likes);
+                d.counter.flushingViews.addAndGet(-d.views);
+                d.counter.flushingLikes.addAndGet(-d.likes);
+            }
+            throw e;
+        }
+        for (Drained d : drained) {
+            d.counter.flushingViews.addAndGet(-d.views);
+            d.counter.flushingLikes.addAndGet(-d.likes);
+        }
+        log.debug("커뮤니티 카운터 {}건 반영", drained.size());
+    }
+
+    // 증분을 꺼내 전송 중으로 옮김 (꺼낸 값이 없으면 false)
+    private static boolean drain(Counter counter, List<Drained> drained) {
+        long views = counter.views.sumThenReset();
+        long likes = counter.likes.sumThenReset();
+        if (views == 0 && likes == 0) {
+            return false;
+        }
+        // 응답에 계속 보이도록 DB 반영이 끝날 때까지 전송 중 값으로 유지
+        counter.flushingViews.addAndGet(views);
+        counter.flushingLikes.addAndGet(likes);
+        drained.add(new Drained(counter, views, likes));
+        return true;
+    }
+
+    @RequiredArgsConstructor
+    private static class Counter {
+        private final Long id;
+        private final LongAdder views = new LongAdder();
+        private final LongAdder likes = new LongAdder();
+        private final AtomicLong flushingViews = new AtomicLong();
+        private final AtomicLong flushingLikes = new AtomicLong();
+        // flush 스레드에서만 접근
+        private int idleCycles;
+    }
+
+    @RequiredArgsConstructor
+    private static class Drained {
+        private final Counter counter;
+        private final long views;
+        private final long likes;
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.entity.CommunityImageEntity;
+import com.example.demo.domain.repository.CommunityImageRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CommunityImage.imageData(LONGBLOB)에 남아 있는 기존 이미지를 FileService 저장소로 옮기는 백그라운드 작업
+ * - 한 번에 batch-size 개씩, 이미지 하나씩 읽어 업로드한 뒤 저장 키를 기록하고 BLOB 을 비웁니다.
+ * - 여러 노드가 동시에 실행해도 "storageKey IS NULL" 조건부 UPDATE 로 한 번만 반영되며, 진 쪽의 업로드는 삭제합니다.
+ * - 옮길 이미지가 없으면 다음 주기까지 대기합니다. (이전 중에도 /community/image/view/{id} 는 BLOB 으로 응답)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class CommunityImageMigrator {
+
+    private final CommunityImageRepository communityImageRepository;
+    private final FileService fileService;
+
+    @Value("${community.image.migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${community.image.migration.batch-size:20}")
+    private int batchSize;
+
+    // 배치 사이 대기 (DB/저장소 부하 분산)
+    @Value("${community.image.migration.batch-delay-ms:500}")
+    private long batchDelayMs;
+
+    @Value("${community.image.migration.idle-minutes:30}")
+    private long idleMinutes;
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "community-image-migrator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.schedule(this::run, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void run() {
+        long delayMs = TimeUnit.MINUTES.toMillis(idleMinutes);
+        try {
+            int migrated = migrateBatch();
+            if (migrated > 0) {
+                delayMs = batchDelayMs;
+            }
+        } catch (Exception e) {
+            log.warn("커뮤니티 이미지 이전 실패 (다음 주기에 재시도): {}", e.getMessage());
+        } finally {
+            if (!scheduler.isShutdown()) {
+                scheduler.schedule(this::run, delayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private int migrateBatch() throws Exception {
+        List<Long> ids = communityImageRepository.findLegacyIds(PageRequest.of(0, batchSize));
+        int migrated = 0;
+        for (Long id : ids) {
+            // BLOB 은 한 건씩만 메모리에 올림
+            CommunityImageEntity image = communityImageRepository.findById(id).orElse(null);
+            if (image == null || image.getStorageKey() != null || image.getImageData() == null) {
+                continue;
+            }
+            byte[] data = image.getImageData();
+            String contentType = MediaTypeFactory.getMediaType(image.getOriginalFileName())
+                    .orElse(MediaType.IMAGE_JPEG).toString();
+
+            String storageKey = fileService.uploadStream(new ByteArrayInputStream(data), data.length,
+                    image.getOriginalFileName(), contentType, CommunityService.IMAGE_DIR);
+            if (communityImageRepository.markMigrated(id, storageKey) == 0) {
+                // 다른 노드가 먼저 옮김
+                fileService.deleteFile(storageKey);
+                continue;
+            }
+            migrated++;
+        }
+        if (migrated > 0) {
+            log.info("커뮤니티 이미지 {}건을 저장소로 이전", migrated);
+        }
+        return migrated;
+    }
+}
@@ -1,8 +1,10 @@
 package com.example.demo.domain.service;
+import com.example.demo.domain.dto.FileUrlResponse;
 import com.example.demo.domain.entity.CommunityEntity;
 import com.example.demo.domain.entity.CommunityImageEntity;
 import com.example.demo.domain.repository.CommunityImageRepository;
 import com.example.demo.domain.repository.CommunityRepository;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -10,21 +12,37 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CommunityService {
 
+    // 커뮤니티 이미지 저장 디렉토리
+    public static final String IMAGE_DIR = "community";
+
     private final CommunityRepository communityRepository;
     private final CommunityImageRepository communityImageRepository; // 추가
+    private final FileService fileService;
+    private final ImageVariantService imageVariantService;
+    private final TransactionTemplate transactionTemplate;
+    private final CommunityCounterBuffer communityCounterBuffer;
 
-    // 목록 조회 (기존 유지)
+    // 목록 조회 (아직 반영되지 않은 조회수/추천수 포함)
     @Transactional(readOnly = true)
     public Page<CommunityEntity> getBoardList(String menuId, String keyword, String category, String sort, int page) {
+        Page<CommunityEntity> boards = findBoards(menuId, keyword, category, sort, page);
+        boards.forEach(communityCounterBuffer::applyPending);
+        return boards;
+    }
+
+    private Page<CommunityEntity> findBoards(String menuId, String keyword, String category, String sort, int page) {
         Sort sorting = Sort.by(Sort.Direction.DESC, "createdDate");
         if ("views".equals(sort)) sorting = Sort.by(Sort.Direction.DESC, "views");
         else if ("likes".equals(sort)) sorting = Sort.by(Sort.Direction.DESC, "likes");
@@ -45,93 +63,152 @@ public class CommunityService {
         }
     }
 
-    // [수정됨] 글쓰기 (DB에 이미지 저장)
-    @Transactional
+    // [수정됨] 글쓰기 (이미지는 트랜잭션 밖에서 저장소로 업로드, DB 에는 저장 키만 기록)
     public void writeBoard(String title, String content, String menuId, String category, String writer, List<MultipartFile> files) throws IOException {
 
-        StringBuilder imageUrls = new StringBuilder();
-
-        if (files != null && !files.isEmpty()) {
-            for (MultipartFile file : files) {
-                if (!file.isEmpty()) {
-                    // 1. DB에 이미지 저장
-                    CommunityImageEntity img = CommunityImageEntity.builder()
-                            .originalFileName(file.getOriginalFilename())
-                            .imageData(file.getBytes()) // 바이너리 데이터
-                            .build();
-                    CommunityImageEntity savedImg = communityImageRepository.save(img);
-
-                    // 2. 이미지를 불러올 URL 생성 (예: /community/image/view/15)
-                    if (imageUrls.length() > 0) imageUrls.append(",");
-                    imageUrls.append("/community/image/view/").append(savedImg.getId());
-                }
-            }
+        // 1. 이미지 업로드 (DB 커넥션을 잡지 않은 상태에서 스트리밍)
+        List<UploadedImage> uploaded = uploadImages(files);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                // 2. 이미지 행 저장 후 불러올 URL 생성 (예: /community/image/view/15)
+                String imageUrls = saveImageRows(uploaded);
+
+                CommunityEntity board = CommunityEntity.builder()
+                        .title(title)
+                        .content(content)
+                        .menuId(menuId)
+                        .category(category)
+                        .writer(writer)
+                        .filepath(imageUrls) // URL 주소 저장
+                        .build();
+                communityRepository.save(board);
+            });
+        } catch (RuntimeException e) {
+            discardImages(uploaded);
+            throw e;
         }
-
-        CommunityEntity board = CommunityEntity.builder()
-                .title(title)
-                .content(content)
-                .menuId(menuId)
-                .category(category)
-                .writer(writer)
-                .filepath(imageUrls.toString()) // URL 주소 저장
-                .build();
-        communityRepository.save(board);
+        scheduleVariants(uploaded);
     }
 
-    // [추가] 이미지 데이터 가져오기 (컨트롤러에서 사용)
+    // [추가] 이미지 데이터 가져오기 (컨트롤러에서 사용, 아직 저장소로 옮기지 않은 이미지용)
     @Transactional(readOnly = true)
     public CommunityImageEntity getImage(Long id) {
         return communityImageRepository.findById(id).orElse(null);
     }
 
+    // 저장소로 옮겨진 이미지의 저장 키 (BLOB 을 읽지 않음, 이전 전이면 empty)
+    @Transactional(readOnly = true)
+    public Optional<String> getImageStorageKey(Long id) {
+        return communityImageRepository.findStorageKeyById(id);
+    }
+
     // [수정됨] 게시글 수정 (파일 추가 업로드 포함) - 삭제 로직 개선
-    @Transactional
     public void updateBoard(Long id, String title, String content, String category, List<MultipartFile> files, boolean clearExistingFiles) throws IOException {
-        CommunityEntity board = communityRepository.findById(id)
-                .orElseThrow(() -> new IllegalArgumentException("게시글이 없습니다."));
+        // 새 이미지는 트랜잭션 밖에서 먼저 업로드
+        List<UploadedImage> uploaded = uploadImages(files);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                CommunityEntity board = communityRepository.findById(id)
+                        .orElseThrow(() -> new IllegalArgumentException("게시글이 없습니다."));
 
-        // 1. 텍스트 정보 수정
-        board.setTitle(title);
-        board.setContent(content);
-        board.setCategory(category);
+                // 1. 텍스트 정보 수정
+                board.setTitle(title);
+                board.setContent(content);
+                board.setCategory(category);
 
-        // 2. [핵심 수정] 최종 경로 빌더 초기화
-        StringBuilder finalPaths = new StringBuilder();
+                // 2. [핵심 수정] 최종 경로 빌더 초기화
+                StringBuilder finalPaths = new StringBuilder();
+
+                // 2-1. 삭제 요청이 없고(false), 기존 경로가 있으면 finalPaths에 유지
+                if (!clearExistingFiles && board.getFilepath() != null && !board.getFilepath().isEmpty()) {
+                    finalPaths.append(board.getFilepath());
+                }
+                // (만약 clearExistingFiles=true이면, finalPaths는 비어있게 시작합니다.)
+
+                // 2-2. 새 파일이 있으면 경로 빌더에 추가 (기존 경로가 있다면 콤마로 구분)
+                String newPaths = saveImageRows(uploaded);
+                if (!newPaths.isEmpty()) {
+                    if (finalPaths.length() > 0) finalPaths.append(",");
+                    finalPaths.append(newPaths);
+                }
 
-        // 2-1. 삭제 요청이 없고(false), 기존 경로가 있으면 finalPaths에 유지
-        if (!clearExistingFiles && board.getFilepath() != null && !board.getFilepath().isEmpty()) {
-            finalPaths.append(board.getFilepath());
+                // 3. 최종 경로 업데이트 (이후 로직에서는 이 값만 사용)
+                // -> clearExistingFiles=true 이고 새 파일이 없으면 최종적으로 "" 빈 문자열로 저장됩니다.
+                board.setFilepath(finalPaths.toString());
+            });
+        } catch (RuntimeException e) {
+            discardImages(uploaded);
+            throw e;
         }
-        // (만약 clearExistingFiles=true이면, finalPaths는 비어있게 시작합니다.)
+        scheduleVariants(uploaded);
+    }
+
+    // -------------------------------------------------------------------------
+    // 이미지 저장 헬퍼
+    // -------------------------------------------------------------------------
 
-        // 2-2. 새 파일이 있으면 저장 후 경로 빌더에 추가
-        if (files != null && !files.isEmpty()) {
+    private List<UploadedImage> uploadImages(List<MultipartFile> files) throws IOException {
+        List<UploadedImage> uploaded = new ArrayList<>();
+        if (files == null) {
+            return uploaded;
+        }
+        try {
             for (MultipartFile file : files) {
                 if (!file.isEmpty()) {
-                    CommunityImageEntity img = CommunityImageEntity.builder()
-                            .originalFileName(file.getOriginalFilename())
-                            .imageData(file.getBytes())
-                            .build();
-                    CommunityImageEntity savedImg = communityImageRepository.save(img);
-
-                    // 기존 경로가 있다면 콤마로 구분, 아니면 바로 추가
-                    if (finalPaths.length() > 0) finalPaths.append(",");
-                    finalPaths.append("/community/image/view/").append(savedImg.getId());
+                    FileUrlResponse response = fileService.uploadFile(file, IMAGE_DIR);
+                    uploaded.add(new UploadedImage(response.getOriginalFileName(), response.getStorageKey()));
                 }
             }
+        } catch (IOException | RuntimeException e) {
+            discardImages(uploaded);
+            throw e;
         }
+        return uploaded;
+    }
 
-        // 3. 최종 경로 업데이트 (이후 로직에서는 이 값만 사용)
-        // -> clearExistingFiles=true 이고 새 파일이 없으면 최종적으로 "" 빈 문자열로 저장됩니다.
-        board.setFilepath(finalPaths.toString());
+    // 이미지 행을 만들고 /community/image/view/{id} 목록(콤마 구분)을 반환
+    private String saveImageRows(List<UploadedImage> uploaded) {
+        StringBuilder imageUrls = new StringBuilder();
+        for (UploadedImage image : uploaded) {
+            CommunityImageEntity savedImg = communityImageRepository.save(CommunityImageEntity.builder()
+                    .originalFileName(image.getOriginalFileName())
+                    .storageKey(image.getStorageKey())
+                    .build());
+            if (imageUrls.length() > 0) imageUrls.append(",");
+            imageUrls.append("/community/image/view/").append(savedImg.getId());
+        }
+        return imageUrls.toString();
     }
 
-    @Transactional
+    // 게시글 저장 실패 시 먼저 올린 이미지 정리
+    private void discardImages(List<UploadedImage> uploaded) {
+        for (UploadedImage image : uploaded) {
+            fileService.deleteFile(image.getStorageKey());
+        }
+    }
+
+    private void scheduleVariants(List<UploadedImage> uploaded) {
+        for (UploadedImage image : uploaded) {
+            imageVariantService.scheduleVariants(image.getStorageKey());
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class UploadedImage {
+        private final String originalFileName;
+        private final String storageKey;
+    }
+
+    // 상세 조회 (조회수는 CommunityCounterBuffer 에 모았다가 주기적으로 반영)
+    @Transactional(readOnly = true)
     public CommunityEntity getBoardDetail(Long id) {
         CommunityEntity board = communityRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("해당 게시글이 없습니다."));
-        board.setViews(board.getViews() + 1);
+        communityCounterBuffer.incrementViews(id);
+        communityCounterBuffer.applyPending(board);
         return board;
     }
 
@@ -140,12 +217,19 @@ public class CommunityService {
         communityRepository.deleteById(id);
     }
 
-    @Transactional
+    // 추천/취소 (행을 잠그지 않고 증분만 기록, 0 아래로는 내려가지 않음)
     public int updateLikes(Long id, boolean isUp) {
-        CommunityEntity board = communityRepository.findById(id)
+        int likes = communityRepository.findLikesById(id)
                 .orElseThrow(() -> new IllegalArgumentException("게시글이 없습니다."));
-        if (isUp) board.setLikes(board.getLikes() + 1);
-        else if (board.getLikes() > 0) board.setLikes(board.getLikes() - 1);
-        return board.getLikes();
+        long current = likes + communityCounterBuffer.getPendingLikes(id);
+        if (isUp) {
+            communityCounterBuffer.addLikes(id, 1);
+            return (int) current + 1;
+        }
+        if (current <= 0) {
+            return 0;
+        }
+        communityCounterBuffer.addLikes(id, -1);
+        return (int) current - 1;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,192 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.entity.StoredFileEntity;
+import com.example.demo.domain.repository.StoredBlobRepository;
+import com.example.demo.domain.repository.StoredFileRepository;
+import com.example.demo.domain.storage.StorageBackend;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 내용 주소(SHA-256) 기반 중복 제거 저장소
+ * - 업로드를 임시 파일로 받으면서 SHA-256 을 계산하고, 실제 바이트는 blobs/{digest 앞 2자리}/{digest} 에 한 번만 저장합니다.
+ * - 같은 digest 가 이미 있으면 저장소(S3/로컬) 쓰기 없이 참조 수만 올립니다.
+ * - 기존 storageKey/fileUrl 은 그대로 쓰고, stored_file 매핑으로 실제 위치를 찾습니다. (매핑이 없으면 키 자체가 실제 위치)
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ContentAddressedStore {
+
+    private static final String BLOB_PREFIX = "blobs/";
+
+    private final StorageBackend storageBackend;
+    private final StoredBlobRepository storedBlobRepository;
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // false 면 기존처럼 업로드마다 새 파일로 저장 (이미 만들어진 매핑은 계속 해석)
+    @Value("${storage.dedup.enabled:true}")
+    private boolean enabled;
+
+    // 해시 계산 중 업로드를 받아 둘 임시 디렉토리 (비우면 java.io.tmpdir 아래)
+    @Value("${storage.dedup.spool-dir:}")
+    private String spoolDir;
+
+    // storageKey → 실제 위치 캐시 (매핑은 삭제 전까지 바뀌지 않음, 매핑이 없는 결과는 캐시하지 않음)
+    @Value("${storage.dedup.key-cache-size:10000}")
+    private int keyCacheSize;
+
+    private Path spoolPath;
+    private Map<String, String> keyCache;
+
+    @PostConstruct
+    public void init() throws IOException {
+        this.spoolPath = (spoolDir == null || spoolDir.isBlank())
+                ? Paths.get(System.getProperty("java.io.tmpdir"), "chat-upload-spool")
+                : Paths.get(spoolDir);
+        Files.createDirectories(spoolPath);
+        this.keyCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > keyCacheSize;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public static String blobKey(String digest) {
+        return BLOB_PREFIX + digest.substring(0, 2) + "/" + digest;
+    }
+
+    /**
+     * 업로드 파일을 storageKey 로 등록합니다. 같은 내용이 이미 저장되어 있으면 저장소에 다시 쓰지 않습니다.
+     */
+    public void store(MultipartFile file, String storageKey) throws IOException {
+        store(file.getInputStream(), file.getContentType(), storageKey);
+    }
+
+    /**
+     * 스트림을 storageKey 로 등록합니다. (스트림은 여기서 닫음)
+     */
+    public void store(InputStream source, String contentType, String storageKey) throws IOException {
+        Path spool = Files.createTempFile(spoolPath, "upload-", ".spool");
+        try {
+            MessageDigest sha256 = newSha256();
+            long size;
+            try (InputStream inputStream = new DigestInputStream(source, sha256)) {
+                size = Files.copy(inputStream, spool, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String digest = HexFormat.of().formatHex(sha256.digest());
+
+            // 행이 있으면 실제 파일도 있음 (행은 파일을 쓴 뒤에만 생성)
+            if (storedBlobRepository.existsById(digest)) {
+                log.info("중복 업로드 - 저장 생략: key={}, digest={}", storageKey, digest);
+            } else {
+                writeBlob(digest, spool, contentType);
+            }
+
+            Integer retained = transactionTemplate.execute(status -> {
+                int affected = storedBlobRepository.retain(digest, size, contentType, LocalDateTime.now());
+                storedFileRepository.save(StoredFileEntity.builder()
+                        .storageKey(storageKey)
+                        .digest(digest)
+                        .build());
+                return affected;
+            });
+            if (retained != null && retained == 1 && storageBackend.stat(blobKey(digest)) == null) {
+                // 새 행인데 파일이 없음: 확인 이후 GC 가 행 없는 blob 으로 지웠거나 행만 남아 있다가 삭제된 경우
+                // (GC 는 digest 를 잠근 채 삭제하므로 INSERT 이후의 이 확인은 GC 삭제보다 항상 늦음)
+                log.info("blob 파일 재기록: key={}, digest={}", storageKey, digest);
+                writeBlob(digest, spool, contentType);
+            }
+            cachePut(storageKey, blobKey(digest));
+        } finally {
+            Files.deleteIfExists(spool);
+        }
+    }
+
+    /**
+     * storageKey 의 실제 저장 위치를 반환합니다. (중복 제거 이전 파일은 키 그대로)
+     */
+    public String resolve(String storageKey) {
+        synchronized (keyCache) {
+            String cached = keyCache.get(storageKey);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Optional<String> physicalKey = storedFileRepository.findById(storageKey)
+                .map(storedFile -> blobKey(storedFile.getDigest()));
+        if (physicalKey.isEmpty()) {
+            // 매핑이 없는 결과는 캐시하지 않음: 다른 노드의 스풀에서 아직 전송 중인 업로드일 수 있어
+            // 캐시하면 전송이 끝난 뒤에도 이 노드가 계속 404 를 응답함 (중복 제거 이전 파일은 매번 PK 조회 1회)
+            return storageKey;
+        }
+        cachePut(storageKey, physicalKey.get());
+        return physicalKey.get();
+    }
+
+    /**
+     * storageKey 매핑을 지우고 blob 참조 수를 줄입니다.
+     * @return 매핑이 있었으면 true (없으면 중복 제거 이전 파일이므로 호출자가 직접 삭제)
+     */
+    public boolean release(String storageKey) {
+        Boolean released = transactionTemplate.execute(status -> {
+            Optional<String> digest = storedFileRepository.findDigestByStorageKey(storageKey);
+            if (digest.isEmpty()) {
+                return false;
+            }
+            // 동시에 같은 키를 해제해도 행을 실제로 지운 쪽만 참조 수를 줄임
+            if (storedFileRepository.deleteByStorageKey(storageKey) == 1) {
+                storedBlobRepository.release(digest.get(), LocalDateTime.now());
+            }
+            return true;
+        });
+        synchronized (keyCache) {
+            keyCache.remove(storageKey);
+        }
+        return Boolean.TRUE.equals(released);
+    }
+
+    private void writeBlob(String digest, Path spool, String contentType) throws IOException {
+        storageBackend.put(blobKey(digest), spool, contentType);
+    }
+
+    private void cachePut(String storageKey, String physicalKey) {
+        synchronized (keyCache) {
+            keyCache.put(storageKey, physicalKey);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 을 사용할 수 없습니다.", e);
+        }
+    }
+}
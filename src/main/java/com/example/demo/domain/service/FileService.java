@@ -1,11 +1,12 @@
 package com.example.demo.domain.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.*;
 import com.example.demo.domain.dto.FileUrlResponse;
+import com.example.demo.domain.storage.StorageBackend;
+import com.example.demo.domain.storage.StoredObject;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -13,20 +14,22 @@ import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.http.HttpStatus;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
 import java.util.UUID;
-import com.example.demo.test.LocalFileUtil; // LocalFileUtil 임포트
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class FileService {
 
-    private final AmazonS3 s3Client;
-    private final String s3BucketName;
     private final ObjectMapper objectMapper;
-    private final StorageModeManager storageModeManager;
+    private final StorageBackend storageBackend;
+    private final ContentAddressedStore contentAddressedStore;
 
     // 파일이 실제로 저장되는 베이스 URL (S3 연동 시 https://{bucket}.s3.region.amazonaws.com/ 등)
     private final String STORAGE_BASE_URL = "https://your-storage-domain.com/";
@@ -35,43 +38,25 @@ public class FileService {
     // 1. 파일 다운로드 (Public API)
     // =========================================================================
     public Resource loadFileAsResource(String storageKey) throws IOException {
+        // 중복 제거 저장소에 등록된 키는 실제 blob 위치로 변환
+        storageKey = contentAddressedStore.resolve(storageKey);
 
-        // 🚨 [수정] 조건부 로직만 남기고 S3 try-catch 블록 제거
-        if (storageModeManager.isLocalMode()) {
-            log.warn("DOWNLOADING IN LOCAL MODE: {}", storageKey);
-            return LocalFileUtil.loadFromLocal(storageKey);
-        } else {
-            log.info("DOWNLOADING IN S3 MODE: {}", storageKey);
-            return loadFromS3(storageKey);
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // S3 다운로드 헬퍼 메서드 (S3 로직 집합)
-    // -------------------------------------------------------------------------
-    private Resource loadFromS3(String storageKey) throws IOException {
         try {
-            // 2. 🔑 [핵심] S3에서 파일 데이터를 InputStream으로 읽어오기
-            S3Object s3Object = s3Client.getObject(new GetObjectRequest(s3BucketName, storageKey));
-            InputStream inputStream = s3Object.getObjectContent();
-
-            // 3. InputStream을 Resource로 감싸서 반환
-            return new InputStreamResource(inputStream);
-
-        } catch (AmazonS3Exception e) {
-            // S3 자체에서 발생하는 에러 (404 Not Found, 403 Forbidden 등) 처리
-            log.error("S3 파일 로드 중 오류 발생: {}", storageKey, e);
-            if (e.getStatusCode() == 404) {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "S3에 파일이 존재하지 않습니다.", e);
-            } else if (e.getStatusCode() == 403) {
-                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "S3 접근이 거부되었습니다. 권한을 확인해주세요.", e);
+            // 로컬 디스크(로컬 모드/캐시)에 있으면 파일 그대로, 아니면 스트림으로 읽음
+            Path localPath = storageBackend.localPath(storageKey);
+            if (localPath != null) {
+                return new FileSystemResource(localPath);
             }
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "S3 파일 로드 중 오류 발생", e);
-
-        } catch (Exception e) {
-            // 기타 I/O 및 런타임 에러 처리
-            log.error("파일 로드 중 예상치 못한 오류 발생: {}", storageKey, e);
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "파일 전송 중 알 수 없는 오류 발생", e);
+            return new InputStreamResource(storageBackend.open(storageKey));
+        } catch (NoSuchFileException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "저장소에 파일이 존재하지 않습니다.", e);
+        } catch (AccessDeniedException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "저장소 접근이 거부되었습니다. 권한을 확인해주세요.", e);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 파일 경로 요청입니다.", e);
+        } catch (IOException e) {
+            log.error("파일 로드 중 오류 발생: {}", storageKey, e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "파일 로드 중 오류 발생", e);
         }
     }
 
@@ -81,15 +66,18 @@ public class FileService {
     // =========================================================================
     public FileUrlResponse uploadFile(MultipartFile file, String dirPath) throws IOException {
         String originalFilename = file.getOriginalFilename();
-        String storageKey; // 🔑 storageKey는 여기서 선언하고 할당합니다.
+        String storageKey = newStorageKey(dirPath, originalFilename);
 
-        // 🚨 [수정] 조건부 로직만 남김
-        if (storageModeManager.isLocalMode()) {
-            log.warn("UPLOADING IN LOCAL MODE: {}", originalFilename);
-            storageKey = LocalFileUtil.saveToLocal(file, dirPath);
+        if (contentAddressedStore.isEnabled()) {
+            // 같은 내용이 이미 있으면 저장소에 다시 쓰지 않고 참조만 추가
+            contentAddressedStore.store(file, storageKey);
         } else {
-            log.info("UPLOADING IN S3 MODE: {}", originalFilename);
-            storageKey = saveToS3(file, dirPath); // S3 헬퍼 메서드 호출
+            try (InputStream inputStream = file.getInputStream()) {
+                storageBackend.put(storageKey, inputStream, file.getSize(), file.getContentType());
+            } catch (IOException e) {
+                log.error("파일 업로드 실패: {}", storageKey, e);
+                throw new IOException("파일 업로드 중 저장소 오류 발생", e);
+            }
         }
 
         // 4. 저장된 파일의 URL 생성 (공통)
@@ -104,37 +92,60 @@ public class FileService {
     }
 
     // -------------------------------------------------------------------------
-    // S3 업로드 헬퍼 메서드 (S3 로직 집합)
+    // 직접 업로드(presigned) 지원 헬퍼
     // -------------------------------------------------------------------------
-    private String saveToS3(MultipartFile file, String dirPath) throws IOException {
-        String originalFilename = file.getOriginalFilename();
 
-        // 1. 저장할 고유 키 (Storage Key) 생성
-        String uuid = UUID.randomUUID().toString();
-        String extension = determineFileType(originalFilename);
-        String storageKey = dirPath + "/" + uuid + "." + extension; // 🔑 S3 Key 생성
-
-        // 2. 파일 메타데이터 설정 (필수)
-        ObjectMetadata metadata = new ObjectMetadata();
-        metadata.setContentType(file.getContentType());
-        metadata.setContentLength(file.getSize());
-
-        try (InputStream inputStream = file.getInputStream()) {
-            // 3. 🔑 [핵심] S3에 파일 업로드 요청
-            s3Client.putObject(new PutObjectRequest(
-                    s3BucketName,
-                    storageKey,
-                    inputStream,
-                    metadata
-            ));
-        } catch (Exception e) {
-            log.error("S3 파일 업로드 실패: {}", storageKey, e);
-            throw new IOException("파일 업로드 중 S3 오류 발생", e);
+    // 저장 키 생성 규칙 (서버 경유 업로드와 직접 업로드가 같은 형식을 사용)
+    public String newStorageKey(String dirPath, String originalFilename) {
+        return dirPath + "/" + UUID.randomUUID() + "." + determineFileType(originalFilename);
+    }
+
+    /**
+     * 저장소에 올라간 파일 크기를 반환합니다. (없으면 -1)
+     */
+    public long getStoredSize(String storageKey) {
+        try {
+            StoredObject stored = storageBackend.stat(storageKey);
+            return stored == null ? -1 : stored.getSize();
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "저장소 조회 중 오류 발생", e);
         }
+    }
 
+    /**
+     * 스트림을 새 저장 키로 업로드합니다. (MultipartFile 이 아닌 원본: 기존 DB 이미지 이전 등)
+     * @return 저장 키
+     */
+    public String uploadStream(InputStream inputStream, long size, String originalFilename, String contentType, String dirPath) throws IOException {
+        String storageKey = newStorageKey(dirPath, originalFilename);
+        if (contentAddressedStore.isEnabled()) {
+            contentAddressedStore.store(inputStream, contentType, storageKey);
+            return storageKey;
+        }
+        try (InputStream in = inputStream) {
+            storageBackend.put(storageKey, in, size, contentType);
+        }
         return storageKey;
     }
 
+    /**
+     * 서버에서 만든 파일(이미지 변형본 등)을 지정한 키에 저장합니다.
+     */
+    public void storeBytes(String storageKey, byte[] data, String contentType) throws IOException {
+        storageBackend.put(storageKey, new ByteArrayInputStream(data), data.length, contentType);
+    }
+
+    /**
+     * 확인(confirm)에 실패한 직접 업로드 파일을 지웁니다.
+     */
+    public void discardUpload(String storageKey) {
+        try {
+            storageBackend.delete(storageKey);
+        } catch (Exception e) {
+            log.warn("직접 업로드 파일 삭제 실패: {} ({})", storageKey, e.getMessage());
+        }
+    }
+
     // -------------------------------------------------------------------------
     //  프로필 업데이트를 위한 헬퍼 메서드 추가
     // -------------------------------------------------------------------------
@@ -143,16 +154,10 @@ public class FileService {
         String originalFilename = file.getOriginalFilename();
         String storageKey = null;
 
-        if (storageModeManager.isLocalMode()){
-            log.warn("UPLOADING PROFILE IN LOCAL MODE: {}", originalFilename);
-            storageKey = LocalFileUtil.saveToLocal(file, dirPath);
-        }else {
-            log.info("UPLOADING PROFILE IN S3 MODE: {}", originalFilename);
-            try {
-                storageKey = saveToS3(file, dirPath);
-            } catch (Exception e) {
-                log.error("S3 파일 업로드 중 오류 발생: {}", originalFilename, e);
-            }
+        try {
+            storageKey = uploadFile(file, dirPath).getStorageKey();
+        } catch (Exception e) {
+            log.error("파일 업로드 중 오류 발생: {}", originalFilename, e);
         }
 
         log.info("DEBUG: FileService returned final storageKey: {}", storageKey);
@@ -178,13 +183,19 @@ public class FileService {
         // 예: /api/profile/download/profile/uuid.jpg -> profile/uuid.jpg
         // 여기서는 간단하게 URL의 마지막 부분(StorageKey)을 추출한다고 가정합니다.
         String storageKey = extractStorageKey(fileUrl);
+        if (storageKey.startsWith("/")) {
+            storageKey = storageKey.substring(1);
+        }
 
-        if (storageModeManager.isLocalMode()) {
-            // 🚨 Local Mode: LocalFileUtil 사용
-            LocalFileUtil.deleteFromLocal(storageKey);
-        } else {
-            // 🚨 S3 Mode: S3 삭제 헬퍼 메서드 사용 (구현 필요)
-            // deleteFromS3(storageKey);
+        // 중복 제거 저장소 파일은 참조만 해제 (blob 은 다른 키가 참조 중일 수 있음)
+        if (contentAddressedStore.release(storageKey)) {
+            return;
+        }
+
+        try {
+            storageBackend.delete(storageKey);
+        } catch (Exception e) {
+            log.warn("파일 삭제 실패: {} ({})", storageKey, e.getMessage());
         }
     }
 
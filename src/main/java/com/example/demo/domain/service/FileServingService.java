@@ -0,0 +1,296 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.storage.StorageBackend;
+import com.example.demo.domain.storage.StoredObject;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 파일 서빙 엔진 (다운로드/이미지 응답 공통)
+ * - Content-Length, Accept-Ranges, ETag, Last-Modified 를 내려주고 If-None-Match / If-Modified-Since 에 304 로 응답합니다.
+ * - Range 요청은 단일 구간이면 206 + Content-Range, 여러 구간이면 multipart/byteranges 로 응답합니다. (If-Range 지원)
+ * - 로컬 디스크에 있는 파일(로컬 저장소, S3 디스크 캐시)은 Tomcat sendfile 로 넘기고, 지원되지 않으면 FileChannel.transferTo 로 복사합니다.
+ * - 캐시하지 않는 원격 객체는 ranged GET 으로 필요한 구간만 가져옵니다.
+ * - 저장 키는 UUID 라 내용이 바뀌지 않으므로 장기 immutable 캐시 헤더를 붙입니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class FileServingService {
+
+    // Tomcat sendfile 요청 속성 (DefaultServlet 과 같은 방식)
+    private static final String SENDFILE_SUPPORT_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private final StorageBackend storageBackend;
+    private final ContentAddressedStore contentAddressedStore;
+    private final ChatUploadPipeline chatUploadPipeline;
+
+    @Value("${storage.serve.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    // 이보다 작은 응답은 sendfile 대신 바로 복사 (Tomcat 기본 sendfileSize 와 동일)
+    @Value("${storage.serve.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    // 이보다 많은 구간을 요청하면 Range 를 무시하고 전체를 응답
+    @Value("${storage.serve.max-ranges:16}")
+    private int maxRanges;
+
+    /**
+     * 저장 키의 파일을 응답에 씁니다.
+     * @param contentType null 이면 저장소 메타데이터/확장자로 결정
+     * @param contentDisposition null 이면 헤더를 붙이지 않음 (inline 표시)
+     */
+    public void serve(String storageKey, MediaType contentType, String contentDisposition,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        serve(storageKey, contentType, contentDisposition, true, request, response);
+    }
+
+    /**
+     * @param immutable false 면 장기 캐시 대신 매번 재검증 (변형본 대신 원본으로 응답하는 경우 등)
+     */
+    public void serve(String storageKey, MediaType contentType, String contentDisposition, boolean immutable,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 실제 위치(중복 제거 blob 또는 키 그대로)에서 읽고, 타입은 원래 키의 확장자로 결정
+        MediaType keyType = MediaTypeFactory.getMediaType(storageKey).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        FileSource source;
+        if (chatUploadPipeline.isPending(storageKey)) {
+            // 비동기 업로드가 원격 저장소로 옮겨지기 전이면 스풀 파일로 응답
+            source = source(chatUploadPipeline.getSpool(), storageKey, keyType);
+        } else {
+            source = source(storageBackend, contentAddressedStore.resolve(storageKey), keyType);
+        }
+        MediaType resolvedType = contentType != null ? contentType : source.contentType;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL,
+                immutable ? "private, max-age=" + cacheMaxAgeSeconds + ", immutable" : "private, no-cache");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // 1. 조건부 요청 (304 / 412) - ETag, Last-Modified 헤더도 여기서 설정됨
+        if (new ServletWebRequest(request, response).checkNotModified(source.etag, source.lastModified)) {
+            return;
+        }
+
+        if (contentDisposition != null) {
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, contentDisposition);
+        }
+
+        // 2. Range 해석
+        List<long[]> ranges = resolveRanges(request, source);
+        if (ranges == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + source.length);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+        boolean head = "HEAD".equals(request.getMethod());
+
+        // 3. 전체 응답
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(resolvedType.toString());
+            response.setContentLengthLong(source.length);
+            if (!head) {
+                source.write(request, response, 0, source.length, true);
+            }
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+
+        // 4. 단일 구간
+        if (ranges.size() == 1) {
+            long start = ranges.get(0)[0];
+            long end = ranges.get(0)[1];
+            response.setContentType(resolvedType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + source.length);
+            response.setContentLengthLong(end - start + 1);
+            if (!head) {
+                source.write(request, response, start, end - start + 1, true);
+            }
+            return;
+        }
+
+        // 5. 여러 구간 (multipart/byteranges)
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (head) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        for (long[] range : ranges) {
+            String partHeader = "\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + resolvedType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + range[0] + "-" + range[1] + "/" + source.length + "\r\n\r\n";
+            out.write(partHeader.getBytes(StandardCharsets.US_ASCII));
+            source.write(request, response, range[0], range[1] - range[0] + 1, false);
+        }
+        out.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // 구간 목록 [start, end] (end 포함). 빈 목록이면 전체 응답, null 이면 416
+    // - 문법이 잘못된 Range(단위가 bytes 가 아님, 숫자가 아님, first > last 등)는 무시하고 전체 응답 (RFC 9110 14.2)
+    // - 문법은 맞지만 파일 범위 밖인 구간은 건너뛰고, 남는 구간이 하나도 없을 때만 416
+    private List<long[]> resolveRanges(HttpServletRequest request, FileSource source) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !isIfRangeSatisfied(request, source)) {
+            return List.of();
+        }
+        List<HttpRange> httpRanges;
+        try {
+            httpRanges = HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            log.debug("잘못된 Range 헤더 무시: {}", rangeHeader);
+            return List.of();
+        }
+        if (httpRanges.isEmpty() || httpRanges.size() > maxRanges) {
+            return List.of();
+        }
+        List<long[]> ranges = new ArrayList<>(httpRanges.size());
+        long total = 0;
+        for (HttpRange httpRange : httpRanges) {
+            long start;
+            long end;
+            try {
+                start = httpRange.getRangeStart(source.length);
+                end = httpRange.getRangeEnd(source.length);
+            } catch (IllegalArgumentException e) {
+                // 시작 위치가 파일 크기 이상
+                continue;
+            }
+            // 빈 파일의 suffix 구간, bytes=-0 등
+            if (end < start) {
+                continue;
+            }
+            ranges.add(new long[]{start, end});
+            total += end - start + 1;
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+        // 겹치는 구간으로 파일보다 큰 응답을 만드는 요청은 전체 응답으로 처리
+        return total > source.length && ranges.size() > 1 ? List.of() : ranges;
+    }
+
+    // If-Range 가 현재 ETag/Last-Modified 와 일치할 때만 Range 를 적용
+    private boolean isIfRangeSatisfied(HttpServletRequest request, FileSource source) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(source.etag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == source.lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 저장소별 원본
+    // -------------------------------------------------------------------------
+
+    private FileSource source(StorageBackend backend, String storageKey, MediaType keyType) throws IOException {
+        StoredObject stored;
+        try {
+            stored = backend.stat(storageKey);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 파일 경로 요청입니다.", e);
+        } catch (AccessDeniedException e) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "저장소 접근이 거부되었습니다. 권한을 확인해주세요.", e);
+        }
+        if (stored == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "저장소에 파일이 존재하지 않습니다.");
+        }
+
+        MediaType type = keyType;
+        if (stored.getContentType() != null) {
+            try {
+                type = MediaType.parseMediaType(stored.getContentType());
+            } catch (IllegalArgumentException ignored) {
+                // 확장자 기반 타입 유지
+            }
+        }
+
+        return new FileSource(stored.getSize(), stored.getLastModified(), "\"" + stored.getEtag() + "\"", type) {
+            @Override
+            void write(HttpServletRequest request, HttpServletResponse response, long start, long count, boolean whole) throws IOException {
+                // 로컬 디스크(로컬 저장소/S3 캐시)에 있으면 zero-copy, 아니면 필요한 구간만 스트림으로 읽음
+                Path path = backend.localPath(storageKey);
+                if (path == null) {
+                    try (InputStream inputStream = backend.open(storageKey, start, count)) {
+                        inputStream.transferTo(response.getOutputStream());
+                    }
+                    return;
+                }
+
+                // 단일 응답이면 Tomcat sendfile 로 넘김 (커널에서 직접 소켓으로 전송)
+                if (whole && count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTR))) {
+                    request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+                    request.setAttribute(SENDFILE_START_ATTR, start);
+                    request.setAttribute(SENDFILE_END_ATTR, start + count);
+                    return;
+                }
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+                    long position = start;
+                    long remaining = count;
+                    while (remaining > 0) {
+                        long transferred = channel.transferTo(position, remaining, target);
+                        if (transferred <= 0) {
+                            break;
+                        }
+                        position += transferred;
+                        remaining -= transferred;
+                    }
+                }
+            }
+        };
+    }
+
+    private abstract static class FileSource {
+        final long length;
+        final long lastModified;
+        final String etag;
+        final MediaType contentType;
+
+        FileSource(long length, long lastModified, String etag, MediaType contentType) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+
+        // [start, start + count) 구간을 응답에 씀 (whole=true 면 응답 본문 전체가 이 구간)
+        abstract void write(HttpServletRequest request, HttpServletResponse response, long start, long count, boolean whole) throws IOException;
+    }
+}
@@ -0,0 +1,372 @@
+package com.example.demo.domain.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 이미지 변형본(썸네일/중간 크기) 생성 파이프라인
+ * - 업로드 후 백그라운드 풀에서 원본을 한 번 디코딩하여 medium, thumb 을 만들고 원본 옆 키({uuid}_thumb.jpg 등)에 저장합니다.
+ * - 같은 원본에 대한 작업은 동시에 하나만 실행하며(in-flight 집합), 큐가 가득 차면 버리고 다음 요청 때 다시 예약합니다.
+ * - 변형본이 아직 없으면 원본으로 응답합니다. (이전에 올라온 이미지는 첫 요청 때 생성 예약)
+ * - 이미지가 아니거나 손상/과대 크기처럼 다시 해도 같은 결과인 실패만 계속 기억하고,
+ *   저장소 오류 등 일시적인 실패는 failed-retry-seconds 후 다시 시도합니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class ImageVariantService {
+
+    public enum Variant {
+        THUMB("thumb"),
+        MEDIUM("medium");
+
+        private final String suffix;
+
+        Variant(String suffix) {
+            this.suffix = suffix;
+        }
+
+        // "thumb" / "medium" 외(null, "original" 포함)는 원본
+        public static Variant parse(String size) {
+            if (size == null) {
+                return null;
+            }
+            for (Variant variant : values()) {
+                if (variant.suffix.equalsIgnoreCase(size)) {
+                    return variant;
+                }
+            }
+            return null;
+        }
+    }
+
+    // 원본별 변형본 상태 (READY: 모두 저장됨, FAILED: 지원하지 않거나 생성 불가 → 원본 사용)
+    private enum State { READY, FAILED }
+
+    private static final Set<String> SUPPORTED_EXTENSIONS = Set.of("jpg", "jpeg", "png", "gif", "bmp");
+
+    private final FileService fileService;
+
+    @Value("${image.variant.enabled:true}")
+    private boolean enabled;
+
+    // 긴 변 기준 픽셀 크기
+    @Value("${image.variant.thumb-size:160}")
+    private int thumbSize;
+
+    @Value("${image.variant.medium-size:720}")
+    private int mediumSize;
+
+    @Value("${image.variant.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${image.variant.workers:2}")
+    private int workers;
+
+    @Value("${image.variant.queue-capacity:200}")
+    private int queueCapacity;
+
+    // 이보다 큰 원본은 디코딩하지 않음 (압축 폭탄 방지)
+    @Value("${image.variant.max-source-pixels:40000000}")
+    private long maxSourcePixels;
+
+    @Value("${image.variant.state-cache-size:20000}")
+    private int stateCacheSize;
+
+    // 일시적인 실패(저장소 오류 등) 후 다시 시도하기까지의 시간
+    @Value("${image.variant.failed-retry-seconds:60}")
+    private long failedRetrySeconds;
+
+    private ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    private Map<String, StateEntry> stateCache;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread thread = new Thread(r, "image-variant-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.stateCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StateEntry> eldest) {
+                return size() > stateCacheSize;
+            }
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public boolean isImage(String storageKey) {
+        return storageKey != null && SUPPORTED_EXTENSIONS.contains(extension(storageKey));
+    }
+
+    /**
+     * 업로드 직후 호출: 이미지이면 변형본 생성을 예약합니다.
+     */
+    public void scheduleVariants(String storageKey) {
+        if (!enabled || !isImage(storageKey) || !inFlight.add(storageKey)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(storageKey);
+                } finally {
+                    inFlight.remove(storageKey);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(storageKey);
+            log.debug("이미지 변형본 큐 포화 - 다음 요청 때 다시 예약: {}", storageKey);
+        }
+    }
+
+    /**
+     * 요청한 크기(thumb/medium/original)에 맞는 저장 키를 고릅니다. 변형본이 아직 없으면 원본을 반환합니다.
+     */
+    public Selection select(String storageKey, String size) {
+        Variant variant = Variant.parse(size);
+        if (variant == null) {
+            return new Selection(storageKey, true);
+        }
+        if (!enabled || !isImage(storageKey)) {
+            return new Selection(storageKey, true);
+        }
+
+        State state = getState(storageKey);
+        if (state == State.READY) {
+            return new Selection(variantKey(storageKey, variant), true);
+        }
+        if (state == State.FAILED) {
+            return new Selection(storageKey, true);
+        }
+        if (!inFlight.contains(storageKey)) {
+            // 재시작 전에 만들어졌을 수 있으므로 저장소 확인 (결과는 캐시)
+            if (fileService.getStoredSize(variantKey(storageKey, Variant.THUMB)) >= 0) {
+                putState(storageKey, State.READY);
+                return new Selection(variantKey(storageKey, variant), true);
+            }
+            scheduleVariants(storageKey);
+        }
+        // 원본으로 대신 응답 (변형본이 생기면 URL 응답이 바뀌므로 장기 캐시 금지)
+        return new Selection(storageKey, false);
+    }
+
+    /**
+     * 변형본 키: chat/1/{uuid}.png → chat/1/{uuid}_thumb.png (PNG/GIF 는 PNG, 나머지는 JPEG)
+     */
+    public String variantKey(String storageKey, Variant variant) {
+        int slash = storageKey.lastIndexOf('/');
+        int dot = storageKey.lastIndexOf('.');
+        String base = dot > slash ? storageKey.substring(0, dot) : storageKey;
+        return base + "_" + variant.suffix + "." + outputFormat(storageKey);
+    }
+
+    private void generate(String storageKey) {
+        try {
+            BufferedImage source;
+            try {
+                source = decode(storageKey);
+            } catch (IIOException e) {
+                // 이미지 데이터 자체가 손상됨 → 다시 해도 실패
+                putState(storageKey, State.FAILED);
+                log.warn("이미지 디코딩 실패: {} ({})", storageKey, e.getMessage());
+                return;
+            }
+            if (source == null) {
+                putState(storageKey, State.FAILED);
+                return;
+            }
+            boolean png = "png".equals(outputFormat(storageKey));
+
+            // 큰 것부터 만들고, 작은 변형본은 중간 결과에서 축소
+            BufferedImage medium = scale(source, mediumSize, png);
+            fileService.storeBytes(variantKey(storageKey, Variant.MEDIUM), encode(medium, png), png ? "image/png" : "image/jpeg");
+            BufferedImage thumb = scale(medium, thumbSize, png);
+            // THUMB 존재 여부로 완료를 판단하므로 마지막에 저장
+            fileService.storeBytes(variantKey(storageKey, Variant.THUMB), encode(thumb, png), png ? "image/png" : "image/jpeg");
+
+            putState(storageKey, State.READY);
+            log.info("이미지 변형본 생성 완료: {} ({}x{})", storageKey, source.getWidth(), source.getHeight());
+        } catch (Exception e) {
+            // 원본 읽기/변형본 저장 실패는 일시적일 수 있으므로 잠시 후 다시 시도
+            putState(storageKey, State.FAILED, TimeUnit.SECONDS.toMillis(failedRetrySeconds));
+            log.warn("이미지 변형본 생성 실패 ({}초 후 재시도): {} ({})", failedRetrySeconds, storageKey, e.getMessage());
+        }
+    }
+
+    // 원본이 클수록 서브샘플링으로 읽어 메모리를 줄임
+    private BufferedImage decode(String storageKey) throws IOException {
+        try (InputStream inputStream = fileService.loadFileAsResource(storageKey).getInputStream();
+             ImageInputStream imageInput = ImageIO.createImageInputStream(inputStream)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(imageInput);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(imageInput, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxSourcePixels) {
+                    log.warn("이미지가 너무 커서 변형본을 만들지 않음: {} ({}x{})", storageKey, width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (mediumSize * 2));
+                if (subsampling > 1) {
+                    param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                }
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 긴 변이 maxDim 이 되도록 축소 (절반씩 줄여 품질 유지, 원본보다 키우지 않음)
+    private static BufferedImage scale(BufferedImage source, int maxDim, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double ratio = Math.min(1.0, (double) maxDim / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(height * ratio));
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight,
+                    keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (!keepAlpha) {
+                    // JPEG 는 투명도가 없으므로 흰 배경
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, boolean png) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        if (png) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        try (ImageOutputStream imageOutput = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOutput);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String outputFormat(String storageKey) {
+        String extension = extension(storageKey);
+        return "png".equals(extension) || "gif".equals(extension) ? "png" : "jpg";
+    }
+
+    private static String extension(String storageKey) {
+        int slash = storageKey.lastIndexOf('/');
+        int dot = storageKey.lastIndexOf('.');
+        return dot > slash ? storageKey.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private State getState(String storageKey) {
+        synchronized (stateCache) {
+            StateEntry entry = stateCache.get(storageKey);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                stateCache.remove(storageKey);
+                return null;
+            }
+            return entry.state;
+        }
+    }
+
+    private void putState(String storageKey, State state) {
+        putState(storageKey, state, Long.MAX_VALUE);
+    }
+
+    private void putState(String storageKey, State state, long ttlMillis) {
+        long expiresAt = ttlMillis == Long.MAX_VALUE ? Long.MAX_VALUE : System.currentTimeMillis() + ttlMillis;
+        synchronized (stateCache) {
+            stateCache.put(storageKey, new StateEntry(state, expiresAt));
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class StateEntry {
+        private final State state;
+        private final long expiresAt;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Selection {
+        // 실제로 응답할 저장 키
+        private final String storageKey;
+        // false 면 변형본 대신 원본으로 응답 중 (장기 캐시 금지)
+        private final boolean cacheable;
+    }
+}
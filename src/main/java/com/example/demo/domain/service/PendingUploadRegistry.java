@@ -0,0 +1,129 @@
+package com.example.demo.domain.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발급했지만 아직 확인(confirm)되지 않은 직접 업로드 목록 (Redis, 노드 간 공유)
+ * - 발급 시 저장 키의 소유자(email)와 선언 크기를 기록하고, 확인 기한을 점수로 presign:pending ZSET 에 넣습니다.
+ * - 확인은 ZSET 에서 저장 키를 제거(ZREM)한 쪽만 성공하므로 같은 키를 두 번 확인하거나, 정리 작업과 동시에 확인될 수 없습니다.
+ * - 확인 기한(URL 만료 + confirm-grace-seconds)이 지난 키는 주기적으로 정리하며, 이미 올라온 파일도 삭제합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PendingUploadRegistry {
+
+    private static final String PENDING_KEY = "presign:pending";
+    private static final String UPLOAD_KEY_PREFIX = "presign:upload:";
+    private static final int REAP_BATCH = 500;
+
+    private final StringRedisTemplate redisTemplate;
+    private final FileService fileService;
+
+    // URL 만료 후 confirm 을 기다리는 시간 (업로드가 만료 직전에 끝난 경우 대비)
+    @Value("${storage.presign.confirm-grace-seconds:600}")
+    private long confirmGraceSeconds;
+
+    // 기한이 지난 미확인 업로드 정리 주기
+    @Value("${storage.presign.reap-interval-seconds:60}")
+    private long reapIntervalSeconds;
+
+    private ScheduledExecutorService reaper;
+
+    @PostConstruct
+    public void start() {
+        this.reaper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "presign-upload-reaper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.reaper.scheduleWithFixedDelay(this::reapExpired, reapIntervalSeconds, reapIntervalSeconds, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        reaper.shutdownNow();
+    }
+
+    /**
+     * 발급한 업로드를 기록합니다.
+     */
+    public void register(String storageKey, String owner, long size, long urlExpiresAt) {
+        long deadline = urlExpiresAt + TimeUnit.SECONDS.toMillis(confirmGraceSeconds);
+        long ttlMillis = Math.max(1, deadline - System.currentTimeMillis()) + TimeUnit.SECONDS.toMillis(reapIntervalSeconds);
+        redisTemplate.opsForValue().set(UPLOAD_KEY_PREFIX + storageKey, owner + "|" + size, ttlMillis, TimeUnit.MILLISECONDS);
+        redisTemplate.opsForZSet().add(PENDING_KEY, storageKey, deadline);
+    }
+
+    /**
+     * 확인 대기 중인 업로드 정보 (없거나 기한이 지났으면 null)
+     */
+    public PendingUpload find(String storageKey) {
+        Double deadline = redisTemplate.opsForZSet().score(PENDING_KEY, storageKey);
+        if (deadline == null || deadline < System.currentTimeMillis()) {
+            return null;
+        }
+        String value = redisTemplate.opsForValue().get(UPLOAD_KEY_PREFIX + storageKey);
+        int separator = value == null ? -1 : value.lastIndexOf('|');
+        if (separator < 0) {
+            return null;
+        }
+        return new PendingUpload(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+    }
+
+    /**
+     * 확인 대기 목록에서 제거합니다. 이 호출로 제거한 경우에만 true (확인/정리 중 한쪽만 성공)
+     */
+    public boolean claim(String storageKey) {
+        Long removed = redisTemplate.opsForZSet().remove(PENDING_KEY, storageKey);
+        if (removed == null || removed == 0) {
+            return false;
+        }
+        redisTemplate.delete(UPLOAD_KEY_PREFIX + storageKey);
+        return true;
+    }
+
+    // 확인 기한이 지난 업로드의 파일 삭제
+    void reapExpired() {
+        try {
+            int reaped = 0;
+            Set<String> expired;
+            do {
+                expired = redisTemplate.opsForZSet().rangeByScore(PENDING_KEY, 0, System.currentTimeMillis(), 0, REAP_BATCH);
+                if (expired == null) {
+                    break;
+                }
+                for (String storageKey : expired) {
+                    if (claim(storageKey)) {
+                        fileService.discardUpload(storageKey);
+                        reaped++;
+                    }
+                }
+            } while (expired.size() == REAP_BATCH);
+            if (reaped > 0) {
+                log.info("[PRESIGN] 확인되지 않은 직접 업로드 {}건 삭제", reaped);
+            }
+        } catch (Exception e) {
+            log.warn("[PRESIGN] 미확인 업로드 정리 실패: {}", e.getMessage());
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class PendingUpload {
+        private final String owner;
+        private final long size;
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.demo.domain.service;
+
+import com.amazonaws.HttpMethod;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.Headers;
+import com.amazonaws.services.s3.model.GeneratePresignedUrlRequest;
+import com.amazonaws.services.s3.model.ResponseHeaderOverrides;
+import com.example.demo.domain.dto.FileUrlResponse;
+import com.example.demo.domain.dto.PresignedUploadResponse;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.util.UriUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 직접 전송(presigned) URL 발급
+ * - S3 모드: 짧게 유효한 S3 presigned PUT/GET URL 을 발급하여 파일 바이트가 앱 서버를 거치지 않게 합니다.
+ * - 로컬 모드: 같은 흐름을 유지하도록 HMAC 서명 토큰이 붙은 앱 URL(/api/files/signed/**)을 발급합니다.
+ * - 업로드 URL 에는 클라이언트가 선언한 크기(Content-Length)가 서명되어 다른 크기로는 올릴 수 없습니다.
+ * - 클라이언트는 업로드 후 confirm 을 호출해야 하며, 발급받은 사용자만 확인할 수 있습니다. 이때 실제 저장 여부와 크기를 확인합니다.
+ * - 확인되지 않은 업로드는 PendingUploadRegistry 가 기한 후 삭제합니다.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class PresignedUrlService {
+
+    public static final String SIGNED_PATH = "/api/files/signed/";
+
+    private final AmazonS3 s3Client;
+    private final String s3BucketName;
+    private final StorageModeManager storageModeManager;
+    private final FileService fileService;
+    private final ContentAddressedStore contentAddressedStore;
+    private final PendingUploadRegistry pendingUploadRegistry;
+
+    // false 면 기존처럼 앱 서버를 경유하여 업로드/다운로드
+    @Value("${storage.presign.enabled:false}")
+    private boolean enabled;
+
+    @Value("${storage.presign.upload-ttl-seconds:300}")
+    private long uploadTtlSeconds;
+
+    @Value("${storage.presign.download-ttl-seconds:300}")
+    private long downloadTtlSeconds;
+
+    // 직접 업로드 허용 최대 크기 (발급 시 선언 크기로 확인, 업로드 URL 에 크기가 서명됨)
+    @Value("${storage.presign.max-upload-bytes:52428800}")
+    private long maxUploadBytes;
+
+    // 로컬 모드 서명 키 (비어 있으면 기동 시 임의 생성 → 재시작/다중 노드 간 URL 공유 불가)
+    @Value("${storage.presign.secret:}")
+    private String secret;
+
+    private SecretKeySpec signingKey;
+
+    @PostConstruct
+    public void init() {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+            if (enabled) {
+                log.warn("storage.presign.secret 이 설정되지 않아 임의 키를 사용합니다. (재시작 시 발급된 URL 무효)");
+            }
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.signingKey = new SecretKeySpec(keyBytes, "HmacSHA256");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // S3 모드에서는 다운로드 요청을 presigned URL 로 리다이렉트
+    public boolean shouldRedirectDownloads() {
+        return enabled && !storageModeManager.isLocalMode();
+    }
+
+    public long getMaxUploadBytes() {
+        return maxUploadBytes;
+    }
+
+    /**
+     * 직접 업로드용 URL 을 발급합니다. 저장 키는 서버 경유 업로드와 같은 규칙으로 만듭니다.
+     *
+     * @param owner 업로드를 요청한 사용자 (confirm 도 이 사용자만 가능)
+     * @param size  업로드할 파일 크기 (URL 에 서명되어 다른 크기로는 올릴 수 없음)
+     */
+    public PresignedUploadResponse issueUpload(String owner, String dirPath, String originalFileName, String contentType, long size) {
+        requireEnabled();
+        if (size <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "파일 크기가 필요합니다.");
+        }
+        if (size > maxUploadBytes) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "허용된 파일 크기를 초과했습니다.");
+        }
+        String storageKey = fileService.newStorageKey(dirPath, originalFileName);
+        String resolvedContentType = (contentType == null || contentType.isBlank())
+                ? "application/octet-stream" : contentType;
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(uploadTtlSeconds);
+
+        String uploadUrl;
+        if (storageModeManager.isLocalMode()) {
+            uploadUrl = SIGNED_PATH + UriUtils.encodePath(storageKey, StandardCharsets.UTF_8)
+                    + "?exp=" + expiresAt
+                    + "&len=" + size
+                    + "&sig=" + sign("PUT", storageKey, expiresAt, size);
+        } else {
+            // Content-Type/Content-Length 도 서명에 포함되므로 클라이언트는 같은 값으로 보내야 함
+            GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(s3BucketName, storageKey, HttpMethod.PUT)
+                    .withExpiration(new Date(expiresAt))
+                    .withContentType(resolvedContentType);
+            request.putCustomRequestHeader(Headers.CONTENT_LENGTH, String.valueOf(size));
+            uploadUrl = s3Client.generatePresignedUrl(request).toString();
+        }
+        pendingUploadRegistry.register(storageKey, owner, size, expiresAt);
+
+        return PresignedUploadResponse.builder()
+                .storageKey(storageKey)
+                .uploadUrl(uploadUrl)
+                .method("PUT")
+                .headers(Map.of("Content-Type", resolvedContentType))
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    /**
+     * 직접 업로드를 확인합니다. 요청한 사용자가 발급받은 확인 대기 중인 키인지, 실제로 올라왔는지, 선언한 크기와 같은지 검사합니다.
+     */
+    public FileUrlResponse confirmUpload(String owner, String dirPath, String storageKey, String originalFileName) {
+        requireEnabled();
+        if (storageKey == null || !storageKey.startsWith(dirPath + "/") || storageKey.contains("..")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "잘못된 저장 키입니다.");
+        }
+        PendingUploadRegistry.PendingUpload pending = pendingUploadRegistry.find(storageKey);
+        if (pending == null || !pending.getOwner().equals(owner)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "만료되었거나 발급받지 않은 업로드입니다.");
+        }
+
+        long size = fileService.getStoredSize(storageKey);
+        if (size < 0) {
+            // 아직 올라오지 않았으면 기한 내에 다시 확인할 수 있도록 대기 목록에 남겨 둠
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "업로드된 파일을 찾을 수 없습니다.");
+        }
+        if (!pendingUploadRegistry.claim(storageKey)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "만료되었거나 이미 확인된 업로드입니다.");
+        }
+        if (size != pending.getSize()) {
+            fileService.discardUpload(storageKey);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "선언한 파일 크기와 다릅니다.");
+        }
+
+        log.info("직접 업로드 확인: key={}, size={}", storageKey, size);
+        return FileUrlResponse.builder()
+                .originalFileName(originalFileName)
+                .storageKey(storageKey)
+                .fileUrl("/api/chat/download/" + storageKey)
+                .build();
+    }
+
+    /**
+     * 다운로드용 URL 을 발급합니다. (inline=false 면 첨부파일로 내려받도록 Content-Disposition 지정)
+     */
+    public String issueDownloadUrl(String storageKey, String fileName, boolean inline) {
+        long expiresAt = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(downloadTtlSeconds);
+
+        if (storageModeManager.isLocalMode()) {
+            // 파일명(Content-Disposition)도 서명에 포함되므로 URL 의 fileName 은 바꿀 수 없음
+            String attachmentName = (!inline && fileName != null && !fileName.isEmpty()) ? fileName : null;
+            return signedLocalUrl("GET", storageKey, expiresAt, attachmentName);
+        }
+
+        // 중복 제거 blob 은 실제 위치로 서명 (파일명은 원래 키 기준)
+        GeneratePresignedUrlRequest request = new GeneratePresignedUrlRequest(
+                s3BucketName, contentAddressedStore.resolve(storageKey), HttpMethod.GET)
+                .withExpiration(new Date(expiresAt));
+        if (!inline) {
+            String displayName = (fileName != null && !fileName.isEmpty())
+                    ? fileName : storageKey.substring(storageKey.lastIndexOf("/") + 1);
+            request.withResponseHeaders(new ResponseHeaderOverrides()
+                    .withContentDisposition("attachment; filename*=UTF-8''" + UriUtils.encode(displayName, StandardCharsets.UTF_8)));
+        }
+        return s3Client.generatePresignedUrl(request).toString();
+    }
+
+    /**
+     * 로컬 서명 업로드 URL 검증 (만료 시각 + 크기 + HMAC)
+     */
+    public boolean verifyLocalUpload(String storageKey, long expiresAt, long size, String signature) {
+        if (signature == null || expiresAt < System.currentTimeMillis()) {
+            return false;
+        }
+        byte[] expected = sign("PUT", storageKey, expiresAt, size).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * 로컬 서명 URL 검증 (만료 시각 + 첨부 파일명 + HMAC)
+     *
+     * @param fileName URL 의 fileName 파라미터 (없으면 null)
+     */
+    public boolean verifyLocalToken(String method, String storageKey, long expiresAt, String fileName, String signature) {
+        if (signature == null || expiresAt < System.currentTimeMillis()) {
+            return false;
+        }
+        byte[] expected = sign(method, storageKey, expiresAt, fileName).getBytes(StandardCharsets.US_ASCII);
+        return MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private String signedLocalUrl(String method, String storageKey, long expiresAt, String fileName) {
+        String url = SIGNED_PATH + UriUtils.encodePath(storageKey, StandardCharsets.UTF_8)
+                + "?exp=" + expiresAt
+                + "&sig=" + sign(method, storageKey, expiresAt, fileName);
+        if (fileName != null) {
+            url += "&fileName=" + UriUtils.encodeQueryParam(fileName, StandardCharsets.UTF_8);
+        }
+        return url;
+    }
+
+    private String sign(String method, String storageKey, long expiresAt, String fileName) {
+        String payload = method + "\n" + storageKey + "\n" + expiresAt;
+        if (fileName != null && !fileName.isEmpty()) {
+            payload += "\nname:" + fileName;
+        }
+        return hmac(payload);
+    }
+
+    private String sign(String method, String storageKey, long expiresAt, long size) {
+        return hmac(method + "\n" + storageKey + "\n" + expiresAt + "\n" + size);
+    }
+
+    private String hmac(String data) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            byte[] digest = mac.doFinal(data.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 서명 실패", e);
+        }
+    }
+
+    private void requireEnabled() {
+        if (!enabled) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "직접 업로드가 비활성화되어 있습니다.");
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.dto.ChatMessageDto;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 방별 최근 메시지 링 버퍼
+ * - 각 방의 가장 최신 메시지 N개를 (createdAt, messageId) 오름차순으로 보관합니다.
+ * - 버퍼는 항상 "방의 최신 메시지부터 끊김 없이 이어진 구간"만 담습니다. complete=true 이면 방의 전체 이력입니다.
+ * - 저장/수정/삭제 커밋 후 ChatMessageService 가 갱신하며, 초기 이력 로딩이 버퍼로 충족되면 DB를 조회하지 않습니다.
+ * - 전체 메시지 수가 max-total-messages 를 넘으면 오래 사용되지 않은 방부터 제거합니다.
+ */
+@Component
+@Slf4j
+public class RecentMessageCache {
+
+    @Value("${chat.recent-cache.enabled:true}")
+    private boolean enabled;
+
+    // 방당 최대 보관 메시지 수
+    @Value("${chat.recent-cache.per-room:100}")
+    private int perRoom;
+
+    // 전체 방 합산 최대 메시지 수 (메모리 예산)
+    @Value("${chat.recent-cache.max-total-messages:200000}")
+    private int maxTotalMessages;
+
+    // 이 시간 이상 접근이 없는 방은 정리 대상
+    @Value("${chat.recent-cache.idle-minutes:30}")
+    private long idleMinutes;
+
+    private final Map<String, RoomBuffer> rooms = new ConcurrentHashMap<>();
+    private final AtomicInteger totalMessages = new AtomicInteger();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    /**
+     * 새로 만든 방: 메시지가 없는 완전한(complete) 버퍼로 시작
+     */
+    public void markEmpty(String roomId) {
+        if (!enabled || roomId == null) {
+            return;
+        }
+        rooms.putIfAbsent(roomId, new RoomBuffer(true));
+    }
+
+    /**
+     * 저장이 커밋된 메시지를 추가합니다. (messageId 가 있어야 함)
+     */
+    public void append(ChatMessageDto message) {
+        if (!enabled || message.getRoomId() == null || message.getMessageId() == null) {
+            return;
+        }
+        RoomBuffer buffer = rooms.computeIfAbsent(message.getRoomId(), id -> new RoomBuffer(false));
+        synchronized (buffer) {
+            if (buffer.evicted) {
+                return;
+            }
+            buffer.insert(message);
+            buffer.touch();
+        }
+        evictIfNeeded();
+    }
+
+    /**
+     * DB에서 읽은 방의 최신 구간으로 버퍼를 채웁니다. 이미 버퍼가 있으면 무시합니다.
+     * @param newestTail 방의 가장 최신 메시지까지 이어지는 구간 (오름차순)
+     * @param complete 구간이 방의 전체 이력인지 여부
+     */
+    public void seed(String roomId, List<ChatMessageDto> newestTail, boolean complete) {
+        if (!enabled || roomId == null) {
+            return;
+        }
+        RoomBuffer buffer = new RoomBuffer(complete);
+        synchronized (buffer) {
+            for (ChatMessageDto message : newestTail) {
+                buffer.insert(message);
+            }
+            buffer.touch();
+        }
+        if (rooms.putIfAbsent(roomId, buffer) != null) {
+            // 그 사이 다른 경로로 버퍼가 생김 -> 채운 만큼 되돌림
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+        evictIfNeeded();
+    }
+
+    public void update(String roomId, Long messageId, String newMessage) {
+        RoomBuffer buffer = roomId == null ? null : rooms.get(roomId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            for (ChatMessageDto message : buffer.messages) {
+                if (Objects.equals(message.getMessageId(), messageId)) {
+                    message.setMessage(newMessage);
+                    return;
+                }
+            }
+        }
+    }
+
+    public void remove(String roomId, Long messageId) {
+        RoomBuffer buffer = roomId == null ? null : rooms.get(roomId);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            Iterator<ChatMessageDto> it = buffer.messages.iterator();
+            while (it.hasNext()) {
+                if (Objects.equals(it.next().getMessageId(), messageId)) {
+                    it.remove();
+                    totalMessages.decrementAndGet();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 버퍼를 버립니다. (방 삭제, 또는 messageId 없이 저장되어 버퍼와 DB가 어긋날 수 있을 때)
+     */
+    public void invalidate(String roomId) {
+        RoomBuffer buffer = roomId == null ? null : rooms.remove(roomId);
+        if (buffer != null) {
+            synchronized (buffer) {
+                buffer.clear();
+            }
+        }
+    }
+
+    /**
+     * 방 버퍼의 복사본을 반환합니다. 버퍼가 없으면 null
+     */
+    public Snapshot snapshot(String roomId) {
+        if (!enabled || roomId == null) {
+            return null;
+        }
+        RoomBuffer buffer = rooms.get(roomId);
+        if (buffer == null) {
+            return null;
+        }
+        synchronized (buffer) {
+            if (buffer.evicted) {
+                return null;
+            }
+            buffer.touch();
+            return new Snapshot(new ArrayList<>(buffer.messages), buffer.complete);
+        }
+    }
+
+    // 메모리 예산 초과 시: 유휴 방 우선, 그다음 오래 접근하지 않은 순으로 예산의 90%까지 제거
+    private void evictIfNeeded() {
+        if (totalMessages.get() <= maxTotalMessages || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long idleBefore = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(idleMinutes);
+            int target = (int) (maxTotalMessages * 0.9);
+
+            List<Map.Entry<String, RoomBuffer>> entries = new ArrayList<>(rooms.entrySet());
+            entries.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+
+            int evictedRooms = 0;
+            for (Map.Entry<String, RoomBuffer> entry : entries) {
+                boolean idle = entry.getValue().lastAccess < idleBefore;
+                if (!idle && totalMessages.get() <= target) {
+                    break;
+                }
+                if (rooms.remove(entry.getKey(), entry.getValue())) {
+                    synchronized (entry.getValue()) {
+                        entry.getValue().clear();
+                    }
+                    evictedRooms++;
+                }
+            }
+            log.info("[RECENT-CACHE] {}개 방 버퍼 제거. 남은 메시지 수: {}", evictedRooms, totalMessages.get());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Snapshot {
+        // (createdAt, messageId) 오름차순
+        private final List<ChatMessageDto> messages;
+        // 방의 전체 이력을 담고 있는지 여부
+        private final boolean complete;
+    }
+
+    private static final Comparator<ChatMessageDto> ORDER =
+            Comparator.comparing(ChatMessageDto::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparing(ChatMessageDto::getMessageId, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    // 모든 접근은 synchronized(buffer)
+    private class RoomBuffer {
+        private final ArrayDeque<ChatMessageDto> messages = new ArrayDeque<>();
+        private boolean complete;
+        private boolean evicted;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        RoomBuffer(boolean complete) {
+            this.complete = complete;
+        }
+
+        void touch() {
+            lastAccess = System.currentTimeMillis();
+        }
+
+        // 뒤에서부터 정렬 위치를 찾아 삽입 (대부분 맨 뒤), 같은 messageId 는 무시
+        void insert(ChatMessageDto message) {
+            List<ChatMessageDto> tail = new ArrayList<>();
+            while (!messages.isEmpty() && ORDER.compare(messages.peekLast(), message) > 0) {
+                tail.add(messages.pollLast());
+            }
+            ChatMessageDto last = messages.peekLast();
+            boolean duplicate = last != null && Objects.equals(last.getMessageId(), message.getMessageId());
+            if (!duplicate) {
+                messages.addLast(message);
+                totalMessages.incrementAndGet();
+            }
+            for (int i = tail.size() - 1; i >= 0; i--) {
+                messages.addLast(tail.get(i));
+            }
+            while (messages.size() > perRoom) {
+                messages.pollFirst();
+                totalMessages.decrementAndGet();
+                complete = false;
+            }
+        }
+
+        void clear() {
+            totalMessages.addAndGet(-messages.size());
+            messages.clear();
+            evicted = true;
+        }
+    }
+}
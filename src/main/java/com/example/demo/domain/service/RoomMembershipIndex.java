@@ -0,0 +1,291 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.config.StompSubscriptionRegistry;
+import com.example.demo.domain.repository.RoomMemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채팅방 멤버십 인덱스 (STOMP SUBSCRIBE/SEND 권한 확인용)
+ * - 방마다 멤버 user id 를 불변 long 해시 집합으로 보관하여 프레임마다 DB를 조회하지 않고 O(1)로 확인합니다.
+ * - 방 생성/멤버 추가/강퇴/방 삭제 시 트랜잭션 커밋 후 갱신되며(copy-on-write), 강퇴 시 해당 사용자의 구독을 즉시 해제합니다.
+ * - 커밋된 변경은 ChatFanoutRelay 로 다른 노드에도 전달되어 같은 방식으로 반영됩니다. (강퇴 시 다른 노드의 구독도 해제)
+ * - 인덱스에 없는 방은 처음 확인할 때 DB에서 적재합니다. DB 조회는 맵 잠금 밖에서 하고(같은 bin 의 다른 방이 느린 쿼리에 막히거나
+ *   가상 스레드 carrier 가 고정되지 않도록), 방마다 변경 버전을 두어 조회 중에 반영된 변경(추가/강퇴)이 있으면 결과를 설치하지 않습니다.
+ *   (적재 결과가 그 사이의 강퇴를 되살리지 못함)
+ * - 전달이 누락된 경우에 대비해 적재 후 ttl-seconds 가 지나면 DB에서 다시 적재합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class RoomMembershipIndex {
+
+    private final RoomMemberRepository roomMemberRepository;
+    private final StompSubscriptionRegistry stompSubscriptionRegistry;
+    // ChatFanoutRelay 가 이 인덱스를 주입받으므로 사용 시점에 조회
+    private final ObjectProvider<ChatFanoutRelay> chatFanoutRelay;
+
+    // 적재 후 이 시간이 지나면 DB에서 다시 적재 (다중 노드 반영)
+    @Value("${chat.membership.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    private final Map<String, Members> rooms = new ConcurrentHashMap<>();
+    // 방별 변경 버전 (rooms 의 같은 키 compute 안에서만 증가시켜 설치 여부 판단과 직렬화, 되돌아가지 않도록 삭제하지 않음)
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 사용자가 방의 멤버인지 확인합니다.
+     */
+    public boolean isMember(String roomId, Long userId) {
+        if (roomId == null || userId == null) {
+            return false;
+        }
+        Members members = rooms.get(roomId);
+        if (members == null || members.isExpired()) {
+            members = load(roomId, members);
+        }
+        return members.ids.contains(userId);
+    }
+
+    // 맵 잠금 밖에서 DB 조회 후, 조회 중에 변경이 없었을 때만 설치
+    private Members load(String roomId, Members stale) {
+        long version = versions.getOrDefault(roomId, 0L);
+        Members loaded = new Members(LongHashSet.of(roomMemberRepository.findUserIdsByRoomId(roomId)));
+        Members installed = rooms.compute(roomId, (id, current) -> {
+            if (current != null && current != stale && !current.isExpired()) {
+                // 다른 스레드가 먼저 적재했거나 변경이 반영된 최신 상태
+                return current;
+            }
+            return versions.getOrDefault(id, 0L) == version ? loaded : current;
+        });
+        // 조회 중 변경이 있어 설치하지 못했으면 이번 확인에만 조회 결과 사용 (다음 확인 때 다시 적재)
+        return installed != null && !installed.isExpired() ? installed : loaded;
+    }
+
+    // 방 생성
+    public void initRoom(String roomId, Collection<Long> userIds) {
+        afterCommit(() -> {
+            rooms.compute(roomId, (id, current) -> {
+                bumpVersion(id);
+                return new Members(LongHashSet.of(userIds));
+            });
+            publish(Change.UPDATED, roomId, null);
+        });
+    }
+
+    // 멤버 추가
+    public void addMembers(String roomId, Collection<Long> userIds) {
+        afterCommit(() -> {
+            rooms.compute(roomId, (id, members) -> {
+                bumpVersion(id);
+                return members == null ? null : members.withIds(members.ids.with(userIds));
+            });
+            publish(Change.UPDATED, roomId, null);
+        });
+    }
+
+    // 강퇴: 인덱스에서 제거하고 현재 노드의 구독도 즉시 해제
+    public void removeMember(String roomId, Long userId) {
+        afterCommit(() -> {
+            applyMemberRemoved(roomId, userId);
+            publish(Change.MEMBER_REMOVED, roomId, userId);
+        });
+    }
+
+    // 방 삭제
+    public void removeRoom(String roomId) {
+        afterCommit(() -> {
+            applyRoomRemoved(roomId);
+            publish(Change.ROOM_REMOVED, roomId, null);
+        });
+    }
+
+    /**
+     * 다른 노드에서 커밋된 변경을 반영합니다. (ChatFanoutRelay 가 호출)
+     */
+    public void applyRemoteChange(Change change, String roomId, Long userId) {
+        switch (change) {
+            // 추가된 멤버 목록은 전달하지 않으므로 다음 확인 때 DB에서 다시 적재
+            case UPDATED -> invalidate(roomId);
+            case MEMBER_REMOVED -> applyMemberRemoved(roomId, userId);
+            case ROOM_REMOVED -> applyRoomRemoved(roomId);
+        }
+    }
+
+    private void applyMemberRemoved(String roomId, Long userId) {
+        rooms.compute(roomId, (id, members) -> {
+            bumpVersion(id);
+            return members == null ? null : members.withIds(members.ids.without(userId));
+        });
+        stompSubscriptionRegistry.revoke(roomId, userId);
+    }
+
+    private void applyRoomRemoved(String roomId) {
+        invalidate(roomId);
+        stompSubscriptionRegistry.revokeRoom(roomId);
+    }
+
+    private void invalidate(String roomId) {
+        rooms.compute(roomId, (id, members) -> {
+            bumpVersion(id);
+            return null;
+        });
+    }
+
+    // rooms.compute 안에서만 호출
+    private void bumpVersion(String roomId) {
+        versions.merge(roomId, 1L, Long::sum);
+    }
+
+    private void publish(Change change, String roomId, Long userId) {
+        chatFanoutRelay.getObject().publishMembershipChange(change, roomId, userId);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // 다른 노드로 전달하는 멤버십 변경 종류
+    public enum Change {
+        UPDATED, MEMBER_REMOVED, ROOM_REMOVED
+    }
+
+    private class Members {
+        private final LongHashSet ids;
+        private final long loadedAt;
+
+        Members(LongHashSet ids) {
+            this(ids, System.currentTimeMillis());
+        }
+
+        private Members(LongHashSet ids, long loadedAt) {
+            this.ids = ids;
+            this.loadedAt = loadedAt;
+        }
+
+        // 변경 반영 (DB 적재 시각은 유지하여 ttl 이 지나면 다시 적재)
+        Members withIds(LongHashSet ids) {
+            return new Members(ids, loadedAt);
+        }
+
+        boolean isExpired() {
+            return loadedAt < System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(ttlSeconds);
+        }
+    }
+
+    /**
+     * 불변 long 해시 집합 (open addressing, 선형 탐사)
+     * - 0 은 빈 슬롯 표시로 쓰므로 별도 플래그로 보관합니다.
+     */
+    static final class LongHashSet {
+        private final long[] slots;
+        private final boolean containsZero;
+        private final int size;
+
+        private LongHashSet(long[] slots, boolean containsZero, int size) {
+            this.slots = slots;
+            this.containsZero = containsZero;
+            this.size = size;
+        }
+
+        static LongHashSet of(Collection<Long> values) {
+            int capacity = Integer.highestOneBit(Math.max(4, values.size() * 2 - 1)) << 1;
+            long[] slots = new long[capacity];
+            boolean containsZero = false;
+            int size = 0;
+            for (Long value : values) {
+                if (value == null) {
+                    continue;
+                }
+                if (value == 0L) {
+                    if (!containsZero) {
+                        containsZero = true;
+                        size++;
+                    }
+                } else if (insert(slots, value)) {
+                    size++;
+                }
+            }
+            return new LongHashSet(slots, containsZero, size);
+        }
+
+        boolean contains(long value) {
+            if (value == 0L) {
+                return containsZero;
+            }
+            int mask = slots.length - 1;
+            for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == value) {
+                    return true;
+                }
+                if (slots[i] == 0L) {
+                    return false;
+                }
+            }
+        }
+
+        LongHashSet with(Collection<Long> values) {
+            List<Long> merged = new ArrayList<>(size + values.size());
+            forEach(merged);
+            merged.addAll(values);
+            return of(merged);
+        }
+
+        LongHashSet without(long value) {
+            List<Long> remaining = new ArrayList<>(size);
+            forEach(remaining);
+            remaining.remove(Long.valueOf(value));
+            return of(remaining);
+        }
+
+        private void forEach(List<Long> target) {
+            if (containsZero) {
+                target.add(0L);
+            }
+            for (long slot : slots) {
+                if (slot != 0L) {
+                    target.add(slot);
+                }
+            }
+        }
+
+        private static boolean insert(long[] slots, long value) {
+            int mask = slots.length - 1;
+            for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+                if (slots[i] == value) {
+                    return false;
+                }
+                if (slots[i] == 0L) {
+                    slots[i] = value;
+                    return true;
+                }
+            }
+        }
+
+        private static int mix(long value) {
+            long h = value * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
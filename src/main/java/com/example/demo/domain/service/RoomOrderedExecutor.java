@@ -0,0 +1,170 @@
+package com.example.demo.domain.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 방 단위 순서 보장 실행기 (스트라이프)
+ * - roomId 해시로 스트라이프를 정하고, 각 스트라이프는 전용 워커 하나가 큐 순서대로 실행합니다.
+ *   같은 방의 작업은 항상 같은 스트라이프에서 직렬 실행되므로 저장/브로드캐스트 순서가 보장되고, 다른 방은 병렬로 실행됩니다.
+ * - 스트라이프 큐가 가득 차면 offer-timeout 동안 대기(백프레셔) 후, 그래도 자리가 없으면 RejectedExecutionException 을 던집니다.
+ *   호출 스레드에서 대신 실행하면 방 내 순서가 깨지므로 실행하지 않고, 호출자가 거부를 알리도록 합니다.
+ * - 스트라이프별 대기 건수/최대 대기 건수/처리 건수/포화 건수를 getStats() 로 제공합니다.
+ */
+@Component
+@Slf4j
+public class RoomOrderedExecutor {
+
+    // 스트라이프 수 (0 이하이면 CPU 코어 수 x 2)
+    @Value("${chat.room-executor.stripes:0}")
+    private int stripes;
+
+    // 스트라이프별 최대 대기 작업 수
+    @Value("${chat.room-executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    // 스트라이프 큐가 가득 찼을 때 생산자가 대기하는 최대 시간
+    @Value("${chat.room-executor.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    private Stripe[] stripeArray;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        int count = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 2;
+        this.stripeArray = new Stripe[count];
+        this.running = true;
+        for (int i = 0; i < count; i++) {
+            Stripe stripe = new Stripe(i, new ArrayBlockingQueue<>(queueCapacity));
+            String name = "chat-room-stripe-" + i;
+            stripe.worker = virtualThreads
+                    ? Thread.ofVirtual().name(name).unstarted(stripe::runLoop)
+                    : Thread.ofPlatform().name(name).daemon(true).unstarted(stripe::runLoop);
+            stripe.worker.start();
+            stripeArray[i] = stripe;
+        }
+        log.info("CHAT ROOM EXECUTOR: {} stripes (queueCapacity={}, virtual={})", count, queueCapacity, virtualThreads);
+    }
+
+    /**
+     * 방의 이전 작업이 모두 끝난 뒤 실행되도록 작업을 넣습니다.
+     *
+     * @throws RejectedExecutionException 종료 중이거나 offer-timeout 동안 스트라이프 큐에 자리가 나지 않은 경우
+     */
+    public void execute(String roomId, Runnable task) {
+        Stripe stripe = stripeArray[Math.floorMod(roomId == null ? 0 : roomId.hashCode(), stripeArray.length)];
+        if (!running) {
+            throw new RejectedExecutionException("room executor is stopped");
+        }
+        try {
+            if (stripe.queue.offer(task, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                stripe.recordDepth();
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stripe.saturated.incrementAndGet();
+        log.warn("[ROOM-EXECUTOR] 스트라이프 {} 포화 ({}건). 작업을 거부합니다. roomId={}",
+                stripe.index, stripe.queue.size(), roomId);
+        throw new RejectedExecutionException("room stripe " + stripe.index + " is saturated");
+    }
+
+    /**
+     * 스트라이프별 실행 현황
+     */
+    public List<StripeStats> getStats() {
+        List<StripeStats> stats = new ArrayList<>(stripeArray.length);
+        for (Stripe stripe : stripeArray) {
+            stats.add(new StripeStats(stripe.index, stripe.queue.size(), stripe.maxDepth.get(),
+                    stripe.completed.get(), stripe.saturated.get()));
+        }
+        return stats;
+    }
+
+    /**
+     * 종료 시 새 작업을 받지 않고, 이미 들어온 작업은 모두 실행한 뒤 워커를 멈춥니다.
+     */
+    @PreDestroy
+    public void stop() {
+        running = false;
+        for (Stripe stripe : stripeArray) {
+            try {
+                stripe.worker.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("CHAT ROOM EXECUTOR: stopped.");
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class StripeStats {
+        private final int stripe;
+        private final int queueDepth;
+        private final long maxQueueDepth;
+        private final long completed;
+        private final long saturated;
+    }
+
+    private class Stripe {
+        private final int index;
+        private final BlockingQueue<Runnable> queue;
+        private final AtomicLong maxDepth = new AtomicLong();
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong saturated = new AtomicLong();
+        private Thread worker;
+
+        Stripe(int index, BlockingQueue<Runnable> queue) {
+            this.index = index;
+            this.queue = queue;
+        }
+
+        void recordDepth() {
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+        }
+
+        void runLoop() {
+            try {
+                while (running || !queue.isEmpty()) {
+                    Runnable task = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (task != null) {
+                        runSafely(task);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // 작업 예외가 워커를 멈추지 않도록 격리
+        void runSafely(Runnable task) {
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("[ROOM-EXECUTOR] 스트라이프 {} 작업 실패", index, e);
+            } finally {
+                completed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.demo.domain.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AbortMultipartUploadRequest;
+import com.amazonaws.services.s3.model.CompleteMultipartUploadRequest;
+import com.amazonaws.services.s3.model.InitiateMultipartUploadRequest;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.MultipartUpload;
+import com.amazonaws.services.s3.model.MultipartUploadListing;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PartETag;
+import com.amazonaws.services.s3.model.UploadPartRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * S3 멀티파트 업로드 엔진
+ * - 스트림을 part-size 단위로 읽어 파트별로 병렬 업로드합니다. 파트 버퍼는 고정 개수의 풀에서 빌려 쓰므로
+ *   파일 크기와 관계없이 메모리 사용량은 buffer-count x part-size 로 일정합니다. (풀이 비면 읽기가 대기)
+ * - 실패한 파트만 max-retries 까지 다시 올리고, 최종 실패 시 업로드를 abort 합니다.
+ * - 중단된 채 남은 업로드(서버 재시작 등)는 주기적으로 찾아 abort 합니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class S3MultipartUploader {
+
+    // S3 최소 파트 크기 (마지막 파트 제외)
+    private static final int MIN_PART_SIZE = 5 * 1024 * 1024;
+
+    private final AmazonS3 s3Client;
+    private final String s3BucketName;
+    private final StorageModeManager storageModeManager;
+
+    // 이 크기 이상인 파일만 멀티파트 업로드
+    @Value("${aws.s3.multipart.threshold-bytes:16777216}")
+    private long thresholdBytes;
+
+    @Value("${aws.s3.multipart.part-size-bytes:8388608}")
+    private int partSizeBytes;
+
+    // 동시에 업로드하는 파트 수 (전체 업로드 공유)
+    @Value("${aws.s3.multipart.parallelism:4}")
+    private int parallelism;
+
+    // 파트 버퍼 개수 (메모리 상한 = buffer-count x part-size)
+    @Value("${aws.s3.multipart.buffer-count:8}")
+    private int bufferCount;
+
+    @Value("${aws.s3.multipart.max-retries:3}")
+    private int maxRetries;
+
+    // 이 시간보다 오래된 미완료 업로드는 abort
+    @Value("${aws.s3.multipart.stale-upload-hours:24}")
+    private long staleUploadHours;
+
+    private ExecutorService partExecutor;
+    private BlockingQueue<byte[]> bufferPool;
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void init() {
+        this.partSizeBytes = Math.max(partSizeBytes, MIN_PART_SIZE);
+        AtomicInteger sequence = new AtomicInteger();
+        this.partExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "s3-part-upload-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 버퍼는 필요할 때 만들고 반납 시 재사용 (빈 슬롯 = 아직 만들지 않은 버퍼)
+        this.bufferPool = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++) {
+            bufferPool.add(new byte[0]);
+        }
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "s3-multipart-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.sweeper.scheduleWithFixedDelay(this::abortStaleUploads, 1, 6 * 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sweeper.shutdownNow();
+        partExecutor.shutdown();
+    }
+
+    public boolean shouldUseMultipart(long size) {
+        return size >= thresholdBytes;
+    }
+
+    /**
+     * 스트림을 멀티파트로 업로드합니다. 실패 시 업로드를 abort 하고 IOException 을 던집니다.
+     */
+    public void upload(String storageKey, InputStream inputStream, ObjectMetadata metadata) throws IOException {
+        String uploadId = s3Client.initiateMultipartUpload(
+                new InitiateMultipartUploadRequest(s3BucketName, storageKey, metadata)).getUploadId();
+
+        List<CompletableFuture<PartETag>> parts = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            while (true) {
+                // 이미 실패한 파트가 있으면 더 읽지 않음
+                if (parts.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    break;
+                }
+                byte[] buffer = borrowBuffer();
+                int length;
+                try {
+                    length = readFully(inputStream, buffer);
+                } catch (IOException e) {
+                    bufferPool.add(buffer);
+                    throw e;
+                }
+                if (length == 0 && partNumber > 1) {
+                    bufferPool.add(buffer);
+                    break;
+                }
+                int currentPart = partNumber++;
+                parts.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return uploadPart(storageKey, uploadId, currentPart, buffer, length);
+                    } finally {
+                        bufferPool.add(buffer);
+                    }
+                }, partExecutor));
+                if (length < buffer.length) {
+                    break;
+                }
+            }
+
+            List<PartETag> partETags = new ArrayList<>(parts.size());
+            for (CompletableFuture<PartETag> part : parts) {
+                partETags.add(part.join());
+            }
+            partETags.sort(Comparator.comparingInt(PartETag::getPartNumber));
+
+            s3Client.completeMultipartUpload(new CompleteMultipartUploadRequest(s3BucketName, storageKey, uploadId, partETags));
+            log.info("S3 멀티파트 업로드 완료: key={}, parts={}", storageKey, partETags.size());
+
+        } catch (Exception e) {
+            // 진행 중인 파트가 끝나(버퍼 반납) 기다린 뒤 abort
+            parts.forEach(part -> part.handle((result, error) -> null).join());
+            abortQuietly(storageKey, uploadId);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new IOException("S3 멀티파트 업로드 실패: " + storageKey, cause);
+        }
+    }
+
+    // 실패한 파트만 재시도 (버퍼에 남아 있으므로 스트림을 다시 읽을 필요 없음)
+    private PartETag uploadPart(String storageKey, String uploadId, int partNumber, byte[] buffer, int length) {
+        RuntimeException last = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (attempt > 0) {
+                log.warn("S3 파트 재시도: key={}, part={}, attempt={}", storageKey, partNumber, attempt);
+                sleepBackoff(attempt);
+            }
+            try {
+                UploadPartRequest request = new UploadPartRequest()
+                        .withBucketName(s3BucketName)
+                        .withKey(storageKey)
+                        .withUploadId(uploadId)
+                        .withPartNumber(partNumber)
+                        .withInputStream(new ByteArrayInputStream(buffer, 0, length))
+                        .withPartSize(length);
+                return s3Client.uploadPart(request).getPartETag();
+            } catch (RuntimeException e) {
+                last = e;
+            }
+        }
+        throw last;
+    }
+
+    private byte[] borrowBuffer() throws InterruptedException {
+        byte[] buffer = bufferPool.take();
+        return buffer.length == partSizeBytes ? buffer : new byte[partSizeBytes];
+    }
+
+    private int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int read = inputStream.read(buffer, total, buffer.length - total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private void sleepBackoff(int attempt) {
+        try {
+            Thread.sleep(200L * (1L << (attempt - 1)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void abortQuietly(String storageKey, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(new AbortMultipartUploadRequest(s3BucketName, storageKey, uploadId));
+            log.warn("S3 멀티파트 업로드 abort: key={}", storageKey);
+        } catch (Exception e) {
+            log.error("S3 멀티파트 업로드 abort 실패 (주기 정리에서 다시 시도): key={}", storageKey, e);
+        }
+    }
+
+    // 완료/abort 되지 않고 남은 업로드 정리 (서버 중단 등)
+    private void abortStaleUploads() {
+        if (storageModeManager.isLocalMode()) {
+            return;
+        }
+        try {
+            Date cutoff = new Date(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(staleUploadHours));
+            ListMultipartUploadsRequest request = new ListMultipartUploadsRequest(s3BucketName);
+            MultipartUploadListing listing;
+            int aborted = 0;
+            do {
+                listing = s3Client.listMultipartUploads(request);
+                for (MultipartUpload upload : listing.getMultipartUploads()) {
+                    if (upload.getInitiated().before(cutoff)) {
+                        abortQuietly(upload.getKey(), upload.getUploadId());
+                        aborted++;
+                    }
+                }
+                request.setKeyMarker(listing.getNextKeyMarker());
+                request.setUploadIdMarker(listing.getNextUploadIdMarker());
+            } while (listing.isTruncated());
+            if (aborted > 0) {
+                log.info("S3 미완료 멀티파트 업로드 {}건 abort", aborted);
+            }
+        } catch (Exception e) {
+            log.warn("S3 미완료 업로드 정리 실패: {}", e.getMessage());
+        }
+    }
+}
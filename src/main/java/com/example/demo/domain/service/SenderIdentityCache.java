@@ -0,0 +1,156 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.entity.user.User;
+import com.example.demo.domain.repository.UserRepository;
+import com.example.demo.util.KoreanNameUtil;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 채팅 발신자 표시 정보(이름/초성) 캐시
+ * - 메시지마다 findByEmail/findById 를 호출하지 않도록 email, id 두 키로 보관합니다.
+ * - 최대 개수(LRU)와 TTL로 제한되며, 프로필 변경/탈퇴 시 evict 로 무효화합니다.
+ *   무효화는 트랜잭션 커밋 후에 하므로, 커밋 전에 다른 요청이 이전 값을 다시 적재하는 일이 없습니다.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class SenderIdentityCache {
+
+    private static final String EMAIL_KEY = "email:";
+    private static final String ID_KEY = "id:";
+
+    private final UserRepository userRepository;
+
+    @Value("${chat.sender-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${chat.sender-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // 접근 순서 기반 LRU (모든 접근은 synchronized(cache))
+    private final Map<String, CacheEntry> cache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > maxSize;
+        }
+    };
+
+    /**
+     * 발신자 식별자(email 또는 숫자 id)로 표시 정보를 조회합니다.
+     * 캐시에 없으면 DB에서 조회 후 적재합니다.
+     */
+    public Optional<SenderIdentity> get(String sender) {
+        if (sender == null || sender.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Long userId = parseUserId(sender);
+        SenderIdentity cached = lookup(EMAIL_KEY + sender);
+        if (cached == null && userId != null) {
+            cached = lookup(ID_KEY + userId);
+        }
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        // 캐시 미스: 기존 ChatController 로직과 동일하게 email -> id 순으로 조회
+        Optional<User> userOpt = userRepository.findByEmail(sender);
+        if (userOpt.isEmpty() && userId != null) {
+            userOpt = userRepository.findById(userId);
+        }
+        return userOpt.map(this::put);
+    }
+
+    /**
+     * 해당 사용자의 캐시 항목(email, id 키 모두)을 제거합니다. (프로필 변경, 회원 탈퇴 시)
+     * 트랜잭션 안에서 호출하면 커밋 후에 제거합니다.
+     */
+    public void evict(Long userId, String email) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remove(userId, email);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remove(userId, email);
+            }
+        });
+    }
+
+    private void remove(Long userId, String email) {
+        synchronized (cache) {
+            if (email != null) {
+                CacheEntry entry = cache.remove(EMAIL_KEY + email);
+                if (entry != null && entry.identity.getUserId() != null) {
+                    cache.remove(ID_KEY + entry.identity.getUserId());
+                }
+            }
+            // email 항목이 이미 LRU/TTL 로 빠졌어도 id 항목은 남아 있을 수 있음
+            if (userId != null) {
+                cache.remove(ID_KEY + userId);
+            }
+        }
+    }
+
+    private SenderIdentity put(User user) {
+        String senderName = user.getUserName();
+        SenderIdentity identity = new SenderIdentity(
+                user.getId(), user.getEmail(), senderName, KoreanNameUtil.extractInitial(senderName));
+        CacheEntry entry = new CacheEntry(identity, System.currentTimeMillis() + ttlSeconds * 1000);
+        synchronized (cache) {
+            cache.put(EMAIL_KEY + user.getEmail(), entry);
+            if (user.getId() != null) {
+                cache.put(ID_KEY + user.getId(), entry);
+            }
+        }
+        return identity;
+    }
+
+    private SenderIdentity lookup(String key) {
+        synchronized (cache) {
+            CacheEntry entry = cache.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt < System.currentTimeMillis()) {
+                cache.remove(key);
+                return null;
+            }
+            return entry.identity;
+        }
+    }
+
+    private Long parseUserId(String sender) {
+        try {
+            return Long.parseLong(sender);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static class CacheEntry {
+        private final SenderIdentity identity;
+        private final long expiresAt;
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class SenderIdentity {
+        private final Long userId;
+        private final String email;
+        private final String senderName;
+        private final String senderInitial;
+    }
+}
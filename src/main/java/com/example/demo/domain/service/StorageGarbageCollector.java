@@ -0,0 +1,579 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.domain.entity.StoredFileEntity;
+import com.example.demo.domain.repository.ChatMessageRepository;
+import com.example.demo.domain.repository.CommunityImageRepository;
+import com.example.demo.domain.repository.StoredBlobRepository;
+import com.example.demo.domain.repository.StoredFileRepository;
+import com.example.demo.domain.repository.UserProfileRepository;
+import com.example.demo.domain.storage.StorageBackend;
+import com.example.demo.domain.storage.StoredObject;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 저장소 GC (참조되지 않는 파일 정리)
+ * - 표시: UserProfile 프로필/배너 URL, 메시지 fileUrl/본문/metadata, 커뮤니티 이미지 저장 키를 id 커서 페이지로 읽어
+ *   등장하는 UUID 를 모읍니다. (저장 키 파일명은 항상 UUID 이고 변형본도 같은 UUID 를 쓰므로 URL 형식과 무관하게 비교)
+ * - 정리: prefixes 아래 키를 페이지 단위로 나열하여, 파일명 UUID 가 참조되지 않고 grace-hours 보다 오래된 객체를
+ *   일괄 삭제(S3 multi-object delete)합니다. 파일명에 UUID 가 없는 객체는 건드리지 않습니다.
+ * - 중복 제거: 참조되지 않는 stored_file 매핑은 release 하고, 행이 없는 오래된 blobs/ 파일을 삭제한 뒤
+ *   참조 수 0 인 채 오래된 stored_blob 행을 지웁니다. (행을 지운 blob 파일은 다음 회차에서 삭제)
+ * - 삭제 직전에 표시 이후 새로 저장된 메시지를 다시 읽어 참조를 보강합니다.
+ * - deletes-per-second 로 삭제 속도를 제한하고, dry-run 이면 삭제 대상만 집계/로그합니다.
+ * - 여러 노드 중 Redis 잠금(lock-ttl-minutes 임대, 실행 중 갱신)을 얻은 한 노드만 실행하며, 잠금을 잃으면 즉시 중단합니다.
+ * - blobs/ 파일은 stored_blob digest 를 잠근 트랜잭션 안에서 행 부재/수정 시각을 다시 확인한 뒤 하나씩 삭제합니다.
+ *   (ContentAddressedStore 는 새 행 INSERT 후 파일 존재를 확인하므로, 그사이 다시 쓰인 blob 을 잃지 않음)
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class StorageGarbageCollector {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final String BLOB_PREFIX = "blobs/";
+
+    private final StorageBackend storageBackend;
+    private final ContentAddressedStore contentAddressedStore;
+    private final UserProfileRepository userProfileRepository;
+    private final ChatMessageRepository chatMessageRepository;
+    private final CommunityImageRepository communityImageRepository;
+    private final StoredFileRepository storedFileRepository;
+    private final StoredBlobRepository storedBlobRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final String LOCK_KEY = "storage-gc:lock";
+    // 내 토큰일 때만 만료 연장/삭제
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private static final DefaultRedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    @Value("${storage.gc.enabled:true}")
+    private boolean enabled;
+
+    // true 면 삭제하지 않고 대상만 집계 (운영 적용 전 확인용)
+    @Value("${storage.gc.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.gc.initial-delay-minutes:30}")
+    private long initialDelayMinutes;
+
+    @Value("${storage.gc.interval-hours:24}")
+    private long intervalHours;
+
+    // 이보다 최근에 저장된 객체는 참조가 없어도 유지 (업로드 직후 메시지 전송 전 등)
+    @Value("${storage.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${storage.gc.prefixes:chat/,profile/,banner/,community/}")
+    private List<String> prefixes;
+
+    @Value("${storage.gc.page-size:1000}")
+    private int pageSize;
+
+    @Value("${storage.gc.deletes-per-second:200}")
+    private int deletesPerSecond;
+
+    // 목록 페이지 사이 대기 (저장소 LIST 요청 속도 제한)
+    @Value("${storage.gc.page-delay-ms:100}")
+    private long pageDelayMs;
+
+    // 실행 잠금 임대 시간 (실행 중 1/3 마다 갱신, 노드가 죽으면 이 시간 뒤 다른 노드가 실행 가능)
+    @Value("${storage.gc.lock-ttl-minutes:10}")
+    private long lockTtlMinutes;
+
+    private ScheduledExecutorService scheduler;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Progress progress;
+    private long nextDeleteNanos;
+    private String lockToken;
+    private long lockRenewAtMillis;
+
+    @PostConstruct
+    public void init() {
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "storage-gc");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            scheduler.scheduleWithFixedDelay(() -> runOnce(dryRun), initialDelayMinutes,
+                    TimeUnit.HOURS.toMinutes(intervalHours), TimeUnit.MINUTES);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * GC 를 바로 한 번 실행합니다. (이미 실행 중이면 false)
+     * @param dryRunOverride null 이면 설정값 사용
+     */
+    public boolean trigger(Boolean dryRunOverride) {
+        if (running.get()) {
+            return false;
+        }
+        boolean effectiveDryRun = dryRunOverride != null ? dryRunOverride : dryRun;
+        scheduler.execute(() -> runOnce(effectiveDryRun));
+        return true;
+    }
+
+    /**
+     * 최근(또는 진행 중) 실행 현황
+     */
+    public GcStats getStats() {
+        Progress current = progress;
+        if (current == null) {
+            return new GcStats(false, dryRun, null, null, "IDLE", 0, 0, 0, 0, 0, 0, 0, 0, 0);
+        }
+        return current.snapshot(running.get());
+    }
+
+    private void runOnce(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        Progress current = new Progress(dryRun);
+        this.progress = current;
+        try {
+            if (!acquireLock()) {
+                current.phase = "SKIPPED";
+                log.info("[STORAGE-GC] 다른 노드에서 실행 중 - 건너뜀");
+                return;
+            }
+            long cutoffMillis = System.currentTimeMillis() - TimeUnit.HOURS.toMillis(graceHours);
+            LocalDateTime cutoff = LocalDateTime.ofInstant(Instant.ofEpochMilli(cutoffMillis), ZoneId.systemDefault());
+            log.info("[STORAGE-GC] 시작 (dryRun={}, cutoff={})", dryRun, cutoff);
+
+            current.phase = "MARK";
+            ReferenceSet references = new ReferenceSet();
+            markProfiles(references);
+            markCommunityImages(references);
+            references.lastMessageId = markMessages(references, 0L);
+            current.referencedIds.set(references.ids.size());
+
+            if (contentAddressedStore.isEnabled()) {
+                current.phase = "RELEASE_KEYS";
+                releaseUnreferencedKeys(references, cutoff, current);
+            }
+
+            current.phase = "SWEEP";
+            for (String prefix : prefixes) {
+                sweep(prefix.trim(), references, cutoffMillis, current);
+            }
+
+            if (contentAddressedStore.isEnabled()) {
+                current.phase = "SWEEP_BLOBS";
+                sweep(BLOB_PREFIX, references, cutoffMillis, current);
+                if (!dryRun) {
+                    current.phase = "DELETE_BLOB_ROWS";
+                    int deletedRows;
+                    do {
+                        deletedRows = storedBlobRepository.deleteReleasedBefore(cutoff, pageSize);
+                        current.deletedBlobRows.addAndGet(deletedRows);
+                    } while (deletedRows == pageSize);
+                }
+            }
+            current.phase = "DONE";
+        } catch (Exception e) {
+            current.phase = "FAILED";
+            current.errors.incrementAndGet();
+            log.error("[STORAGE-GC] 실패", e);
+        } finally {
+            releaseLock();
+            current.finishedAt = LocalDateTime.now();
+            running.set(false);
+            log.info("[STORAGE-GC] 종료: phase={}, scanned={}, deleted={} ({} bytes), releasedKeys={}, deletedBlobRows={}, dryRun={}",
+                    current.phase, current.scannedObjects.get(), current.deletedObjects.get(), current.deletedBytes.get(),
+                    current.releasedKeys.get(), current.deletedBlobRows.get(), dryRun);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 표시 (참조 수집)
+    // -------------------------------------------------------------------------
+
+    private void markProfiles(ReferenceSet references) {
+        long afterId = 0L;
+        while (true) {
+            checkLock();
+            List<Object[]> rows = userProfileRepository.findImageUrlsAfter(afterId, PageRequest.of(0, pageSize));
+            for (Object[] row : rows) {
+                references.addFrom((String) row[1]);
+                references.addFrom((String) row[2]);
+                afterId = (Long) row[0];
+            }
+            if (rows.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    private void markCommunityImages(ReferenceSet references) {
+        long afterId = 0L;
+        while (true) {
+            checkLock();
+            List<Object[]> rows = communityImageRepository.findStorageKeysAfter(afterId, PageRequest.of(0, pageSize));
+            for (Object[] row : rows) {
+                references.addFrom((String) row[1]);
+                afterId = (Long) row[0];
+            }
+            if (rows.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    // @return 마지막으로 읽은 messageId (다음 보강 스캔의 시작점)
+    private long markMessages(ReferenceSet references, long afterId) {
+        while (true) {
+            checkLock();
+            List<Object[]> rows = chatMessageRepository.findStorageReferencesAfter(afterId, PageRequest.of(0, pageSize));
+            for (Object[] row : rows) {
+                references.addFrom((String) row[1]);
+                references.addFrom((String) row[2]);
+                references.addFrom((String) row[3]);
+                afterId = (Long) row[0];
+            }
+            if (rows.size() < pageSize) {
+                return afterId;
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 정리
+    // -------------------------------------------------------------------------
+
+    // 참조되지 않는 중복 제거 매핑 해제 (blob 참조 수 감소 → 0 이면 이후 회차에서 파일 삭제)
+    private void releaseUnreferencedKeys(ReferenceSet references, LocalDateTime cutoff, Progress current) {
+        String afterKey = "";
+        while (true) {
+            checkLock();
+            List<StoredFileEntity> page = storedFileRepository.findByStorageKeyGreaterThanOrderByStorageKeyAsc(
+                    afterKey, PageRequest.of(0, pageSize));
+            List<String> candidates = new ArrayList<>();
+            for (StoredFileEntity storedFile : page) {
+                UUID id = uuidOf(storedFile.getStorageKey());
+                if (id != null && !references.ids.contains(id) && storedFile.getCreatedAt().isBefore(cutoff)) {
+                    candidates.add(storedFile.getStorageKey());
+                }
+                afterKey = storedFile.getStorageKey();
+            }
+            if (!candidates.isEmpty()) {
+                references.lastMessageId = markMessages(references, references.lastMessageId);
+                for (String storageKey : candidates) {
+                    if (references.ids.contains(uuidOf(storageKey))) {
+                        continue;
+                    }
+                    if (current.dryRun) {
+                        log.info("[STORAGE-GC] (dry-run) 매핑 해제 대상: {}", storageKey);
+                    } else {
+                        throttle(1);
+                        contentAddressedStore.release(storageKey);
+                    }
+                    current.releasedKeys.incrementAndGet();
+                }
+            }
+            if (page.size() < pageSize) {
+                return;
+            }
+        }
+    }
+
+    private void sweep(String prefix, ReferenceSet references, long cutoffMillis, Progress current) throws Exception {
+        boolean blobs = BLOB_PREFIX.equals(prefix);
+        String startAfter = null;
+        while (true) {
+            checkLock();
+            List<StoredObject> page = storageBackend.list(prefix, startAfter, pageSize);
+            if (page.isEmpty()) {
+                return;
+            }
+            current.scannedObjects.addAndGet(page.size());
+            startAfter = page.get(page.size() - 1).getKey();
+
+            List<StoredObject> candidates = blobs
+                    ? unreferencedBlobs(page, cutoffMillis, current)
+                    : unreferencedObjects(page, references, cutoffMillis, current);
+            if (!candidates.isEmpty() && !blobs) {
+                // 표시 이후 새 메시지가 오래된 파일을 참조했을 수 있으므로 보강 후 다시 확인
+                references.lastMessageId = markMessages(references, references.lastMessageId);
+                candidates.removeIf(object -> references.ids.contains(uuidOf(object.getKey())));
+            }
+            if (blobs) {
+                deleteBlobs(candidates, cutoffMillis, current);
+            } else {
+                delete(candidates, current);
+            }
+
+            if (page.size() < pageSize) {
+                return;
+            }
+            Thread.sleep(pageDelayMs);
+        }
+    }
+
+    private List<StoredObject> unreferencedObjects(List<StoredObject> page, ReferenceSet references, long cutoffMillis, Progress current) {
+        List<StoredObject> candidates = new ArrayList<>();
+        for (StoredObject object : page) {
+            UUID id = uuidOf(object.getKey());
+            if (id == null) {
+                current.skippedObjects.incrementAndGet();
+            } else if (!references.ids.contains(id)) {
+                if (object.getLastModified() < 0 || object.getLastModified() > cutoffMillis) {
+                    current.youngObjects.incrementAndGet();
+                } else {
+                    candidates.add(object);
+                }
+            }
+        }
+        return candidates;
+    }
+
+    // stored_blob 행이 없는 blob 파일 (행 삭제는 이전 회차에서 수행)
+    private List<StoredObject> unreferencedBlobs(List<StoredObject> page, long cutoffMillis, Progress current) {
+        List<String> digests = new ArrayList<>(page.size());
+        for (StoredObject object : page) {
+            digests.add(object.getKey().substring(object.getKey().lastIndexOf('/') + 1));
+        }
+        Set<String> existing = new HashSet<>(storedBlobRepository.findExistingDigests(digests));
+
+        List<StoredObject> candidates = new ArrayList<>();
+        for (StoredObject object : page) {
+            String digest = object.getKey().substring(object.getKey().lastIndexOf('/') + 1);
+            if (existing.contains(digest)) {
+                continue;
+            }
+            if (object.getLastModified() < 0 || object.getLastModified() > cutoffMillis) {
+                current.youngObjects.incrementAndGet();
+            } else {
+                candidates.add(object);
+            }
+        }
+        return candidates;
+    }
+
+    private void delete(List<StoredObject> candidates, Progress current) throws Exception {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        long bytes = candidates.stream().mapToLong(StoredObject::getSize).sum();
+        if (current.dryRun) {
+            candidates.forEach(object -> log.info("[STORAGE-GC] (dry-run) 삭제 대상: {} ({} bytes)", object.getKey(), object.getSize()));
+        } else {
+            throttle(candidates.size());
+            storageBackend.deleteAll(candidates.stream().map(StoredObject::getKey).toList());
+        }
+        current.deletedObjects.addAndGet(candidates.size());
+        current.deletedBytes.addAndGet(bytes);
+    }
+
+    // 행 없는 blob 파일을 digest 잠금 아래에서 다시 확인하고 하나씩 삭제
+    private void deleteBlobs(List<StoredObject> candidates, long cutoffMillis, Progress current) {
+        for (StoredObject object : candidates) {
+            if (current.dryRun) {
+                log.info("[STORAGE-GC] (dry-run) blob 삭제 대상: {} ({} bytes)", object.getKey(), object.getSize());
+                current.deletedObjects.incrementAndGet();
+                current.deletedBytes.addAndGet(object.getSize());
+                continue;
+            }
+            throttle(1);
+            String digest = object.getKey().substring(object.getKey().lastIndexOf('/') + 1);
+            Boolean deleted = transactionTemplate.execute(status -> {
+                if (!storedBlobRepository.lockDigest(digest).isEmpty()) {
+                    return false;
+                }
+                try {
+                    // 목록 조회 이후 같은 내용이 다시 업로드되었으면 수정 시각이 바뀜
+                    StoredObject latest = storageBackend.stat(object.getKey());
+                    if (latest == null || latest.getLastModified() < 0 || latest.getLastModified() > cutoffMillis) {
+                        return false;
+                    }
+                    return storageBackend.delete(object.getKey());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (Boolean.TRUE.equals(deleted)) {
+                current.deletedObjects.incrementAndGet();
+                current.deletedBytes.addAndGet(object.getSize());
+            } else {
+                current.youngObjects.incrementAndGet();
+            }
+        }
+    }
+
+    // 초당 deletes-per-second 를 넘지 않도록 대기
+    private void throttle(int count) {
+        checkLock();
+        if (deletesPerSecond <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(now, nextDeleteNanos);
+        nextDeleteNanos = start + TimeUnit.SECONDS.toNanos(count) / deletesPerSecond;
+        long waitNanos = start - now;
+        if (waitNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("저장소 GC 중단", e);
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // 실행 잠금 (노드 간 단일 실행)
+    // -------------------------------------------------------------------------
+
+    private boolean acquireLock() {
+        String token = UUID.randomUUID().toString();
+        Boolean acquired = stringRedisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, Duration.ofMinutes(lockTtlMinutes));
+        if (!Boolean.TRUE.equals(acquired)) {
+            return false;
+        }
+        this.lockToken = token;
+        this.lockRenewAtMillis = System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(lockTtlMinutes) / 3;
+        return true;
+    }
+
+    // 갱신 시점이면 임대를 연장하고, 잠금을 잃었으면 실행 중단 (삭제 전마다 호출)
+    private void checkLock() {
+        long now = System.currentTimeMillis();
+        if (now < lockRenewAtMillis) {
+            return;
+        }
+        Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, List.of(LOCK_KEY), lockToken,
+                String.valueOf(TimeUnit.MINUTES.toMillis(lockTtlMinutes)));
+        if (renewed == null || renewed == 0) {
+            throw new IllegalStateException("저장소 GC 실행 잠금을 잃었습니다.");
+        }
+        this.lockRenewAtMillis = now + TimeUnit.MINUTES.toMillis(lockTtlMinutes) / 3;
+    }
+
+    private void releaseLock() {
+        if (lockToken == null) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(UNLOCK_SCRIPT, List.of(LOCK_KEY), lockToken);
+        } catch (Exception e) {
+            log.warn("[STORAGE-GC] 실행 잠금 해제 실패 (임대 만료 후 해제): {}", e.getMessage());
+        } finally {
+            this.lockToken = null;
+        }
+    }
+
+    // 저장 키 파일명(확장자/변형본 접미사 앞)의 UUID
+    private static UUID uuidOf(String storageKey) {
+        String fileName = storageKey.substring(storageKey.lastIndexOf('/') + 1);
+        Matcher matcher = UUID_PATTERN.matcher(fileName);
+        if (!matcher.find()) {
+            return null;
+        }
+        return UUID.fromString(matcher.group());
+    }
+
+    private static class ReferenceSet {
+        private final Set<UUID> ids = new HashSet<>();
+        private long lastMessageId;
+
+        void addFrom(String text) {
+            if (text == null || text.isEmpty()) {
+                return;
+            }
+            Matcher matcher = UUID_PATTERN.matcher(text);
+            while (matcher.find()) {
+                ids.add(UUID.fromString(matcher.group()));
+            }
+        }
+    }
+
+    // 실행 중 갱신되는 집계 (GC 스레드에서만 쓰기)
+    private static class Progress {
+        private final boolean dryRun;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private volatile LocalDateTime finishedAt;
+        private volatile String phase = "START";
+        private final AtomicLong referencedIds = new AtomicLong();
+        private final AtomicLong scannedObjects = new AtomicLong();
+        private final AtomicLong skippedObjects = new AtomicLong();
+        private final AtomicLong youngObjects = new AtomicLong();
+        private final AtomicLong deletedObjects = new AtomicLong();
+        private final AtomicLong deletedBytes = new AtomicLong();
+        private final AtomicLong releasedKeys = new AtomicLong();
+        private final AtomicLong deletedBlobRows = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+
+        Progress(boolean dryRun) {
+            this.dryRun = dryRun;
+        }
+
+        GcStats snapshot(boolean running) {
+            return new GcStats(running, dryRun, startedAt, finishedAt, phase, referencedIds.get(), scannedObjects.get(),
+                    skippedObjects.get(), youngObjects.get(), deletedObjects.get(), deletedBytes.get(),
+                    releasedKeys.get(), deletedBlobRows.get(), errors.get());
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class GcStats {
+        private final boolean running;
+        private final boolean dryRun;
+        private final LocalDateTime startedAt;
+        private final LocalDateTime finishedAt;
+        private final String phase;
+        // 참조로 수집한 UUID 수
+        private final long referencedIds;
+        private final long scannedObjects;
+        // 파일명에 UUID 가 없어 건너뛴 객체
+        private final long skippedObjects;
+        // 참조는 없지만 grace 기간 이내인 객체
+        private final long youngObjects;
+        // 삭제한(dry-run 이면 삭제 대상) 객체 수/크기
+        private final long deletedObjects;
+        private final long deletedBytes;
+        private final long releasedKeys;
+        private final long deletedBlobRows;
+        private final long errors;
+    }
+}
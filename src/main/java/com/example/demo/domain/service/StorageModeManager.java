@@ -5,44 +5,60 @@ import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
 import jakarta.annotation.PostConstruct;
 
+import java.util.Locale;
+
+/**
+ * 저장소 모드 (로컬 / 원격)
+ * - storage.backend 설정이 기준입니다. local, memory 는 로컬 모드, s3, tiered 는 원격(S3) 모드로 시작합니다.
+ * - storage.mode.toggle-enabled=true 인 개발 환경에서만 실행 중 모드를 전환할 수 있습니다.
+ */
 @Component
 @Slf4j
 public class StorageModeManager {
 
-    // 💡 테스트 코드가 존재하는지 확인할 클래스의 정규화된 이름
-    private static final String TEST_CLASS_NAME = "com.example.demo.test.LocalFileUtil";
+    public static final String BACKEND_LOCAL = "local";
+    public static final String BACKEND_S3 = "s3";
+    public static final String BACKEND_TIERED = "tiered";
+    public static final String BACKEND_MEMORY = "memory";
+
+    // 🔑 로컬 모드 상태를 보유하는 변수 (개발용 전환으로 바뀔 수 있음)
+    private volatile boolean isLocalMode;
 
-    // 🔑 로컬 모드 상태를 보유하는 변수
-    private boolean isLocalMode;
+    @Value("${storage.backend:local}")
+    private String backend;
 
-    // 🔑 개발 환경에서 수동으로 모드를 강제하기 위한 플래그 (선택적)
-    @Value("${storage.mode.force-s3:false}")
-    private boolean forceS3Mode;
+    // 🔑 개발 환경에서 실행 중 모드 전환 허용 (운영에서는 끔)
+    @Value("${storage.mode.toggle-enabled:false}")
+    private boolean toggleEnabled;
 
     /**
      * 애플리케이션 시작 시점에 초기화됩니다.
      */
     @PostConstruct
     public void init() {
-        if (forceS3Mode) {
-            this.isLocalMode = false;
-            log.warn("STORAGE MODE: S3 Mode is FORCE-ENABLED by configuration.");
-            return;
-        }
-
-        try {
-            // 1. 클래스로더를 사용하여 특정 테스트 클래스 (LocalFileUtil)를 찾습니다.
-            Class.forName(TEST_CLASS_NAME);
+        this.backend = normalize(backend);
+        this.isLocalMode = BACKEND_LOCAL.equals(backend) || BACKEND_MEMORY.equals(backend);
+        log.info("STORAGE MODE: {} MODE (storage.backend={}, toggle-enabled={})",
+                isLocalMode ? "LOCAL" : "S3", backend, toggleEnabled);
+    }
 
-            // 2. 클래스 로드에 성공하면 (테스트 파일 존재), 로컬 모드 활성화
-            this.isLocalMode = true;
-            log.warn("STORAGE MODE: LOCAL MODE activated. Detected test class [{}]", TEST_CLASS_NAME);
+    /**
+     * storage.backend 값을 검증하여 소문자로 반환합니다.
+     */
+    public static String normalize(String backend) {
+        String value = backend == null ? "" : backend.trim().toLowerCase(Locale.ROOT);
+        return switch (value) {
+            case BACKEND_LOCAL, BACKEND_S3, BACKEND_TIERED, BACKEND_MEMORY -> value;
+            default -> throw new IllegalStateException(
+                    "storage.backend 는 local, s3, tiered, memory 중 하나여야 합니다: " + backend);
+        };
+    }
 
-        } catch (ClassNotFoundException e) {
-            // 3. 클래스 로드에 실패하면 (테스트 파일 삭제), S3 모드 활성화
-            this.isLocalMode = false;
-            log.info("STORAGE MODE: S3 MODE activated. Test class [{}] not found.", TEST_CLASS_NAME);
-        }
+    /**
+     * 설정된 저장소 종류 (local, s3, tiered, memory)
+     */
+    public String getBackend() {
+        return backend;
     }
 
     /**
@@ -52,12 +68,19 @@ public class StorageModeManager {
         return isLocalMode;
     }
 
+    public boolean isToggleEnabled() {
+        return toggleEnabled;
+    }
+
     /**
-     * 저장소 모드를 수동으로 전환합니다. (개발 시 버튼용)
+     * 저장소 모드를 수동으로 전환합니다. (개발 시 버튼용, storage.mode.toggle-enabled=true 일 때만)
      */
     public boolean toggleMode() {
+        if (!toggleEnabled) {
+            throw new IllegalStateException("저장소 모드 전환이 비활성화되어 있습니다. (storage.mode.toggle-enabled)");
+        }
         this.isLocalMode = !this.isLocalMode;
         log.warn("STORAGE MODE: Mode manually toggled to {}", this.isLocalMode ? "LOCAL" : "S3");
         return this.isLocalMode;
     }
-}
\ No newline at end of file
+}
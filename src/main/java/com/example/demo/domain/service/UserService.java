@@ -1,6 +1,8 @@
 package com.example.demo.domain.service;
 
+import com.example.demo.config.auth.LoginAttemptThrottle;
 import com.example.demo.config.auth.jwt.JWTTokenProvider;
+import com.example.demo.config.auth.jwt.TokenBlacklist;
 import com.example.demo.config.auth.logoutHandler.CustomLogoutSuccessHandler;
 import com.example.demo.config.auth.redis.RedisUtil;
 import com.example.demo.domain.dto.*;
@@ -61,6 +63,18 @@ public class UserService {
     @Autowired
     private FileService fileService;
 
+    @Autowired
+    private SenderIdentityCache senderIdentityCache;
+
+    @Autowired
+    private TokenBlacklist tokenBlacklist;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private LoginAttemptThrottle loginAttemptThrottle;
+
     // 회원가입
     @Transactional
     public Long joinRegistration(JoinDto dto) throws Exception {
@@ -129,6 +143,7 @@ public class UserService {
             log.info("DEBUG: Profile Storage Key: {}", storageKey);
             String profileDownloadUrl = "/api/profile/download/" + storageKey;
             userProfile.setProfileImageUrl(profileDownloadUrl);
+            imageVariantService.scheduleVariants(storageKey);
         }
 
         MultipartFile bannerFile = dto.getBannerImageUrl();
@@ -136,6 +151,7 @@ public class UserService {
             String storageKey = fileService.uploadAndReturnStorageKey(bannerFile, "banner");
             String bannerDownloadUrl = "/api/profile/download/" + storageKey;
             userProfile.setBannerImageUrl(bannerDownloadUrl);
+            imageVariantService.scheduleVariants(storageKey);
         } else {
             log.info("INFO: Banner file not provided, retaining existing URL.");
         }
@@ -149,6 +165,24 @@ public class UserService {
         }
         log.warn("FINAL_PROFILE_URL: {}", userProfile.getProfileImageUrl());
         userRepository.flush();
+        senderIdentityCache.evict(user.getId(), email);
+    }
+
+    // 직접 업로드(presigned)로 올라간 프로필/배너 이미지 반영 (kind: profile | banner)
+    @Transactional
+    public void applyUploadedImage(String email, String kind, String storageKey) {
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다: " + email));
+        UserProfile userProfile = user.getUserProfile();
+
+        String downloadUrl = "/api/profile/download/" + storageKey;
+        if ("banner".equals(kind)) {
+            userProfile.setBannerImageUrl(downloadUrl);
+        } else {
+            userProfile.setProfileImageUrl(downloadUrl);
+        }
+        userRepository.flush();
+        senderIdentityCache.evict(user.getId(), email);
     }
 
     @Transactional
@@ -186,25 +220,33 @@ public class UserService {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
         System.out.println("사용자 email : " + user.getEmail());
-        log.info("DB 비밀번호: {}", user.getPassword());
-        log.info("matches 결과: {}", encoder.matches(password, user.getPassword()));
-
         if (!quitDto.isAgreed()) throw new IllegalArgumentException("항목에 동의해야 회원탈퇴가 됩니다.");
 
-        if (!encoder.matches(password, user.getPassword()))
+        if (!loginAttemptThrottle.isConfirmAllowed(email))
+            throw new IllegalArgumentException("시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+
+        // BCrypt 검증은 한 번만 수행 (전용 풀에서 실행)
+        boolean matches = encoder.matches(password, user.getPassword());
+        log.info("matches 결과: {}", matches);
+        if (!matches) {
+            loginAttemptThrottle.recordConfirmFailure(email);
             throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
+        }
+        loginAttemptThrottle.resetConfirm(email);
 
         String accessToken = jwtTokenProvider.resolveToken(request);
         if (accessToken != null) {
             Long remainingExpirationMillis = jwtTokenProvider.getRemainingExpiration(accessToken);
             if (remainingExpirationMillis > 0) {
-                redisUtil.setDataExpire(accessToken, "quit", remainingExpirationMillis);
+                tokenBlacklist.add(accessToken, remainingExpirationMillis);
             }
         }
         redisUtil.delete("RT : " + user.getEmail());
         System.out.println("DEBUG: User Delete Attempt for 레디스 토큰삭제 확인 : " + user.getEmail());
 
         userRepository.deleteByEmail(email);
+        senderIdentityCache.evict(user.getId(), email);
+        jwtTokenProvider.evictAuthentication(email);
         System.out.println("DB삭제 완료");
 
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -219,8 +261,14 @@ public class UserService {
                 .orElseThrow(() -> new IllegalArgumentException("사용자를 찾을 수 없습니다."));
         System.out.println("DEBUG: 6. DB에서 사용자 로드됨: " + user.getEmail());
 
-        if (!encoder.matches(currentPassword, user.getPassword()))
+        if (!loginAttemptThrottle.isConfirmAllowed(email))
+            throw new IllegalArgumentException("시도가 너무 많습니다. 잠시 후 다시 시도해주세요.");
+
+        if (!encoder.matches(currentPassword, user.getPassword())) {
+            loginAttemptThrottle.recordConfirmFailure(email);
             throw new IllegalArgumentException("비밀번호가 일치하지 않습니다.");
+        }
+        loginAttemptThrottle.resetConfirm(email);
         System.out.println("DEBUG: 7. PW 비교 시도 (입력된 PW와 DB PW): " + currentPassword);
 
         String encodedNewPassword = encoder.encode(newPassword);
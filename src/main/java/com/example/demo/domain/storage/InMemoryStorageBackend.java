@@ -0,0 +1,73 @@
+package com.example.demo.domain.storage;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.util.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.NoSuchFileException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 메모리 저장소 (테스트/단일 노드 데모용, storage.backend=memory)
+ * - 재시작하면 모두 사라지며, 큰 파일을 올리면 그만큼 힙을 사용합니다.
+ */
+public class InMemoryStorageBackend implements StorageBackend {
+
+    private final Map<String, StoredEntry> objects = new ConcurrentHashMap<>();
+
+    @Override
+    public StoredObject stat(String key) {
+        StoredEntry entry = objects.get(key);
+        return entry == null ? null : entry.metadata;
+    }
+
+    @Override
+    public InputStream open(String key, long start, long count) throws IOException {
+        StoredEntry entry = objects.get(key);
+        if (entry == null) {
+            throw new NoSuchFileException(key);
+        }
+        int offset = (int) Math.min(start, entry.data.length);
+        int length = count < 0 ? entry.data.length - offset : (int) Math.min(count, entry.data.length - offset);
+        return new ByteArrayInputStream(entry.data, offset, length);
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("저장 키가 비어 있습니다.");
+        }
+        byte[] data = inputStream.readAllBytes();
+        StoredObject metadata = new StoredObject(key, data.length, System.currentTimeMillis(),
+                DigestUtils.md5DigestAsHex(data), contentType);
+        objects.put(key, new StoredEntry(data, metadata));
+    }
+
+    @Override
+    public boolean delete(String key) {
+        return objects.remove(key) != null;
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) {
+        return objects.keySet().stream()
+                .filter(key -> prefix == null || key.startsWith(prefix))
+                .filter(key -> startAfter == null || key.compareTo(startAfter) > 0)
+                .sorted()
+                .limit(maxKeys)
+                .map(this::stat)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    @RequiredArgsConstructor
+    private static class StoredEntry {
+        private final byte[] data;
+        private final StoredObject metadata;
+    }
+}
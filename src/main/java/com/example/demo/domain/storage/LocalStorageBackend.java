@@ -0,0 +1,170 @@
+package com.example.demo.domain.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * 로컬 파일 시스템 저장소 (root 아래에 키 경로 그대로 저장)
+ * - 임시 파일에 쓴 뒤 rename 하므로 쓰는 도중의 파일이 읽히지 않습니다.
+ * - ETag 는 크기-수정시각 조합입니다.
+ */
+@Slf4j
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path root;
+
+    public LocalStorageBackend(Path root) throws IOException {
+        this.root = root.toAbsolutePath().normalize();
+        Files.createDirectories(this.root);
+        log.info("로컬 저장소 경로: {}", this.root);
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        Path path = resolve(key);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (!attributes.isRegularFile()) {
+            return null;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = Long.toHexString(attributes.size()) + "-" + Long.toHexString(lastModified);
+        return new StoredObject(key, attributes.size(), lastModified, etag, null);
+    }
+
+    @Override
+    public InputStream open(String key, long start, long count) throws IOException {
+        FileChannel channel = FileChannel.open(resolve(key), StandardOpenOption.READ);
+        try {
+            channel.position(start);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        InputStream inputStream = Channels.newInputStream(channel);
+        return count < 0 ? inputStream : new BoundedInputStream(inputStream, count);
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(inputStream, temp, StandardCopyOption.REPLACE_EXISTING);
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(file, temp, StandardCopyOption.REPLACE_EXISTING);
+            moveIntoPlace(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        Path base = prefix == null || prefix.isEmpty() ? root : root.resolve(prefix).normalize();
+        if (!base.startsWith(root)) {
+            throw new IllegalArgumentException("잘못된 prefix 입니다: " + prefix);
+        }
+        // prefix 가 디렉토리 중간에서 끝날 수 있으므로 상위 디렉토리부터 탐색
+        Path walkRoot = Files.isDirectory(base) ? base : base.getParent();
+        if (walkRoot == null || !Files.isDirectory(walkRoot)) {
+            return List.of();
+        }
+
+        // 사전순 가장 작은 maxKeys 개만 유지 (디렉토리 탐색 순서는 정렬되지 않음)
+        TreeSet<String> page = new TreeSet<>();
+        try (Stream<Path> walk = Files.walk(walkRoot)) {
+            Iterator<Path> iterator = walk.iterator();
+            while (iterator.hasNext()) {
+                Path path = iterator.next();
+                if (path.getFileName().toString().startsWith(".") || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                String key = root.relativize(path).toString().replace('\\', '/');
+                if ((prefix != null && !key.startsWith(prefix)) || (startAfter != null && key.compareTo(startAfter) <= 0)) {
+                    continue;
+                }
+                page.add(key);
+                if (page.size() > maxKeys) {
+                    page.pollLast();
+                }
+            }
+        }
+
+        List<StoredObject> objects = new ArrayList<>(page.size());
+        for (String key : page) {
+            StoredObject stored = stat(key);
+            if (stored != null) {
+                objects.add(stored);
+            }
+        }
+        return objects;
+    }
+
+    @Override
+    public Path localPath(String key) {
+        Path path = resolve(key);
+        return Files.isRegularFile(path) ? path : null;
+    }
+
+    private Path resolve(String key) {
+        if (key == null || key.isEmpty()) {
+            throw new IllegalArgumentException("저장 키가 비어 있습니다.");
+        }
+        Path path = root.resolve(key).normalize();
+        // 경로 탐색 공격 방지
+        if (!path.startsWith(root) || path.equals(root)) {
+            throw new IllegalArgumentException("잘못된 저장 키입니다: " + key);
+        }
+        return path;
+    }
+
+    private static void moveIntoPlace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.domain.storage;
+
+import com.example.demo.domain.service.StorageModeManager;
+import lombok.RequiredArgsConstructor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * StorageModeManager 의 현재 모드에 따라 로컬/원격 저장소로 위임합니다.
+ * (개발용 모드 전환 API 로 실행 중에 바뀔 수 있으므로 호출마다 확인)
+ */
+@RequiredArgsConstructor
+public class ModeSwitchingStorageBackend implements StorageBackend {
+
+    private final StorageModeManager storageModeManager;
+    private final StorageBackend localBackend;
+    private final StorageBackend remoteBackend;
+
+    private StorageBackend current() {
+        return storageModeManager.isLocalMode() ? localBackend : remoteBackend;
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        return current().stat(key);
+    }
+
+    @Override
+    public InputStream open(String key, long start, long count) throws IOException {
+        return current().open(key, start, count);
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        current().put(key, inputStream, size, contentType);
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        current().put(key, file, contentType);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        return current().delete(key);
+    }
+
+    @Override
+    public int deleteAll(List<String> keys) throws IOException {
+        return current().deleteAll(keys);
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        return current().list(prefix, startAfter, maxKeys);
+    }
+
+    @Override
+    public Path localPath(String key) throws IOException {
+        return current().localPath(key);
+    }
+}
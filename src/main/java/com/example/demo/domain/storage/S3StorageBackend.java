@@ -0,0 +1,184 @@
+package com.example.demo.domain.storage;
+
+import com.amazonaws.AmazonClientException;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.example.demo.domain.service.S3MultipartUploader;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * S3 저장소
+ * - 큰 파일(또는 크기를 모르는 스트림)은 S3MultipartUploader 로 파트 병렬 업로드합니다.
+ * - 404 는 stat → null / open → NoSuchFileException, 403 은 AccessDeniedException 으로 바꿔 던집니다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class S3StorageBackend implements StorageBackend {
+
+    // DeleteObjects / ListObjectsV2 한 번에 처리 가능한 최대 키 수
+    private static final int MAX_DELETE_BATCH = 1000;
+
+    private final AmazonS3 s3Client;
+    private final String bucketName;
+    private final S3MultipartUploader s3MultipartUploader;
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        ObjectMetadata metadata;
+        try {
+            metadata = s3Client.getObjectMetadata(bucketName, key);
+        } catch (AmazonS3Exception e) {
+            if (e.getStatusCode() == 404) {
+                return null;
+            }
+            throw translate(key, e);
+        } catch (AmazonClientException e) {
+            throw translate(key, e);
+        }
+        long lastModified = metadata.getLastModified() != null ? metadata.getLastModified().getTime() : -1;
+        return new StoredObject(key, metadata.getContentLength(), lastModified, metadata.getETag(), metadata.getContentType());
+    }
+
+    @Override
+    public InputStream open(String key, long start, long count) throws IOException {
+        GetObjectRequest request = new GetObjectRequest(bucketName, key);
+        if (count >= 0) {
+            if (count == 0) {
+                return InputStream.nullInputStream();
+            }
+            request.setRange(start, start + count - 1);
+        } else if (start > 0) {
+            request.setRange(start);
+        }
+        try {
+            S3Object s3Object = s3Client.getObject(request);
+            return s3Object.getObjectContent();
+        } catch (AmazonClientException e) {
+            throw translate(key, e);
+        }
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        // 크기를 모르면 전체를 메모리에 올리지 않도록 멀티파트로 업로드
+        if (size < 0 || s3MultipartUploader.shouldUseMultipart(size)) {
+            s3MultipartUploader.upload(key, inputStream, metadata);
+            return;
+        }
+        metadata.setContentLength(size);
+        try {
+            s3Client.putObject(new PutObjectRequest(bucketName, key, inputStream, metadata));
+        } catch (AmazonClientException e) {
+            throw translate(key, e);
+        }
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        long size = Files.size(file);
+        if (s3MultipartUploader.shouldUseMultipart(size)) {
+            StorageBackend.super.put(key, file, contentType);
+            return;
+        }
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType(contentType);
+        metadata.setContentLength(size);
+        try {
+            // 파일 업로드는 실패 시 SDK 가 처음부터 다시 읽어 재시도 가능
+            s3Client.putObject(new PutObjectRequest(bucketName, key, file.toFile()).withMetadata(metadata));
+        } catch (AmazonClientException e) {
+            throw translate(key, e);
+        }
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        try {
+            s3Client.deleteObject(bucketName, key);
+            return true;
+        } catch (AmazonClientException e) {
+            throw translate(key, e);
+        }
+    }
+
+    @Override
+    public int deleteAll(List<String> keys) throws IOException {
+        int deleted = 0;
+        // 요청당 최대 1000개
+        for (int from = 0; from < keys.size(); from += MAX_DELETE_BATCH) {
+            List<String> batch = keys.subList(from, Math.min(from + MAX_DELETE_BATCH, keys.size()));
+            DeleteObjectsRequest request = new DeleteObjectsRequest(bucketName)
+                    .withKeys(batch.toArray(new String[0]))
+                    .withQuiet(true);
+            try {
+                s3Client.deleteObjects(request);
+                deleted += batch.size();
+            } catch (MultiObjectDeleteException e) {
+                // 일부 실패: 실패한 키를 제외하고 계속
+                deleted += batch.size() - e.getErrors().size();
+                log.warn("S3 일괄 삭제 일부 실패: {}건 (첫 오류: {})", e.getErrors().size(),
+                        e.getErrors().isEmpty() ? "-" : e.getErrors().get(0).getKey() + " " + e.getErrors().get(0).getCode());
+            } catch (AmazonClientException e) {
+                throw translate(batch.get(0), e);
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        ListObjectsV2Request request = new ListObjectsV2Request()
+                .withBucketName(bucketName)
+                .withPrefix(prefix)
+                .withStartAfter(startAfter)
+                .withMaxKeys(Math.min(maxKeys, MAX_DELETE_BATCH));
+        try {
+            ListObjectsV2Result result = s3Client.listObjectsV2(request);
+            List<StoredObject> objects = new ArrayList<>(result.getObjectSummaries().size());
+            for (S3ObjectSummary summary : result.getObjectSummaries()) {
+                long lastModified = summary.getLastModified() != null ? summary.getLastModified().getTime() : -1;
+                objects.add(new StoredObject(summary.getKey(), summary.getSize(), lastModified, summary.getETag(), null));
+            }
+            return objects;
+        } catch (AmazonClientException e) {
+            throw translate(prefix, e);
+        }
+    }
+
+    private static IOException translate(String key, AmazonClientException e) {
+        if (e instanceof AmazonS3Exception s3Exception) {
+            if (s3Exception.getStatusCode() == 404) {
+                NoSuchFileException notFound = new NoSuchFileException(key);
+                notFound.initCause(e);
+                return notFound;
+            }
+            if (s3Exception.getStatusCode() == 403) {
+                AccessDeniedException denied = new AccessDeniedException(key, null, "S3 접근이 거부되었습니다.");
+                denied.initCause(e);
+                return denied;
+            }
+        }
+        return new IOException("S3 오류: " + key, e);
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo.domain.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * 파일 저장소 SPI
+ * - 키는 "dir/uuid.ext" 형태의 상대 경로이며, 잘못된 키(경로 탐색 등)는 IllegalArgumentException 입니다.
+ * - 없는 객체를 읽으면 NoSuchFileException, 그 외 저장소 오류는 IOException 으로 알립니다.
+ * - 구현: LocalStorageBackend(로컬 디스크), S3StorageBackend, InMemoryStorageBackend(테스트용),
+ *   TieredStorageBackend(원격 앞단 디스크 캐시), ModeSwitchingStorageBackend(StorageModeManager 에 따라 선택)
+ */
+public interface StorageBackend {
+
+    /**
+     * 객체 메타데이터를 반환합니다. (없으면 null)
+     */
+    StoredObject stat(String key) throws IOException;
+
+    /**
+     * [start, start + count) 구간을 읽는 스트림을 엽니다. (count < 0 이면 끝까지, 호출자가 닫음)
+     */
+    InputStream open(String key, long start, long count) throws IOException;
+
+    default InputStream open(String key) throws IOException {
+        return open(key, 0, -1);
+    }
+
+    /**
+     * 스트림을 키에 저장합니다. 같은 키가 있으면 덮어쓰며, 스트림은 호출자가 닫습니다.
+     * @param size 모르면 -1
+     */
+    void put(String key, InputStream inputStream, long size, String contentType) throws IOException;
+
+    /**
+     * 로컬 파일을 키에 저장합니다. (구현에 따라 파일 업로드 API 를 바로 사용)
+     */
+    default void put(String key, Path file, String contentType) throws IOException {
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            put(key, inputStream, Files.size(file), contentType);
+        }
+    }
+
+    /**
+     * 객체를 삭제합니다.
+     * @return 삭제했으면 true (없던 키는 구현에 따라 false)
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * 여러 객체를 삭제합니다. (S3 는 한 번의 multi-object delete 요청)
+     * @return 삭제 요청한 키 수
+     */
+    default int deleteAll(List<String> keys) throws IOException {
+        for (String key : keys) {
+            delete(key);
+        }
+        return keys.size();
+    }
+
+    /**
+     * prefix 아래 키를 사전순으로 startAfter 다음부터 최대 maxKeys 개 반환합니다. (저장소 GC 등 전체 스캔용)
+     * @param startAfter null 이면 처음부터
+     */
+    List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException;
+
+    /**
+     * 객체가 로컬 디스크에 있으면 그 경로를 반환합니다. (sendfile/zero-copy 전송용, 없으면 null)
+     */
+    default Path localPath(String key) throws IOException {
+        return null;
+    }
+}
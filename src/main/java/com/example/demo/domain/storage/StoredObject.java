@@ -0,0 +1,21 @@
+package com.example.demo.domain.storage;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * 저장소 객체 메타데이터 (StorageBackend.stat 결과)
+ */
+@Getter
+@RequiredArgsConstructor
+public class StoredObject {
+
+    private final String key;
+    private final long size;
+    // epoch millis (모르면 -1)
+    private final long lastModified;
+    // 따옴표 없는 값 (HTTP ETag 로 쓸 때 감싸서 사용)
+    private final String etag;
+    // 저장소가 기록한 Content-Type (없으면 null → 키 확장자로 판단)
+    private final String contentType;
+}
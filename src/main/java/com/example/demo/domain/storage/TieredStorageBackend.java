@@ -0,0 +1,281 @@
+package com.example.demo.domain.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 원격 저장소(S3) 앞단의 로컬 디스크 캐시
+ * - 읽을 때 객체 전체를 캐시 디렉토리로 받아 두고, 이후 조회/읽기는 원격 왕복 없이 디스크에서 처리합니다. (sendfile 가능)
+ * - 전체 크기가 max-bytes 를 넘으면 가장 오래 사용하지 않은 객체부터 제거합니다. (LRU)
+ * - 같은 키를 동시에 요청하면 원격에서 한 번만 받아 옵니다.
+ * - max-object-bytes 보다 큰 객체는 캐시하지 않고 원격에서 바로 구간 읽기합니다.
+ * - 캐시 인덱스는 메모리에만 있으므로 기동 시 캐시 파일을 비웁니다.
+ *   설정한 디렉토리를 통째로 지우지 않도록 그 아래 전용 하위 디렉토리(.tier-cache)만 만들고 비웁니다.
+ */
+@Slf4j
+public class TieredStorageBackend implements StorageBackend {
+
+    // 캐시 파일을 두는 전용 하위 디렉토리 (이 디렉토리만 비움)
+    private static final String CACHE_SUBDIR = ".tier-cache";
+
+    private final StorageBackend origin;
+    private final LocalStorageBackend cache;
+    private final long maxBytes;
+    private final long maxObjectBytes;
+    // 제거된 파일을 실제로 지우기까지 대기 (진행 중인 sendfile 전송 보호)
+    private final long evictionGraceMillis;
+
+    // 키 → 원격 메타데이터 (접근 순서 = LRU)
+    private final LinkedHashMap<String, StoredObject> index = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService cleaner;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public TieredStorageBackend(StorageBackend origin, Path cacheRoot, long maxBytes, long maxObjectBytes,
+                                long evictionGraceMillis) throws IOException {
+        Path cacheDir = cacheRoot.resolve(CACHE_SUBDIR);
+        FileSystemUtils.deleteRecursively(cacheDir);
+        this.origin = origin;
+        this.cache = new LocalStorageBackend(cacheDir);
+        this.maxBytes = maxBytes;
+        this.maxObjectBytes = Math.min(maxObjectBytes, maxBytes);
+        this.evictionGraceMillis = evictionGraceMillis;
+        this.cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "storage-cache-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void shutdown() {
+        cleaner.shutdownNow();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getUsedBytes() {
+        synchronized (index) {
+            return usedBytes;
+        }
+    }
+
+    @Override
+    public StoredObject stat(String key) throws IOException {
+        synchronized (index) {
+            StoredObject cached = index.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return origin.stat(key);
+    }
+
+    @Override
+    public InputStream open(String key, long start, long count) throws IOException {
+        Path cached = fetch(key);
+        if (cached == null) {
+            return origin.open(key, start, count);
+        }
+        return cache.open(key, start, count);
+    }
+
+    @Override
+    public Path localPath(String key) throws IOException {
+        return fetch(key);
+    }
+
+    @Override
+    public void put(String key, InputStream inputStream, long size, String contentType) throws IOException {
+        origin.put(key, inputStream, size, contentType);
+        invalidate(key);
+    }
+
+    @Override
+    public void put(String key, Path file, String contentType) throws IOException {
+        origin.put(key, file, contentType);
+        invalidate(key);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        invalidate(key);
+        return origin.delete(key);
+    }
+
+    @Override
+    public int deleteAll(List<String> keys) throws IOException {
+        keys.forEach(this::invalidate);
+        return origin.deleteAll(keys);
+    }
+
+    // 목록은 항상 원격 기준
+    @Override
+    public List<StoredObject> list(String prefix, String startAfter, int maxKeys) throws IOException {
+        return origin.list(prefix, startAfter, maxKeys);
+    }
+
+    /**
+     * 캐시된 파일 경로를 반환하고, 없으면 원격에서 받아 캐시합니다.
+     * @return 캐시하지 않는 큰 객체면 null
+     */
+    private Path fetch(String key) throws IOException {
+        Path cached = cachedPath(key);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            // 다른 요청이 받아 오는 중이면 그 결과를 기다림
+            return await(running);
+        }
+        try {
+            Path path = cachedPath(key);
+            if (path == null) {
+                misses.incrementAndGet();
+                path = load(key);
+            }
+            mine.complete(path);
+            return path;
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Path cachedPath(String key) {
+        synchronized (index) {
+            if (!index.containsKey(key)) {
+                return null;
+            }
+        }
+        Path path = cache.localPath(key);
+        if (path == null) {
+            // 인덱스에는 있지만 파일이 지워진 경우 (외부 정리 등)
+            forget(key);
+        }
+        return path;
+    }
+
+    private Path load(String key) throws IOException {
+        StoredObject metadata = origin.stat(key);
+        if (metadata == null) {
+            throw new NoSuchFileException(key);
+        }
+        if (metadata.getSize() > maxObjectBytes) {
+            return null;
+        }
+        try (InputStream inputStream = origin.open(key)) {
+            cache.put(key, inputStream, metadata.getSize(), metadata.getContentType());
+        }
+        admit(key, metadata);
+        log.debug("저장소 캐시 적재: key={}, size={}", key, metadata.getSize());
+        return cache.localPath(key);
+    }
+
+    private void admit(String key, StoredObject metadata) {
+        synchronized (index) {
+            StoredObject previous = index.put(key, metadata);
+            if (previous != null) {
+                usedBytes -= previous.getSize();
+            }
+            usedBytes += metadata.getSize();
+
+            Iterator<Map.Entry<String, StoredObject>> iterator = index.entrySet().iterator();
+            while (usedBytes > maxBytes && iterator.hasNext()) {
+                Map.Entry<String, StoredObject> eldest = iterator.next();
+                if (eldest.getKey().equals(key)) {
+                    continue;
+                }
+                iterator.remove();
+                usedBytes -= eldest.getValue().getSize();
+                scheduleDelete(eldest.getKey());
+            }
+        }
+    }
+
+    private void invalidate(String key) {
+        if (forget(key)) {
+            deleteCachedFile(key);
+        }
+    }
+
+    private boolean forget(String key) {
+        synchronized (index) {
+            StoredObject removed = index.remove(key);
+            if (removed == null) {
+                return false;
+            }
+            usedBytes -= removed.getSize();
+            return true;
+        }
+    }
+
+    private void scheduleDelete(String key) {
+        cleaner.schedule(() -> {
+            // 그사이 다시 적재되었으면 유지
+            synchronized (index) {
+                if (index.containsKey(key)) {
+                    return;
+                }
+            }
+            deleteCachedFile(key);
+        }, evictionGraceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void deleteCachedFile(String key) {
+        try {
+            cache.delete(key);
+        } catch (IOException e) {
+            log.warn("저장소 캐시 파일 삭제 실패: key={} ({})", key, e.getMessage());
+        }
+    }
+
+    private static Path await(CompletableFuture<Path> running) throws IOException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("저장소 캐시 적재 대기 중 인터럽트");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IOException("저장소 캐시 적재 실패", e.getCause());
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.example.demo.test;
 import com.example.demo.domain.service.StorageModeManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -30,6 +31,9 @@ public class TestToggleController {
      */
     @GetMapping("/toggle")
     public ResponseEntity<String> toggleMode() {
+        if (!storageModeManager.isToggleEnabled()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("storage.mode.toggle-enabled=false");
+        }
         boolean isLocal = storageModeManager.toggleMode();
         String newMode = isLocal ? "LOCAL (로컬 파일 I/O)" : "S3 (AWS 연동)";
 
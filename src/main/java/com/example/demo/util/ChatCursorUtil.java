@@ -0,0 +1,65 @@
+package com.example.demo.util;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+public class ChatCursorUtil {
+
+    private static final String SEPARATOR = "|";
+
+    /**
+     * 채팅 이력 키셋 커서: (createdAt, messageId) 복합 키
+     * createdAt 이 같은 메시지는 messageId 로 순서를 가립니다.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Cursor {
+        private final LocalDateTime createdAt;
+        private final long messageId;
+    }
+
+    /**
+     * 커서를 클라이언트에 전달할 불투명 토큰(Base64 URL-safe)으로 변환합니다.
+     * @param createdAt 기준 메시지의 생성 시간
+     * @param messageId 기준 메시지 ID
+     * @return 커서 토큰 (예: "MjAyNS0xMS0yMFQxMDowMDowMHwxNTI")
+     */
+    public static String encode(LocalDateTime createdAt, Long messageId) {
+        if (createdAt == null || messageId == null) {
+            return null;
+        }
+        String raw = createdAt + SEPARATOR + messageId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 커서 토큰을 해석합니다.
+     * 토큰이 아니면 이전 버전의 ISO 시간 문자열로 간주합니다. 이전 버전처럼 해당 시각의 메시지는 제외하고
+     * 그 이전 메시지만 가리키도록 messageId 는 가장 작은 값으로 둡니다.
+     * @param token 커서 토큰 또는 ISO 8601 시간 문자열
+     * @return 해석된 커서, 해석 불가 시 null
+     */
+    public static Cursor decode(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            if (idx > 0) {
+                return new Cursor(LocalDateTime.parse(raw.substring(0, idx)), Long.parseLong(raw.substring(idx + 1)));
+            }
+        } catch (RuntimeException e) {
+            // 토큰 형식이 아님 -> ISO 시간 문자열로 재시도
+        }
+        try {
+            return new Cursor(LocalDateTime.parse(token), Long.MIN_VALUE);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+-- room.roomId 유니크 인덱스 추가 (기존 DB 수동 적용용)
+-- ddl-auto=update 도 uk_room_room_id 를 만들려고 하지만, 중복 roomId 가 있으면 실패하고 로그만 남기므로
+-- 배포 전에 아래 순서로 확인/적용합니다. (인덱스가 없으면 메시지 저장의 "WHERE roomId = ?" UPDATE 가 room 전체를 잠급니다)
+
+-- 1. 중복 roomId 확인 (결과가 있으면 정리 후 진행)
+SELECT roomId, COUNT(*) AS cnt
+FROM room
+GROUP BY roomId
+HAVING cnt > 1;
+
+-- 2. 유니크 인덱스 추가 (InnoDB online DDL, 쓰기 차단 없음)
+ALTER TABLE room
+    ADD CONSTRAINT uk_room_room_id UNIQUE (roomId),
+    ALGORITHM = INPLACE, LOCK = NONE;
+
+-- 3. 확인: key 가 uk_room_room_id 이고 rows 가 1 이어야 함
+EXPLAIN UPDATE room SET lastSeq = lastSeq + 1 WHERE roomId = '00000000-0000-0000-0000-000000000000';
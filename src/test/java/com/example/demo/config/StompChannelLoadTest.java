@@ -0,0 +1,156 @@
+package com.example.demo.config;
+
+import org.apache.commons.logging.LogFactory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * STOMP inbound 채널 부하 비교: 플랫폼 스레드 풀 vs 가상 스레드
+ * - WebSocketConfig 와 같이 세션 순서 보존(OrderedMessageChannelDecorator)을 켠 채널에,
+ *   세션마다 순번이 붙은 메시지를 보내고 핸들러에서 블로킹 I/O(JDBC/S3 대신 sleep)를 흉내 냅니다.
+ * - 최대 스레드 수, 힙 사용량 증가, p50/p99 지연을 출력하고, 세션 내 순서가 지켜졌는지 확인합니다.
+ * - 실행: ./gradlew loadTest --tests '*StompChannelLoadTest'
+ */
+@Tag("load")
+class StompChannelLoadTest {
+
+    private static final int SESSIONS = 200;
+    private static final int MESSAGES_PER_SESSION = 50;
+    // 핸들러 한 번의 블로킹 시간 (메시지 저장/조회 대신)
+    private static final long BLOCKING_MILLIS = 5;
+
+    @Test
+    void platformThreadPool() throws Exception {
+        // Spring 기본 clientInboundChannel 과 같은 크기 (코어 수 x 2)
+        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("load-platform-");
+        executor.initialize();
+        try {
+            Result result = run(executor);
+            result.print("platform(" + poolSize + ")");
+            assertEquals(0, result.outOfOrder, "세션 내 순서 위반");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void virtualThreads() throws Exception {
+        Result result = run(new VirtualThreadTaskExecutor("load-virtual-"));
+        result.print("virtual");
+        assertEquals(0, result.outOfOrder, "세션 내 순서 위반");
+    }
+
+    private Result run(TaskExecutor executor) throws InterruptedException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long heapBefore = memory.getHeapMemoryUsage().getUsed();
+        threads.resetPeakThreadCount();
+
+        int total = SESSIONS * MESSAGES_PER_SESSION;
+        long[] latencies = new long[total];
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        Map<String, AtomicInteger> nextSeq = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(total);
+
+        ExecutorSubscribableChannel channel = new ExecutorSubscribableChannel(executor);
+        channel.subscribe(message -> {
+            try {
+                Thread.sleep(BLOCKING_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+            int seq = (Integer) message.getPayload();
+            if (nextSeq.get(sessionId).getAndIncrement() != seq) {
+                outOfOrder.incrementAndGet();
+            }
+            long sentAt = (Long) message.getHeaders().get("sentAt");
+            latencies[received.getAndIncrement()] = System.nanoTime() - sentAt;
+            done.countDown();
+        });
+        // 세션마다 하나 (StompSubProtocolHandler 와 동일)
+        OrderedMessageChannelDecorator.configureInterceptor(channel, true);
+        MessageChannel[] sessions = new MessageChannel[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions[i] = new OrderedMessageChannelDecorator(channel, LogFactory.getLog(getClass()));
+            nextSeq.put("s" + i, new AtomicInteger());
+        }
+
+        long start = System.nanoTime();
+        for (int seq = 0; seq < MESSAGES_PER_SESSION; seq++) {
+            for (int i = 0; i < SESSIONS; i++) {
+                sessions[i].send(message("s" + i, seq));
+            }
+        }
+        assertTrue(done.await(5, TimeUnit.MINUTES), "시간 내 처리되지 않음");
+        long elapsedNanos = System.nanoTime() - start;
+
+        Arrays.sort(latencies);
+        return new Result(threads.getPeakThreadCount(), memory.getHeapMemoryUsage().getUsed() - heapBefore,
+                latencies[total / 2], latencies[(int) (total * 0.99)], elapsedNanos, total, outOfOrder.get());
+    }
+
+    private static Message<Integer> message(String sessionId, int seq) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setHeader("sentAt", System.nanoTime());
+        // 순서 보존 데코레이터가 다음 메시지 작업 헤더를 붙일 수 있도록
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(seq, accessor.getMessageHeaders());
+    }
+
+    private static class Result {
+        private final int peakThreads;
+        private final long heapDeltaBytes;
+        private final long p50Nanos;
+        private final long p99Nanos;
+        private final long elapsedNanos;
+        private final int total;
+        private final int outOfOrder;
+
+        Result(int peakThreads, long heapDeltaBytes, long p50Nanos, long p99Nanos, long elapsedNanos, int total, int outOfOrder) {
+            this.peakThreads = peakThreads;
+            this.heapDeltaBytes = heapDeltaBytes;
+            this.p50Nanos = p50Nanos;
+            this.p99Nanos = p99Nanos;
+            this.elapsedNanos = elapsedNanos;
+            this.total = total;
+            this.outOfOrder = outOfOrder;
+        }
+
+        void print(String mode) {
+            System.out.printf("[STOMP-LOAD] %-14s threads(peak)=%d heapDelta=%dKB p50=%dms p99=%dms throughput=%.0f msg/s outOfOrder=%d%n",
+                    mode, peakThreads, heapDeltaBytes / 1024, TimeUnit.NANOSECONDS.toMillis(p50Nanos),
+                    TimeUnit.NANOSECONDS.toMillis(p99Nanos), total / (elapsedNanos / 1_000_000_000.0), outOfOrder);
+        }
+    }
+}
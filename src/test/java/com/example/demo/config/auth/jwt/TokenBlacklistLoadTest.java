@@ -0,0 +1,179 @@
+package com.example.demo.config.auth.jwt;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 블랙리스트 확인 처리량 비교: 요청마다 Redis 조회(이전 방식, 토큰 원문 키) vs 로컬 해시 집합 우선(TokenBlacklist)
+ * - 요청의 대부분은 블랙리스트에 없는 토큰이므로 HIT_RATIO 만큼만 블랙리스트 토큰을 섞어 여러 스레드에서 확인하고 초당 확인 수를 출력합니다.
+ * - 다른 노드에서 등록한 토큰이 pub/sub 으로 전달되어 차단되는지도 확인합니다.
+ * - Redis 가 필요합니다. (-Dredis.host, -Dredis.port, 기본 localhost:6379, 연결되지 않으면 건너뜀)
+ * - 실행: ./gradlew loadTest --tests '*TokenBlacklistLoadTest'
+ */
+@Tag("load")
+class TokenBlacklistLoadTest {
+
+    private static final int THREADS = 8;
+    private static final int CHECKS_PER_THREAD = 20_000;
+    private static final int BLACKLISTED = 1_000;
+    // 확인 요청 중 블랙리스트에 있는 토큰 비율
+    private static final double HIT_RATIO = 0.01;
+    private static final long TTL_MILLIS = 30_000;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private final List<RedisMessageListenerContainer> containers = new ArrayList<>();
+    private final List<TokenBlacklist> nodes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        connectionFactory = new LettuceConnectionFactory(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        boolean reachable;
+        try {
+            connectionFactory.getConnection().close();
+            reachable = true;
+        } catch (Exception e) {
+            reachable = false;
+        }
+        assumeTrue(reachable, "Redis 에 연결할 수 없어 건너뜀");
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (TokenBlacklist node : nodes) {
+            node.stop();
+        }
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void localSetVersusRedisPerRequest() throws Exception {
+        TokenBlacklist blacklist = newNode();
+        List<String> blacklisted = new ArrayList<>(BLACKLISTED);
+        for (int i = 0; i < BLACKLISTED; i++) {
+            String token = newToken();
+            blacklist.add(token, TTL_MILLIS);
+            // 이전 방식: 토큰 원문을 키로 저장
+            redisTemplate.opsForValue().set(token, "logout", Duration.ofMillis(TTL_MILLIS));
+            blacklisted.add(token);
+        }
+        List<String> workload = workload(blacklisted);
+
+        double redisRate = measure(workload, token -> Boolean.TRUE.equals(redisTemplate.hasKey(token)));
+        double localRate = measure(workload, blacklist::contains);
+        System.out.printf("[blacklist] threads=%d, checks=%d, hitRatio=%.2f: redis-per-request=%.0f checks/s, local-set=%.0f checks/s (x%.1f)%n",
+                THREADS, THREADS * CHECKS_PER_THREAD, HIT_RATIO, redisRate, localRate, localRate / redisRate);
+
+        for (String token : blacklisted) {
+            assertTrue(blacklist.contains(token), "등록한 토큰이 차단되지 않음");
+            redisTemplate.delete(token);
+        }
+        assertFalse(blacklist.contains(newToken()));
+    }
+
+    @Test
+    void tokenBlacklistedOnOneNodeIsBlockedOnAnother() throws Exception {
+        TokenBlacklist nodeA = newNode();
+        TokenBlacklist nodeB = newNode();
+        // 구독이 준비될 때까지 등록을 반복
+        String token = newToken();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!nodeB.contains(token) && System.currentTimeMillis() < deadline) {
+            nodeA.add(token, TTL_MILLIS);
+            Thread.sleep(50);
+        }
+        assertTrue(nodeB.contains(token), "다른 노드에 전달되지 않음");
+    }
+
+    private TokenBlacklist newNode() {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+
+        TokenBlacklist blacklist = new TokenBlacklist(new StringRedisTemplate(connectionFactory), container);
+        ReflectionTestUtils.setField(blacklist, "resyncMinutes", 5L);
+        blacklist.start();
+        nodes.add(blacklist);
+        return blacklist;
+    }
+
+    // 스레드별 확인 목록: HIT_RATIO 만큼 블랙리스트 토큰, 나머지는 처음 보는 토큰
+    private List<String> workload(List<String> blacklisted) {
+        List<String> tokens = new ArrayList<>(CHECKS_PER_THREAD);
+        for (int i = 0; i < CHECKS_PER_THREAD; i++) {
+            tokens.add(random.nextDouble() < HIT_RATIO
+                    ? blacklisted.get(random.nextInt(blacklisted.size()))
+                    : newToken());
+        }
+        return tokens;
+    }
+
+    private double measure(List<String> workload, Predicate<String> check) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>(THREADS);
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    int blocked = 0;
+                    for (String token : workload) {
+                        if (check.test(token)) {
+                            blocked++;
+                        }
+                    }
+                    return blocked;
+                });
+            }
+            long start = System.nanoTime();
+            int blocked = 0;
+            for (Future<Integer> future : executor.invokeAll(tasks)) {
+                blocked += future.get();
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            assertTrue(blocked > 0, "블랙리스트 토큰이 하나도 차단되지 않음");
+            return THREADS * (double) workload.size() / (elapsedNanos / 1e9);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // JWT 와 비슷한 길이의 임의 토큰 ("eyJ" 로 시작하면 기동 시 이전 형식 키로 보고 이전하므로 다른 접두어 사용)
+    private String newToken() {
+        byte[] bytes = new byte[180];
+        random.nextBytes(bytes);
+        return "load-test." + Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.demo.domain.service;
+
+import com.example.demo.config.StompSubscriptionRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Redis 중계 부하 측정: 한 JVM 안에 두 노드(ChatFanoutRelay 두 개)를 띄우고 A 에서 보낸 방 메시지가 B 의 구독자에게 도착하기까지를 잽니다.
+ * - 처리량, p50/p99 지연을 출력하고, 모든 메시지가 정확히 한 번, 방 안에서는 보낸 순서대로 도착했는지 확인합니다.
+ * - 강퇴(MEMBER_REMOVED)가 다른 노드의 해당 사용자 구독만 해제하는지도 확인합니다.
+ * - Redis 가 필요합니다. (-Dredis.host, -Dredis.port, 기본 localhost:6379, 연결되지 않으면 건너뜀)
+ * - 실행: ./gradlew loadTest --tests '*ChatFanoutRelayLoadTest'
+ */
+@Tag("load")
+class ChatFanoutRelayLoadTest {
+
+    private static final int ROOMS = 100;
+    private static final int MESSAGES_PER_ROOM = 200;
+    private static final String PROBE_ROOM = "probe";
+    private static final String PROBE_DESTINATION = "/sub/chat/room/" + PROBE_ROOM;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LettuceConnectionFactory connectionFactory;
+    private final List<RedisMessageListenerContainer> containers = new CopyOnWriteArrayList<>();
+    private ChatFanoutRelay nodeA;
+    private ChatFanoutRelay nodeB;
+
+    // 노드 B 의 브로커로 전달된 메시지 (구독 준비 확인용)
+    private final List<Message<?>> nodeBDeliveries = new CopyOnWriteArrayList<>();
+    private volatile MessageChannel nodeBOutbound = (message, timeout) -> nodeBDeliveries.add(message);
+    // 노드 B 의 브로커 채널로 보낸 UNSUBSCRIBE (강퇴 전파 확인)
+    private final List<Message<?>> nodeBUnsubscribes = new CopyOnWriteArrayList<>();
+    private StompSubscriptionRegistry nodeBSubscriptions;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        connectionFactory = new LettuceConnectionFactory(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        boolean reachable;
+        try {
+            connectionFactory.getConnection().close();
+            reachable = true;
+        } catch (Exception e) {
+            reachable = false;
+        }
+        assumeTrue(reachable, "Redis 에 연결할 수 없어 건너뜀");
+
+        nodeA = newNode((message, timeout) -> true, new RoomMembershipIndex(null,
+                new StompSubscriptionRegistry((message, timeout) -> true), null));
+
+        nodeBSubscriptions = new StompSubscriptionRegistry((message, timeout) -> nodeBUnsubscribes.add(message));
+        nodeB = newNode((message, timeout) -> nodeBOutbound.send(message, timeout),
+                new RoomMembershipIndex(null, nodeBSubscriptions, null));
+
+        awaitSubscribed();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (nodeA != null) {
+            nodeA.stop();
+        }
+        if (nodeB != null) {
+            nodeB.stop();
+        }
+        for (RedisMessageListenerContainer container : containers) {
+            container.destroy();
+        }
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void roomMessagesReachOtherNodeOnceAndInOrder() throws Exception {
+        int total = ROOMS * MESSAGES_PER_ROOM;
+        long[] latencies = new long[total];
+        AtomicInteger received = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        Map<String, AtomicInteger> lastSeq = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(total);
+
+        nodeBOutbound = (message, timeout) -> {
+            JsonNode payload = (JsonNode) message.getPayload();
+            String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+            if (PROBE_DESTINATION.equals(destination)) {
+                return true;
+            }
+            int seq = payload.path("seq").asInt();
+            int previous = lastSeq.computeIfAbsent(destination, d -> new AtomicInteger(-1)).getAndSet(seq);
+            if (seq <= previous) {
+                outOfOrder.incrementAndGet();
+            }
+            int index = received.getAndIncrement();
+            if (index < total) {
+                latencies[index] = System.nanoTime() - payload.path("sentAt").asLong();
+            }
+            done.countDown();
+            return true;
+        };
+
+        long start = System.nanoTime();
+        for (int seq = 0; seq < MESSAGES_PER_ROOM; seq++) {
+            for (int room = 0; room < ROOMS; room++) {
+                nodeA.sendToRoom("room-" + room, Map.of("seq", seq, "sentAt", System.nanoTime()));
+            }
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS), "60초 안에 모든 메시지가 도착하지 않음: " + received.get() + "/" + total);
+        long elapsedNanos = System.nanoTime() - start;
+        // 늦게 도착하는 중복이 없는지 잠시 더 기다림
+        Thread.sleep(500);
+
+        Arrays.sort(latencies);
+        System.out.printf("[fanout] rooms=%d, messages=%d, throughput=%.0f msg/s, p50=%.2fms, p99=%.2fms, max=%.2fms%n",
+                ROOMS, total, total / (elapsedNanos / 1e9),
+                latencies[total / 2] / 1e6, latencies[(int) (total * 0.99)] / 1e6, latencies[total - 1] / 1e6);
+
+        assertEquals(total, received.get(), "중복 또는 누락");
+        assertEquals(0, outOfOrder.get(), "방 내 순서 위반");
+    }
+
+    @Test
+    void kickRevokesSubscriptionOnOtherNode() throws Exception {
+        nodeBSubscriptions.register("session-1", "sub-0", "room-1", 7L);
+        nodeBSubscriptions.register("session-2", "sub-0", "room-1", 8L);
+
+        nodeA.publishMembershipChange(RoomMembershipIndex.Change.MEMBER_REMOVED, "room-1", 7L);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (nodeBUnsubscribes.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(200);
+        assertEquals(1, nodeBUnsubscribes.size(), "강퇴된 사용자의 구독만 해제되어야 함");
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(nodeBUnsubscribes.get(0));
+        assertEquals(SimpMessageType.UNSUBSCRIBE, accessor.getMessageType());
+        assertEquals("session-1", accessor.getSessionId());
+    }
+
+    // 노드마다 RedisConfig 와 같은 구독 컨테이너 (전용 스레드 하나에서 도착 순서대로 처리)
+    private ChatFanoutRelay newNode(MessageChannel outbound, RoomMembershipIndex index) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setDaemon(true);
+        executor.initialize();
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(executor);
+        container.afterPropertiesSet();
+        container.start();
+        containers.add(container);
+
+        ChatFanoutRelay relay = new ChatFanoutRelay(new SimpMessagingTemplate(outbound),
+                new StringRedisTemplate(connectionFactory), container, objectMapper, index);
+        ReflectionTestUtils.setField(relay, "mode", "redis");
+        ReflectionTestUtils.setField(relay, "shards", 16);
+        relay.start();
+        return relay;
+    }
+
+    // 구독이 실제로 등록될 때까지 A -> B 로 확인 메시지를 보냄
+    private void awaitSubscribed() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            nodeA.sendToRoom(PROBE_ROOM, Map.of("seq", 0, "sentAt", 0));
+            Thread.sleep(50);
+            if (!nodeBDeliveries.isEmpty()) {
+                return;
+            }
+        }
+        throw new IllegalStateException("Redis 구독이 준비되지 않음");
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.demo.domain.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.example.demo.domain.dto.FileUrlResponse;
+import com.example.demo.domain.dto.PresignedUploadResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 직접 업로드 발급/확인 규칙 (로컬 서명 URL 모드)
+ */
+class PresignedUrlServiceTest {
+
+    private static final String OWNER = "owner@example.com";
+    private static final String KEY = "chat/room-1/file.png";
+
+    private FileService fileService;
+    private PendingUploadRegistry pendingUploadRegistry;
+    private PresignedUrlService service;
+
+    @BeforeEach
+    void setUp() {
+        StorageModeManager storageModeManager = mock(StorageModeManager.class);
+        when(storageModeManager.isLocalMode()).thenReturn(true);
+        fileService = mock(FileService.class);
+        when(fileService.newStorageKey("chat/room-1", "file.png")).thenReturn(KEY);
+        pendingUploadRegistry = mock(PendingUploadRegistry.class);
+
+        service = new PresignedUrlService(mock(AmazonS3.class), "bucket", storageModeManager, fileService,
+                mock(ContentAddressedStore.class), pendingUploadRegistry);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "uploadTtlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "downloadTtlSeconds", 300L);
+        ReflectionTestUtils.setField(service, "maxUploadBytes", 1000L);
+        ReflectionTestUtils.setField(service, "secret", "test-secret");
+        service.init();
+    }
+
+    @Test
+    void issueUploadSignsDeclaredSizeAndRecordsOwner() {
+        PresignedUploadResponse response = service.issueUpload(OWNER, "chat/room-1", "file.png", "image/png", 500);
+
+        assertEquals(KEY, response.getStorageKey());
+        assertTrue(response.getUploadUrl().contains("&len=500&"));
+        verify(pendingUploadRegistry).register(KEY, OWNER, 500L, response.getExpiresAt());
+
+        String signature = response.getUploadUrl().substring(response.getUploadUrl().indexOf("&sig=") + 5);
+        assertTrue(service.verifyLocalUpload(KEY, response.getExpiresAt(), 500, signature));
+        // 서명된 크기와 다른 크기로는 올릴 수 없음
+        assertFalse(service.verifyLocalUpload(KEY, response.getExpiresAt(), 501, signature));
+    }
+
+    @Test
+    void downloadUrlSignsAttachmentFileName() {
+        String url = service.issueDownloadUrl(KEY, "report.pdf", false);
+
+        long expiresAt = Long.parseLong(queryParam(url, "exp"));
+        String signature = queryParam(url, "sig");
+        assertEquals("report.pdf", queryParam(url, "fileName"));
+        assertTrue(service.verifyLocalToken("GET", KEY, expiresAt, "report.pdf", signature));
+        // 서명 없이 파일명을 바꾸거나 붙일 수 없음
+        assertFalse(service.verifyLocalToken("GET", KEY, expiresAt, "evil.html", signature));
+        assertFalse(service.verifyLocalToken("GET", KEY, expiresAt, null, signature));
+
+        String inlineUrl = service.issueDownloadUrl(KEY, "report.pdf", true);
+        String inlineSignature = queryParam(inlineUrl, "sig");
+        assertTrue(service.verifyLocalToken("GET", KEY, Long.parseLong(queryParam(inlineUrl, "exp")), null, inlineSignature));
+        assertFalse(service.verifyLocalToken("GET", KEY, Long.parseLong(queryParam(inlineUrl, "exp")), "report.pdf", inlineSignature));
+    }
+
+    @Test
+    void issueUploadRejectsOversizedDeclaration() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.issueUpload(OWNER, "chat/room-1", "file.png", "image/png", 1001));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, e.getStatusCode());
+        verify(pendingUploadRegistry, never()).register(anyString(), anyString(), anyLong(), anyLong());
+    }
+
+    @Test
+    void confirmUploadRejectsOtherUser() {
+        when(pendingUploadRegistry.find(KEY)).thenReturn(new PendingUploadRegistry.PendingUpload(OWNER, 500));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.confirmUpload("other@example.com", "chat/room-1", KEY, "file.png"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+        verify(pendingUploadRegistry, never()).claim(KEY);
+    }
+
+    @Test
+    void confirmUploadRejectsExpiredOrUnknownKey() {
+        when(pendingUploadRegistry.find(KEY)).thenReturn(null);
+
+        assertThrows(ResponseStatusException.class,
+                () -> service.confirmUpload(OWNER, "chat/room-1", KEY, "file.png"));
+    }
+
+    @Test
+    void confirmUploadRejectsKeyOutsideDirectory() {
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.confirmUpload(OWNER, "chat/room-2", KEY, "file.png"));
+
+        assertEquals(HttpStatus.BAD_REQUEST, e.getStatusCode());
+    }
+
+    @Test
+    void confirmUploadClaimsOwnersUpload() {
+        when(pendingUploadRegistry.find(KEY)).thenReturn(new PendingUploadRegistry.PendingUpload(OWNER, 500));
+        when(fileService.getStoredSize(KEY)).thenReturn(500L);
+        when(pendingUploadRegistry.claim(KEY)).thenReturn(true);
+
+        FileUrlResponse response = service.confirmUpload(OWNER, "chat/room-1", KEY, "file.png");
+
+        assertEquals(KEY, response.getStorageKey());
+        verify(fileService, never()).discardUpload(KEY);
+    }
+
+    @Test
+    void confirmUploadDiscardsSizeMismatch() {
+        when(pendingUploadRegistry.find(KEY)).thenReturn(new PendingUploadRegistry.PendingUpload(OWNER, 500));
+        when(fileService.getStoredSize(KEY)).thenReturn(900L);
+        when(pendingUploadRegistry.claim(KEY)).thenReturn(true);
+
+        assertThrows(ResponseStatusException.class,
+                () -> service.confirmUpload(OWNER, "chat/room-1", KEY, "file.png"));
+        verify(fileService).discardUpload(KEY);
+    }
+
+    @Test
+    void confirmUploadFailsWhenAlreadyClaimed() {
+        when(pendingUploadRegistry.find(KEY)).thenReturn(new PendingUploadRegistry.PendingUpload(OWNER, 500));
+        when(fileService.getStoredSize(KEY)).thenReturn(500L);
+        when(pendingUploadRegistry.claim(KEY)).thenReturn(false);
+
+        assertThrows(ResponseStatusException.class,
+                () -> service.confirmUpload(OWNER, "chat/room-1", KEY, "file.png"));
+        verify(fileService, never()).discardUpload(KEY);
+    }
+
+    private static String queryParam(String url, String name) {
+        for (String pair : url.substring(url.indexOf('?') + 1).split("&")) {
+            if (pair.startsWith(name + "=")) {
+                return pair.substring(name.length() + 1);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.domain.service;
+
+import com.amazonaws.auth.AWSStaticCredentialsProvider;
+import com.amazonaws.auth.BasicAWSCredentials;
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.ListMultipartUploadsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.S3Object;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.MinIOContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * S3MultipartUploader 통합 테스트 (MinIO 컨테이너, Docker 가 없으면 건너뜀)
+ * - 파트 경계가 맞지 않는 크기/정확히 맞는 크기 모두 원본과 같은 객체가 만들어지는지,
+ *   읽기 도중 실패하면 업로드가 abort 되어 객체와 미완료 업로드가 남지 않는지 확인합니다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3MultipartUploaderIntegrationTest {
+
+    private static final String BUCKET = "multipart-test";
+    // S3 최소 파트 크기
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+
+    @Container
+    private static final MinIOContainer MINIO = new MinIOContainer("minio/minio:RELEASE.2024-05-10T01-41-38Z");
+
+    private static AmazonS3 s3Client;
+
+    private S3MultipartUploader uploader;
+
+    @BeforeAll
+    static void createBucket() {
+        s3Client = AmazonS3ClientBuilder.standard()
+                .withEndpointConfiguration(new AwsClientBuilder.EndpointConfiguration(MINIO.getS3URL(), "us-east-1"))
+                .withPathStyleAccessEnabled(true)
+                .withCredentials(new AWSStaticCredentialsProvider(
+                        new BasicAWSCredentials(MINIO.getUserName(), MINIO.getPassword())))
+                .build();
+        s3Client.createBucket(BUCKET);
+    }
+
+    @BeforeEach
+    void setUp() {
+        uploader = new S3MultipartUploader(s3Client, BUCKET, mock(StorageModeManager.class));
+        ReflectionTestUtils.setField(uploader, "thresholdBytes", (long) PART_SIZE);
+        ReflectionTestUtils.setField(uploader, "partSizeBytes", PART_SIZE);
+        ReflectionTestUtils.setField(uploader, "parallelism", 3);
+        ReflectionTestUtils.setField(uploader, "bufferCount", 3);
+        ReflectionTestUtils.setField(uploader, "maxRetries", 1);
+        ReflectionTestUtils.setField(uploader, "staleUploadHours", 24L);
+        uploader.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploader.shutdown();
+    }
+
+    @Test
+    void uploadsPartialLastPart() throws Exception {
+        // 5MB + 5MB + 1.5MB
+        assertRoundTrip("chat/1/partial.bin", randomBytes(2 * PART_SIZE + PART_SIZE / 2 + 123));
+    }
+
+    @Test
+    void uploadsExactMultipleOfPartSize() throws Exception {
+        // 마지막 읽기가 0바이트인 경우 빈 파트를 올리지 않아야 함
+        assertRoundTrip("chat/1/exact.bin", randomBytes(2 * PART_SIZE));
+    }
+
+    @Test
+    void abortsWhenSourceFailsMidway() {
+        String key = "chat/1/broken.bin";
+        byte[] data = randomBytes(3 * PART_SIZE);
+        InputStream failing = new FilterInputStream(new ByteArrayInputStream(data)) {
+            private long read;
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (read > PART_SIZE + PART_SIZE / 2) {
+                    throw new IOException("client disconnected");
+                }
+                int n = super.read(b, off, len);
+                read += Math.max(n, 0);
+                return n;
+            }
+        };
+
+        assertThrows(IOException.class, () -> uploader.upload(key, failing, metadata()));
+
+        assertFalse(s3Client.doesObjectExist(BUCKET, key), "실패한 업로드의 객체가 남음");
+        assertTrue(s3Client.listMultipartUploads(new ListMultipartUploadsRequest(BUCKET).withPrefix(key))
+                .getMultipartUploads().isEmpty(), "abort 되지 않은 멀티파트 업로드가 남음");
+    }
+
+    private void assertRoundTrip(String key, byte[] data) throws Exception {
+        assertTrue(uploader.shouldUseMultipart(data.length));
+        uploader.upload(key, new ByteArrayInputStream(data), metadata());
+
+        try (S3Object object = s3Client.getObject(BUCKET, key)) {
+            assertEquals(data.length, object.getObjectMetadata().getContentLength());
+            assertArrayEquals(sha256(data), sha256(object.getObjectContent().readAllBytes()));
+        }
+        assertTrue(s3Client.listMultipartUploads(new ListMultipartUploadsRequest(BUCKET).withPrefix(key))
+                .getMultipartUploads().isEmpty(), "완료 후에도 미완료 업로드가 남음");
+    }
+
+    // S3StorageBackend 와 같이 Content-Type 만 지정 (멀티파트 시작 요청에는 본문이 없음)
+    private static ObjectMetadata metadata() {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentType("application/octet-stream");
+        return metadata;
+    }
+
+    private static byte[] randomBytes(int size) {
+        byte[] data = new byte[size];
+        new Random(size).nextBytes(data);
+        return data;
+    }
+
+    private static byte[] sha256(byte[] data) throws Exception {
+        return MessageDigest.getInstance("SHA-256").digest(data);
+    }
+}